@@ -0,0 +1,145 @@
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Нагрузочный тест одной страницы: N одновременных клиентов в течение заданного времени.
+ * <p>
+ * Запуск (Java 21, без сборки): java scripts/LoadTest.java BASE_URL EMAIL PASSWORD PATH [CLIENTS] [SECONDS] [WARMUP]
+ * <ul>
+ *   <li>PATH {@code /visits/add} — POST регистрации посещения первой выставки из формы /visits;</li>
+ *   <li>любой другой PATH, например {@code /visits?size=20}, — GET страницы.</li>
+ * </ul>
+ * Все клиенты используют одну сессию пользователя. Печатает строку:
+ * путь, запросов в секунду, p50 и p99 задержки (мс), число ошибок (ответы не 2xx/3xx и сбои соединения).
+ */
+public class LoadTest {
+
+    private static final Pattern EXHIBITION_OPTION = Pattern.compile("<option value=\"(\\d+)\"");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("java scripts/LoadTest.java BASE_URL EMAIL PASSWORD PATH [CLIENTS] [SECONDS] [WARMUP]");
+            System.exit(1);
+        }
+        String base = args[0];
+        String path = args[3];
+        int clients = args.length > 4 ? Integer.parseInt(args[4]) : 200;
+        int seconds = args.length > 5 ? Integer.parseInt(args[5]) : 30;
+        int warmup = args.length > 6 ? Integer.parseInt(args[6]) : 10;
+
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        client.send(form(base + "/login", "username=" + encode(args[1]) + "&password=" + encode(args[2])),
+                HttpResponse.BodyHandlers.discarding());
+
+        HttpRequest request;
+        if (path.equals("/visits/add")) {
+            String page = client.send(HttpRequest.newBuilder(URI.create(base + "/visits")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            Matcher option = EXHIBITION_OPTION.matcher(page);
+            if (!option.find()) {
+                throw new IllegalStateException("На странице /visits нет выставок для регистрации посещения");
+            }
+            request = form(base + path, "exhibition.id=" + option.group(1));
+        } else {
+            request = HttpRequest.newBuilder(URI.create(base + path)).build();
+        }
+
+        run(client, request, clients, warmup);
+        Result result = run(client, request, clients, seconds);
+        System.out.printf("%-16s %10.1f %8.1f %8.1f %8d%n", path, result.count / (double) seconds,
+                result.percentile(0.50), result.percentile(0.99), result.errors);
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int clients, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<Result>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    Result result = new Result();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status >= 400) {
+                                result.errors++;
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            result.errors++;
+                            continue;
+                        }
+                        result.add(System.nanoTime() - start);
+                    }
+                    return result;
+                }));
+            }
+        }
+        Result total = new Result();
+        for (Future<Result> future : futures) {
+            total.merge(future.get());
+        }
+        return total;
+    }
+
+    private static HttpRequest form(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Задержки успешных запросов (нс) и число ошибок.
+     */
+    private static final class Result {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void add(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        void merge(Result other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.latencies[i]);
+            }
+            errors += other.errors;
+        }
+
+        double percentile(double p) {
+            if (count == 0) {
+                return Double.NaN;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted[Math.min(count - 1, (int) Math.ceil(p * count) - 1)] / 1_000_000.0;
+        }
+    }
+}
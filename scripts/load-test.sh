@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Пропускная способность и p99 страниц, упирающихся в базу данных, в двух режимах:
+#   platform - пул потоков Tomcat (по умолчанию)
+#   virtual  - виртуальные потоки
+# По умолчанию замеряются журнал посещений с ограниченным размером страницы и регистрация посещения.
+# Каталог /exhibits сюда не входит: он строит страницу из всего каталога и упирается в процессор.
+#
+# Предварительно: mvn package -DskipTests
+# Запуск:         scripts/load-test.sh [аргументы приложения...]
+#   например:     CLIENTS=400 SECONDS=30 scripts/load-test.sh --spring.datasource.url=jdbc:postgresql://db:5432/museum_db
+# Переменные:     CLIENTS (одновременных клиентов), SECONDS (замер), WARMUP (прогрев, с), PORT,
+#                 PATHS (страницы через пробел), MODES (режимы через пробел),
+#                 LOAD_USER, LOAD_PASSWORD (по умолчанию посетитель из начальных данных)
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CLIENTS=${CLIENTS:-400}
+SECONDS_PER_RUN=${SECONDS:-30}
+WARMUP=${WARMUP:-10}
+PORT=${PORT:-18082}
+PATHS=${PATHS:-/visits?size=20 /visits/add}
+MODES=${MODES:-platform virtual}
+LOAD_USER=${LOAD_USER:-visitor@museum.com}
+LOAD_PASSWORD=${LOAD_PASSWORD:-visitorpass}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAR=$(ls target/museum-*.jar | grep -v '\.original$' | head -1)
+
+printf '%-9s %-16s %10s %8s %8s %8s\n' "mode" "path" "req/s" "p50,ms" "p99,ms" "errors"
+for mode in $MODES; do
+    virtual=$([[ $mode != platform ]] && echo true || echo false)
+    $JAVA -jar "$JAR" --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" "$@" \
+        > "target/load-$mode.log" 2>&1 &
+    pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+    until [[ $(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/login") == 200 ]]; do
+        kill -0 "$pid" 2>/dev/null || { echo "Режим $mode не запустился, см. target/load-$mode.log" >&2; exit 1; }
+        sleep 0.5
+    done
+    for path in $PATHS; do
+        printf '%-9s ' "$mode"
+        $JAVA scripts/LoadTest.java "http://localhost:$PORT" "$LOAD_USER" "$LOAD_PASSWORD" "$path" \
+            "$CLIENTS" "$SECONDS_PER_RUN" "$WARMUP"
+    done
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+done
@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+# Время до первого ответа (time-to-first-request) в режимах запуска:
+#   jar - обычный исполняемый JAR
+#   aot - тот же JAR с контекстом, подготовленным AOT-обработкой (-Dspring.aot.enabled=true)
+#   cds - распакованное приложение с AOT и архивом классов CDS
+#
+# Предварительно: mvn -Pcds package
+# Запуск:         scripts/startup-benchmark.sh [аргументы приложения...]
+#   например:     RUNS=10 scripts/startup-benchmark.sh --spring.datasource.url=jdbc:postgresql://db:5432/museum_db
+#
+# Время отсчитывается от запуска JVM до первого ответа 200 на GET /login
+# (страница входа: безопасность, MVC и Thymeleaf).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAR=$(ls target/museum-*.jar | grep -v '\.original$' | head -1)
+APP_DIR=target/application
+APP_JAR=$APP_DIR/$(basename "$JAR")
+ARCHIVE=$APP_DIR/museum.jsa
+LOG_DIR=$PWD/target
+
+if [[ ! -f $APP_JAR || ! -f $ARCHIVE ]]; then
+    echo "Не найдены $APP_JAR и $ARCHIVE: сначала выполните mvn -Pcds package" >&2
+    exit 1
+fi
+
+mode_command() {
+    case $1 in
+        jar) echo "$JAVA -jar $JAR" ;;
+        aot) echo "$JAVA -Dspring.aot.enabled=true -jar $JAR" ;;
+        # путь к классам должен совпадать с пробным запуском, поэтому запуск из каталога приложения
+        cds) echo "$JAVA -XX:SharedArchiveFile=museum.jsa -Dspring.aot.enabled=true -jar $(basename "$APP_JAR")" ;;
+    esac
+}
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# одно измерение: печатает миллисекунды до первого ответа
+measure() {
+    local start pid elapsed=""
+    start=$(now_ms)
+    (
+        [[ $1 == cds ]] && cd "$APP_DIR"
+        exec $(mode_command "$1") --server.port="$PORT" "${@:2}"
+    ) > "$LOG_DIR/startup-$1.log" 2>&1 &
+    pid=$!
+    for _ in $(seq 1 1200); do
+        if [[ $(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/login") == 200 ]]; then
+            elapsed=$(( $(now_ms) - start ))
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null; then
+            break
+        fi
+        sleep 0.05
+    done
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+    if grep -q "Unable to use shared archive" "$LOG_DIR/startup-$1.log"; then
+        echo "Архив CDS не загружен, пересоберите: mvn -Pcds package" >&2
+        exit 1
+    fi
+    if [[ -z $elapsed ]]; then
+        echo "Режим $1 не запустился, см. target/startup-$1.log" >&2
+        exit 1
+    fi
+    echo "$elapsed"
+}
+
+printf '%-5s %10s %10s %10s\n' "mode" "median,ms" "min,ms" "max,ms"
+for mode in jar aot cds; do
+    results=()
+    for _ in $(seq 1 "$RUNS"); do
+        results+=("$(measure "$mode" "$@")")
+    done
+    sorted=($(printf '%s\n' "${results[@]}" | sort -n))
+    printf '%-5s %10s %10s %10s\n' "$mode" "${sorted[$(( RUNS / 2 ))]}" "${sorted[0]}" "${sorted[$(( RUNS - 1 ))]}"
+done
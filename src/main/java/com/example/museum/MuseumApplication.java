@@ -2,6 +2,7 @@ package com.example.museum;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 
 /**
@@ -14,10 +15,19 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  *   <li>Сканирование компонентов в текущем пакете и подпакетах ({@code @ComponentScan})</li>
  *   <li>Автонастройку Spring Boot ({@code @EnableAutoConfiguration})</li>
  * </ul>
+ * <p>
+ * Шаги запуска (создание бинов, обновление контекста и т. п.) записываются
+ * в {@link BufferingApplicationStartup}: они доступны администраторам через
+ * {@code /actuator/startup} и сохраняются в JSON-отчёт ({@code museum.startup.report-file}).
  */
 @SpringBootApplication
 public class MuseumApplication {
 
+	/**
+	 * Сколько шагов запуска хранить в памяти (обычный запуск записывает несколько тысяч).
+	 */
+	static final int STARTUP_STEPS_CAPACITY = 10_000;
+
 	/**
 	 * Точка входа в приложение.
 	 * <p>
@@ -27,6 +37,17 @@ public class MuseumApplication {
 	 * @param args аргументы командной строки, передаваемые при запуске
 	 */
 	public static void main(String[] args) {
-		SpringApplication.run(MuseumApplication.class, args);
+		application().run(args);
+	}
+
+	/**
+	 * Создаёт приложение с записью шагов запуска.
+	 *
+	 * @return настроенный {@link SpringApplication}
+	 */
+	public static SpringApplication application() {
+		SpringApplication application = new SpringApplication(MuseumApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+		return application;
 	}
 }
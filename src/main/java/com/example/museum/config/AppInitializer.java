@@ -1,29 +1,98 @@
 package com.example.museum.config;
 
 import com.example.museum.model.Role;
+import com.example.museum.model.SeedVersion;
 import com.example.museum.model.User;
 import com.example.museum.model.Exhibition;
+import com.example.museum.repository.SeedVersionRepository;
 import com.example.museum.repository.UserRepository;
 import com.example.museum.repository.ExhibitionRepository;
-import jakarta.annotation.PostConstruct;
+import com.example.museum.service.CatalogReadModelService;
+import com.example.museum.service.UserRevisionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Конфигурационный компонент, отвечающий за инициализацию базовых данных
  * при первом запуске приложения. Создаёт пользователей по умолчанию
  * и набор постоянных выставок, привязанных к гидам.
  * <p>
- * Инициализация выполняется один раз после полной загрузки контекста Spring.
+ * Заполнение выполняется после готовности приложения и не задерживает запуск веб-сервера.
+ * Применённая версия набора сохраняется в таблице {@code seed_versions}: если она не ниже
+ * {@link #SEED_VERSION}, заполненная база не проверяется повторно. Иначе существующие
+ * пользователи и выставки находятся одним запросом {@code IN} каждые, пароли хешируются
+ * только для недостающих пользователей, а вставка выполняется одной пакетной транзакцией.
+ * При изменении набора данных нужно увеличить {@link #SEED_VERSION}.
  */
 @Component
 public class AppInitializer {
 
+    private static final Logger log = LoggerFactory.getLogger(AppInitializer.class);
+
+    /**
+     * Название набора начальных данных в таблице {@code seed_versions}.
+     */
+    static final String SEED_NAME = "default-data";
+
+    /**
+     * Текущая версия набора начальных данных.
+     */
+    static final int SEED_VERSION = 1;
+
+    private static final LocalDate PERMANENT_START = LocalDate.of(2000, 1, 1);
+    private static final LocalDate PERMANENT_END = LocalDate.of(2100, 1, 1);
+
+    private static final List<SeedUser> USERS = List.of(
+            new SeedUser("guide1@museum.com", "guidepass", Role.GUIDE, "Андрей Семёнович Крыжанов"),
+            new SeedUser("guide2@museum.com", "guidepass", Role.GUIDE, "Ким Татьяна Ивановна"),
+            new SeedUser("guide3@museum.com", "guidepass", Role.GUIDE, "Григорьев Семён Михайлович"),
+            new SeedUser("guide4@museum.com", "guidepass", Role.GUIDE, "Иванов Игорь Максимович"),
+            new SeedUser("guide5@museum.com", "guidepass", Role.GUIDE, "Самборский Олег Вадимович"),
+            new SeedUser("guide6@museum.com", "guidepass", Role.GUIDE, "Краснова Екатерина Витальевна"),
+            new SeedUser("superadmin@museum.com", "superpass", Role.SUPER_ADMIN, "СуперАдмин"),
+            new SeedUser("admin@museum.com", "adminpass", Role.ADMIN, "Админ"),
+            new SeedUser("visitor@museum.com", "visitorpass", Role.VISITOR, "Посетитель"));
+
+    private static final List<SeedExhibition> EXHIBITIONS = List.of(
+            new SeedExhibition("Постоянная: Ботаника сквозь века",
+                    "Коллекция гербарных образцов XVIII–XX веков", "guide1@museum.com"),
+            new SeedExhibition("Постоянная: Тропическая оранжерея",
+                    "Живые растения со всего мира", "guide2@museum.com"),
+            new SeedExhibition("Постоянная: Эволюция зеленых",
+                    "От папоротников до цветковых", "guide3@museum.com"),
+            new SeedExhibition("Постоянная: Лекарственные растения",
+                    "От фитотерапии до современной фармакологии", "guide4@museum.com"),
+            new SeedExhibition("Постоянная: Деревья-долгожители",
+                    "История и экология вековых растений", "guide5@museum.com"),
+            new SeedExhibition("Постоянная: Символика растений в культуре и искусстве",
+                    "Зелень бок о бок с культурой", "guide6@museum.com"));
+
     private final UserRepository userRepository;
     private final ExhibitionRepository exhibitionRepository;
+    private final SeedVersionRepository seedVersionRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserRevisionService userRevisionService;
+    private final CatalogReadModelService catalogReadModelService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationStartup applicationStartup;
 
 
     /**
@@ -31,114 +100,122 @@ public class AppInitializer {
      *
      * @param userRepository           репозиторий для работы с пользователями
      * @param exhibitionRepository     репозиторий для работы с выставками
+     * @param seedVersionRepository    репозиторий отметок о применённых начальных данных
      * @param passwordEncoder          компонент для хеширования паролей
+     * @param userRevisionService      сервис учёта изменений пользователей (кеши, фильтр email)
+     * @param catalogReadModelService  модель чтения каталога (список выставок)
+     * @param transactionManager       менеджер транзакций для пакетной вставки
+     * @param applicationStartup       запись шагов запуска (шаг {@code museum.data.seed})
      */
     public AppInitializer(UserRepository userRepository,
                           ExhibitionRepository exhibitionRepository,
-                          PasswordEncoder passwordEncoder) {
+                          SeedVersionRepository seedVersionRepository,
+                          PasswordEncoder passwordEncoder,
+                          UserRevisionService userRevisionService,
+                          CatalogReadModelService catalogReadModelService,
+                          PlatformTransactionManager transactionManager,
+                          ApplicationStartup applicationStartup) {
         this.userRepository = userRepository;
         this.exhibitionRepository = exhibitionRepository;
+        this.seedVersionRepository = seedVersionRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userRevisionService = userRevisionService;
+        this.catalogReadModelService = catalogReadModelService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationStartup = applicationStartup;
     }
 
     /**
-     * Инициализирует базовые данные: создаёт пользователей с разными ролями
-     * и шесть постоянных выставок, каждая из которых привязана к одному из гидов.
+     * Заполняет базу пользователями с разными ролями и шестью постоянными выставками,
+     * каждая из которых привязана к одному из гидов, если текущая версия набора ещё не применена.
      * <p>
-     * Метод помечен аннотацией {@link PostConstruct}, поэтому вызывается
-     * автоматически после создания бина Spring.
+     * Вызывается по {@link ApplicationReadyEvent}. Если базу одновременно заполняет
+     * другой узел, его транзакция выигрывает, а этот узел только пишет об этом в журнал.
      */
-    @PostConstruct
-    public void init() {
-        User guide1 = createDefaultUser("guide1@museum.com", "guidepass", Role.GUIDE, "Андрей Семёнович Крыжанов");
-        User guide2 = createDefaultUser("guide2@museum.com", "guidepass", Role.GUIDE, "Ким Татьяна Ивановна");
-        User guide3 = createDefaultUser("guide3@museum.com", "guidepass", Role.GUIDE, "Григорьев Семён Михайлович");
-        User guide4 = createDefaultUser("guide4@museum.com", "guidepass", Role.GUIDE, "Иванов Игорь Максимович");
-        User guide5 = createDefaultUser("guide5@museum.com", "guidepass", Role.GUIDE, "Самборский Олег Вадимович");
-        User guide6 = createDefaultUser("guide6@museum.com", "guidepass", Role.GUIDE, "Краснова Екатерина Витальевна");
-
-
-        createDefaultUser("superadmin@museum.com", "superpass", Role.SUPER_ADMIN, "СуперАдмин");
-        createDefaultUser("admin@museum.com", "adminpass", Role.ADMIN, "Админ");
-        createDefaultUser("visitor@museum.com", "visitorpass", Role.VISITOR, "Посетитель");
-
-
-        createDefaultExhibition("Постоянная: Ботаника сквозь века",
-                "Коллекция гербарных образцов XVIII–XX веков",
-                guide1,
-                LocalDate.of(2000, 1, 1),
-                LocalDate.of(2100, 1, 1));
-
-        createDefaultExhibition("Постоянная: Тропическая оранжерея",
-                "Живые растения со всего мира",
-                guide2,
-                LocalDate.of(2000, 1, 1),
-                LocalDate.of(2100, 1, 1));
-
-        createDefaultExhibition("Постоянная: Эволюция зеленых",
-                "От папоротников до цветковых",
-                guide3,
-                LocalDate.of(2000, 1, 1),
-                LocalDate.of(2100, 1, 1));
-
-        createDefaultExhibition("Постоянная: Лекарственные растения",
-                "От фитотерапии до современной фармакологии",
-                guide4,
-                LocalDate.of(2000, 1, 1),
-                LocalDate.of(2100, 1, 1));
-
-        createDefaultExhibition("Постоянная: Деревья-долгожители",
-                "История и экология вековых растений",
-                guide5,
-                LocalDate.of(2000, 1, 1),
-                LocalDate.of(2100, 1, 1));
-
-        createDefaultExhibition("Постоянная: Символика растений в культуре и искусстве",
-                "Зелень бок о бок с культурой",
-                guide6,
-                LocalDate.of(2000, 1, 1),
-                LocalDate.of(2100, 1, 1));
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        StartupStep step = applicationStartup.start("museum.data.seed");
+        try {
+            if (isApplied(seedVersionRepository.findById(SEED_NAME).orElse(null))) {
+                log.debug("Начальные данные версии {} уже применены", SEED_VERSION);
+                step.tag("result", "skipped");
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> seedLocked());
+            step.tag("result", "applied");
+        } catch (DataIntegrityViolationException e) {
+            if (!isApplied(seedVersionRepository.findById(SEED_NAME).orElse(null))) {
+                throw e;
+            }
+            log.info("Начальные данные одновременно заполнены другим узлом");
+        } finally {
+            step.end();
+        }
+    }
+
+    private void seedLocked() {
+        SeedVersion marker = seedVersionRepository.findForUpdate(SEED_NAME).orElse(null);
+        if (isApplied(marker)) {
+            return;
+        }
+
+        Map<String, User> users = userRepository.findByEmailIn(USERS.stream().map(SeedUser::email).toList()).stream()
+                // изменяемая карта: ниже в неё добавляются созданные пользователи
+                .collect(Collectors.toMap(User::getEmail, Function.identity(),
+                        (existing, duplicate) -> existing, HashMap::new));
+        // хешируются только недостающие пароли; BCrypt выполняется в ограниченном пуле сервиса
+        // хеширования, поэтому пароли передаются ему по одному, без параллельного потока
+        List<User> newUsers = USERS.stream()
+                .filter(seed -> !users.containsKey(seed.email()))
+                .map(seed -> new User(seed.email(), passwordEncoder.encode(seed.password()), seed.role(), seed.fullName()))
+                .toList();
+        userRepository.saveAll(newUsers);
+        newUsers.forEach(user -> {
+            users.put(user.getEmail(), user);
+            userRevisionService.markChanged(user.getEmail());
+        });
+
+        Set<String> existingTitles = Set.copyOf(
+                exhibitionRepository.findExistingTitles(EXHIBITIONS.stream().map(SeedExhibition::title).toList()));
+        List<Exhibition> newExhibitions = EXHIBITIONS.stream()
+                .filter(seed -> !existingTitles.contains(seed.title()))
+                .map(seed -> new Exhibition(seed.title(), PERMANENT_START, PERMANENT_END,
+                        users.get(seed.curatorEmail()), seed.description()))
+                .toList();
+        exhibitionRepository.saveAll(newExhibitions);
+        catalogReadModelService.markChanged();
+
+        if (marker == null) {
+            marker = new SeedVersion(SEED_NAME, SEED_VERSION, LocalDateTime.now());
+        } else {
+            marker.setVersion(SEED_VERSION);
+            marker.setAppliedAt(LocalDateTime.now());
+        }
+        seedVersionRepository.save(marker);
+        log.info("Применены начальные данные версии {}: пользователей {}, выставок {}",
+                SEED_VERSION, newUsers.size(), newExhibitions.size());
     }
 
+    private static boolean isApplied(SeedVersion marker) {
+        return marker != null && marker.getVersion() >= SEED_VERSION;
+    }
 
     /**
-     * Создаёт пользователя с заданными параметрами, если он ещё не существует в базе данных.
+     * Пользователь по умолчанию.
      *
-     * @param email        email пользователя (используется как логин)
-     * @param rawPassword  пароль в открытом виде (будет зашифрован)
-     * @param role         роль пользователя
-     * @param fullName     полное имя пользователя
-     * @return созданный объект {@link User} или существующий из БД, если email уже занят
+     * @param email    email пользователя (используется как логин)
+     * @param password пароль в открытом виде (будет зашифрован)
+     * @param role     роль пользователя
+     * @param fullName полное имя пользователя
      */
-    private User createDefaultUser(String email, String rawPassword, Role role, String fullName) {
-        if (!userRepository.existsByEmail(email)) {
-            User user = new User(email, passwordEncoder.encode(rawPassword), role, fullName);
-            userRepository.save(user);
-            return user;
-        }
-        // если пользователь уже существует то возвращаем его из бд
-        return userRepository.findByEmail(email).orElse(null);
-    }
+    private record SeedUser(String email, String password, Role role, String fullName) {}
 
     /**
-     * Создаёт выставку с заданными параметрами, если выставка с таким названием ещё не существует.
+     * Постоянная выставка по умолчанию.
      *
-     * @param title       название выставки
-     * @param description описание выставки
-     * @param curator     объект пользователя-гида, отвечающего за выставку
-     * @param startDate   дата начала выставки
-     * @param endDate     дата окончания выставки
+     * @param title        название выставки
+     * @param description  описание выставки
+     * @param curatorEmail email гида, отвечающего за выставку
      */
-    private void createDefaultExhibition(String title, String description, User curator,
-                                         LocalDate startDate, LocalDate endDate) {
-        if (exhibitionRepository.countByTitle(title) == 0) {
-            Exhibition exhibition = new Exhibition();
-            exhibition.setTitle(title);
-            exhibition.setDescription(description);
-            exhibition.setCurator(curator); // теперь curator — объект User
-            exhibition.setStartDate(startDate);
-            exhibition.setEndDate(endDate);
-            exhibitionRepository.save(exhibition);
-        }
-    }
-}
\ No newline at end of file
+    private record SeedExhibition(String title, String description, String curatorEmail) {}
+}
@@ -0,0 +1,90 @@
+package com.example.museum.config;
+
+import com.example.museum.dto.CatalogImportReport;
+import com.example.museum.service.CatalogImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+
+/**
+ * Запуск массового импорта каталога из командной строки.
+ * <p>
+ * Активируется свойством {@code museum.catalog.import.file}, например:
+ * <pre>
+ * java -jar museum.jar --server.port=0 --museum.catalog.import.file=herbarium.csv
+ * </pre>
+ * Формат определяется по расширению файла. После импорта приложение завершается
+ * с кодом 0, если ошибок не было, и 2, если часть записей отклонена
+ * (отключается свойством {@code museum.catalog.import.exit=false}).
+ * <p>
+ * Свойство проверяется при запуске, а не условием на бин: при AOT-обработке условия
+ * вычисляются во время сборки, и импорт был бы недоступен в режиме {@code spring.aot.enabled}.
+ */
+@Component
+public class CatalogImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportRunner.class);
+
+    private final ObjectProvider<CatalogImportService> catalogImportService;
+    private final ApplicationContext applicationContext;
+    private final String file;
+    private final boolean exitAfterImport;
+
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param catalogImportService сервис массового импорта каталога (создаётся, только если импорт запрошен)
+     * @param applicationContext   контекст приложения (для завершения после импорта)
+     * @param file                 путь к файлу импорта (пустая строка — импорт не выполняется)
+     * @param exitAfterImport      завершать ли приложение после импорта
+     */
+    public CatalogImportRunner(ObjectProvider<CatalogImportService> catalogImportService,
+                               ApplicationContext applicationContext,
+                               @Value("${museum.catalog.import.file:}") String file,
+                               @Value("${museum.catalog.import.exit:true}") boolean exitAfterImport) {
+        this.catalogImportService = catalogImportService;
+        this.applicationContext = applicationContext;
+        this.file = file;
+        this.exitAfterImport = exitAfterImport;
+    }
+
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (file.isBlank()) {
+            return;
+        }
+        Path file = Path.of(this.file);
+        String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        CatalogImportService.Format format = fileName.endsWith(".json") || fileName.endsWith(".ndjson")
+                ? CatalogImportService.Format.JSON : CatalogImportService.Format.CSV;
+
+        CatalogImportReport report;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            report = catalogImportService.getObject().importCatalog(in, format);
+        }
+        for (CatalogImportReport.RowError error : report.errors()) {
+            log.warn("{}: строка {}: {}", file, error.row(), error.message());
+        }
+
+        if (exitAfterImport) {
+            int exitCode = SpringApplication.exit(applicationContext, () -> report.errorCount() > 0 ? 2 : 0);
+            System.exit(exitCode);
+        }
+    }
+}
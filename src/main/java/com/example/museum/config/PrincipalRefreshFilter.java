@@ -0,0 +1,77 @@
+package com.example.museum.config;
+
+import com.example.museum.service.CustomUserDetailsService;
+import com.example.museum.service.MuseumUserDetails;
+import com.example.museum.service.UserRevisionService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+
+/**
+ * Фильтр, обновляющий данные пользователя в сессии после их изменения.
+ * <p>
+ * Если суперадминистратор изменил роль или имя пользователя, {@link UserRevisionService}
+ * помечает данные в его сессии как устаревшие. Тогда фильтр один раз перечитывает
+ * пользователя из базы и сохраняет новую аутентификацию в сессии — до проверки прав доступа,
+ * поэтому новая роль действует уже в этом запросе. Если пользователь удалён, сессия завершается.
+ */
+class PrincipalRefreshFilter extends OncePerRequestFilter {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final UserRevisionService userRevisionService;
+    private final SecurityContextRepository securityContextRepository = new HttpSessionSecurityContextRepository();
+
+    PrincipalRefreshFilter(CustomUserDetailsService userDetailsService, UserRevisionService userRevisionService) {
+        this.userDetailsService = userDetailsService;
+        this.userRevisionService = userRevisionService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof MuseumUserDetails principal
+                && userRevisionService.isStale(principal)) {
+            refresh(principal, authentication, request, response);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void refresh(MuseumUserDetails principal, Authentication authentication,
+                         HttpServletRequest request, HttpServletResponse response) {
+        MuseumUserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(principal.getUsername());
+        } catch (UsernameNotFoundException e) {
+            SecurityContextHolder.clearContext();
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                session.invalidate();
+            }
+            return;
+        }
+        // как и после входа, хеш пароля в сессии не хранится
+        user.eraseCredentials();
+
+        UsernamePasswordAuthenticationToken refreshed =
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+        refreshed.setDetails(authentication.getDetails());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(refreshed);
+        SecurityContextHolder.setContext(context);
+        securityContextRepository.saveContext(context, request, response);
+    }
+}
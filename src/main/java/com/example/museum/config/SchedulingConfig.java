@@ -0,0 +1,19 @@
+package com.example.museum.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+
+/**
+ * Конфигурационный класс, включающий выполнение фоновых задач по расписанию
+ * (например, периодический сброс счётчиков посещений) и асинхронных методов {@code @Async}.
+ * <p>
+ * При {@code spring.threads.virtual.enabled=true} и задачи по расписанию, и {@code @Async}
+ * выполняются в виртуальных потоках.
+ */
+@Configuration
+@EnableScheduling
+@EnableAsync(proxyTargetClass = true)
+public class SchedulingConfig {
+}
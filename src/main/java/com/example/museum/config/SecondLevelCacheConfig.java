@@ -0,0 +1,139 @@
+package com.example.museum.config;
+
+import com.example.museum.model.User;
+import com.example.museum.service.UserChangedEvent;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+
+/**
+ * Кеш второго уровня Hibernate и кеш запросов для справочных данных:
+ * залов, выставок и пользователей (гидов).
+ * <p>
+ * Регионы — кеши Caffeine за API JCache, которые создаются здесь, а не Hibernate:
+ * <ul>
+ *   <li>{@code halls}, {@code exhibitions}, {@code users} — сущности;</li>
+ *   <li>{@code halls-queries}, {@code exhibitions-queries}, {@code users-queries} — результаты
+ *       запросов с подсказкой {@code org.hibernate.cacheable} (идентификаторы найденных сущностей);</li>
+ *   <li>{@code default-query-results-region} и {@code default-update-timestamps-region} —
+ *       служебные регионы Hibernate: время последнего изменения каждой таблицы, по которому
+ *       результат запроса считается устаревшим.</li>
+ * </ul>
+ * Изменения через Hibernate (сохранение и удаление в сервисах, запросы {@code UPDATE}/{@code DELETE})
+ * обновляют регионы сущностей и отметки времени таблиц при фиксации транзакции, поэтому на этом
+ * узле устаревшие данные не читаются. Изменения на других узлах этот кеш не видит: записи регионов
+ * сущностей и запросов живут не дольше {@code museum.cache.reference-data.ttl}. Для пользователей
+ * этого ожидания нет — по {@link UserChangedEvent}, в том числе с другого узла, сбрасываются
+ * регион {@code users} и запросы, результат которых зависит от пользователей.
+ * <p>
+ * Статистика попаданий каждого региона публикуется как метрики {@code cache.*}
+ * с тегом {@code cache=hibernate.<регион>}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final List<String> ENTITY_REGIONS = List.of("halls", "exhibitions", "users");
+    private static final List<String> QUERY_REGIONS = List.of("halls-queries", "exhibitions-queries", "users-queries");
+
+    /**
+     * Запросы, результат которых зависит от пользователей: гиды и выставки с кураторами.
+     */
+    private static final List<String> USER_QUERY_REGIONS = List.of("users-queries", "exhibitions-queries");
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public SecondLevelCacheConfig(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Менеджер кешей JCache с регионами Hibernate.
+     * <p>
+     * У каждого контекста приложения свой менеджер (тесты поднимают несколько контекстов в одной JVM).
+     *
+     * @param meterRegistry реестр метрик для статистики регионов
+     * @param maxSize       максимальное количество записей в регионе
+     * @param ttl           время жизни записи региона сущностей или запросов
+     * @return менеджер кешей
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(MeterRegistry meterRegistry,
+                                              @Value("${museum.cache.reference-data.max-size:10000}") long maxSize,
+                                              @Value("${museum.cache.reference-data.ttl:10m}") Duration ttl) {
+        CaffeineCachingProvider provider = new CaffeineCachingProvider();
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("museum:second-level-cache:" + UUID.randomUUID()), provider.getDefaultClassLoader());
+
+        for (String region : ENTITY_REGIONS) {
+            createRegion(cacheManager, meterRegistry, region, OptionalLong.of(maxSize), OptionalLong.of(ttl.toNanos()));
+        }
+        for (String region : QUERY_REGIONS) {
+            createRegion(cacheManager, meterRegistry, region, OptionalLong.of(maxSize), OptionalLong.of(ttl.toNanos()));
+        }
+        createRegion(cacheManager, meterRegistry, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                OptionalLong.of(maxSize), OptionalLong.of(ttl.toNanos()));
+        // отметка времени, вытесненная из кеша, сделала бы устаревшие результаты запросов снова действительными
+        createRegion(cacheManager, meterRegistry, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                OptionalLong.empty(), OptionalLong.empty());
+        return cacheManager;
+    }
+
+    /**
+     * Передаёт Hibernate менеджер кешей; регион без заданного здесь кеша — ошибка запуска.
+     *
+     * @param hibernateCacheManager менеджер кешей JCache
+     * @return настройка свойств Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Сбрасывает закешированных пользователей и зависящие от них запросы.
+     *
+     * @param event событие изменения пользователя
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        org.hibernate.Cache cache = entityManagerFactory.getObject().unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(User.class);
+        USER_QUERY_REGIONS.forEach(cache::evictQueryRegion);
+    }
+
+    private static void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry, String region,
+                                     OptionalLong maxSize, OptionalLong expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate хранит в регионах неизменяемые разобранные состояния, копировать их не нужно
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(maxSize);
+        configuration.setExpireAfterWrite(expireAfterWriteNanos);
+        configuration.setNativeStatisticsEnabled(true);
+        Cache<Object, Object> cache = cacheManager.createCache(region, configuration);
+        CaffeineCacheMetrics.monitor(meterRegistry,
+                cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class), "hibernate." + region);
+    }
+}
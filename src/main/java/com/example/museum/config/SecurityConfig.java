@@ -1,32 +1,36 @@
 package com.example.museum.config;
 
 import com.example.museum.service.CustomUserDetailsService;
+import com.example.museum.service.UserRevisionService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 /**
  * Конфигурационный класс безопасности приложения на основе Spring Security.
  * <p>
  * Определяет правила доступа к URL-адресам, настраивает форму входа/выхода,
- * а также указывает механизм аутентификации и хеширования паролей.
+ * а также указывает механизм аутентификации. Пароли хеширует
+ * {@link com.example.museum.service.PasswordHashingService}.
  */
 @Configuration
 public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
+    private final UserRevisionService userRevisionService;
 
     /**
      * Конструктор для внедрения сервиса загрузки пользователей.
      *
-     * @param userDetailsService сервис, реализующий {@link org.springframework.security.core.userdetails.UserDetailsService}
+     * @param userDetailsService  сервис, реализующий {@link org.springframework.security.core.userdetails.UserDetailsService}
+     * @param userRevisionService сервис версий пользовательских данных
      */
-    public SecurityConfig(CustomUserDetailsService userDetailsService) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService, UserRevisionService userRevisionService) {
         this.userDetailsService = userDetailsService;
+        this.userRevisionService = userRevisionService;
     }
 
 
@@ -37,7 +41,8 @@ public class SecurityConfig {
      * <ul>
      *   <li>какие ресурсы доступны без аутентификации (логин, регистрация, статика);</li>
      *   <li>какие URL-адреса требуют авторизации и какие роли имеют к ним доступ;</li>
-     *   <li>поведение при входе и выходе из системы.</li>
+     *   <li>поведение при входе и выходе из системы;</li>
+     *   <li>обновление данных пользователя в сессии после их изменения ({@link PrincipalRefreshFilter}).</li>
      * </ul>
      *
      * @param http объект для конфигурации безопасности
@@ -49,12 +54,12 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/login", "/register", "/css/**", "/js/**", "/about").permitAll()
+                        .requestMatchers("/login", "/register", "/css/**", "/js/**", "/about", "/actuator/health").permitAll()
                         .requestMatchers("/halls/**", "/exhibits/**", "/exhibitions/**", "/visits/**", "/about/**")
                         .hasAnyRole("VISITOR", "GUIDE", "ADMIN", "SUPER_ADMIN")
                         .requestMatchers("/users/**").hasRole("SUPER_ADMIN")
-                        .requestMatchers("/admin/**").hasAnyRole("ADMIN", "SUPER_ADMIN")
-                        .requestMatchers("/statistics").hasAnyRole("GUIDE", "ADMIN", "SUPER_ADMIN")
+                        .requestMatchers("/admin/**", "/actuator/**").hasAnyRole("ADMIN", "SUPER_ADMIN")
+                        .requestMatchers("/statistics", "/statistics/**").hasAnyRole("GUIDE", "ADMIN", "SUPER_ADMIN")
                         .requestMatchers("/my-exhibitions").hasAnyRole("GUIDE")
                         .anyRequest().authenticated()
                 )
@@ -75,21 +80,13 @@ public class SecurityConfig {
                         .invalidateHttpSession(true) // уничтожение сессии
                         .clearAuthentication(true) // сброс аутентификации
                         .permitAll()
-                );
+                )
 
+                // перечитывание изменённого пользователя до проверки прав доступа
+                .addFilterBefore(new PrincipalRefreshFilter(userDetailsService, userRevisionService),
+                        AuthorizationFilter.class);
 
-        return http.build();
-    }
 
-    /**
-     * Создаёт и возвращает компонент для хеширования паролей с использованием алгоритма BCrypt.
-     * <p>
-     * Этот компонент используется при регистрации и аутентификации пользователей.
-     *
-     * @return экземпляр {@link PasswordEncoder}, основанный на BCrypt
-     */
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return http.build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.example.museum.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.Lifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.orm.jpa.EntityManagerFactoryInfo;
+import org.springframework.scheduling.annotation.Scheduled;
+
+
+/**
+ * Конфигурация режима ленивой инициализации ({@code spring.main.lazy-initialization=true}).
+ * <p>
+ * В этом режиме некритичные бины (контроллеры, сервисы страниц, импорт и выгрузка)
+ * создаются при первом обращении, что сокращает запуск. Критичные бины создаются сразу:
+ * <ul>
+ *   <li>фабрика {@code EntityManagerFactory} — проверка схемы Hibernate
+ *       ({@code ddl-auto=validate}) должна останавливать запуск, а не первый запрос;</li>
+ *   <li>бины с методами {@link Scheduled} — ленивый бин не регистрирует свои задачи,
+ *       и фоновый сброс счётчиков и агрегация не запустились бы;</li>
+ *   <li>бины {@link Lifecycle} — фоновые очереди запускаются вместе с контекстом.</li>
+ * </ul>
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Исключает критичные бины из ленивой инициализации.
+     *
+     * @return фильтр исключений
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerCriticalBeans() {
+        return (beanName, beanDefinition, beanType) ->
+                EntityManagerFactory.class.isAssignableFrom(beanType)
+                        || EntityManagerFactoryInfo.class.isAssignableFrom(beanType)
+                        || Lifecycle.class.isAssignableFrom(beanType)
+                        || hasScheduledMethods(beanType);
+    }
+
+    static boolean hasScheduledMethods(Class<?> beanType) {
+        if (!AnnotationUtils.isCandidateClass(beanType, Scheduled.class)) {
+            return false;
+        }
+        return !MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                        AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
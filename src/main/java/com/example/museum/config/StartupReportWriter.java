@@ -0,0 +1,138 @@
+package com.example.museum.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+
+/**
+ * Запись JSON-отчёта о шагах запуска приложения.
+ * <p>
+ * После готовности приложения шаги, записанные {@link BufferingApplicationStartup},
+ * сохраняются в файл {@code museum.startup.report-file} (пустое значение отключает отчёт),
+ * а самые долгие из них выводятся в журнал. Отчёт содержит все шаги в порядке начала
+ * и отдельно самые долгие; длительность шага включает вложенные шаги. Те же данные
+ * без сводки доступны администраторам через {@code GET /actuator/startup}.
+ */
+@Component
+public class StartupReportWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReportWriter.class);
+
+    /**
+     * Сколько самых долгих шагов включать в сводку.
+     */
+    static final int SLOWEST_STEPS = 20;
+
+    private final ObjectMapper objectMapper;
+    private final String reportFile;
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param objectMapper сериализатор JSON
+     * @param reportFile   путь к файлу отчёта; пустая строка — отчёт не записывается
+     */
+    public StartupReportWriter(ObjectMapper objectMapper,
+                               @Value("${museum.startup.report-file:}") String reportFile) {
+        this.objectMapper = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+        this.reportFile = reportFile;
+    }
+
+    /**
+     * Записывает отчёт после остальных обработчиков готовности приложения,
+     * чтобы в него попало и заполнение начальными данными.
+     *
+     * @param event событие готовности приложения
+     * @throws IOException если файл отчёта не удалось записать
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onApplicationReady(ApplicationReadyEvent event) throws IOException {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (reportFile.isBlank() || !(startup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+        Map<String, Object> report = report(buffering.getBufferedTimeline(), event.getTimeTaken());
+        Path path = Path.of(reportFile).toAbsolutePath();
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        objectMapper.writeValue(path.toFile(), report);
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> slowest = (List<Map<String, Object>>) report.get("slowest");
+        log.info("Отчёт о запуске записан в {} ({} шагов); самые долгие: {}", path, report.get("stepCount"),
+                slowest.stream().limit(5)
+                        .map(step -> step.get("name") + step.get("tags").toString() + " " + step.get("durationMs") + " мс")
+                        .collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Строит отчёт по записанным шагам.
+     *
+     * @param timeline  записанные шаги запуска
+     * @param timeTaken время до готовности приложения
+     * @return отчёт: общее время, все шаги и самые долгие шаги
+     */
+    static Map<String, Object> report(StartupTimeline timeline, Duration timeTaken) {
+        Instant start = timeline.getStartTime();
+        List<Map<String, Object>> steps = timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getStartTime))
+                .map(event -> step(event, start))
+                .toList();
+        List<Map<String, Object>> slowest = steps.stream()
+                .sorted(Comparator.comparing((Map<String, Object> step) -> (Double) step.get("durationMs")).reversed())
+                .limit(SLOWEST_STEPS)
+                .toList();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startTime", start.toString());
+        report.put("readyMs", timeTaken == null ? null : timeTaken.toMillis());
+        report.put("stepCount", steps.size());
+        report.put("slowest", slowest);
+        report.put("steps", steps);
+        return report;
+    }
+
+    private static Map<String, Object> step(StartupTimeline.TimelineEvent event, Instant start) {
+        StartupStep step = event.getStartupStep();
+        Map<String, String> tags = new LinkedHashMap<>();
+        step.getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", step.getId());
+        result.put("parentId", step.getParentId());
+        result.put("name", step.getName());
+        result.put("tags", tags);
+        result.put("startMs", millis(Duration.between(start, event.getStartTime())));
+        result.put("durationMs", millis(event.getDuration()));
+        return result;
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 10_000 / 100.0;
+    }
+}
@@ -2,7 +2,8 @@ package com.example.museum.controller;
 
 import com.example.museum.model.User;
 import com.example.museum.model.Role;
-import com.example.museum.repository.UserRepository;
+import com.example.museum.service.PasswordHashingOverloadedException;
+import com.example.museum.service.UserService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -25,17 +26,17 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Controller
 public class AuthController {
 
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final PasswordEncoder passwordEncoder;
 
     /**
      * Конструктор для внедрения зависимостей.
      *
-     * @param userRepository репозиторий для работы с пользователями
+     * @param userService     сервис для работы с пользователями
      * @param passwordEncoder компонент для хеширования паролей
      */
-    public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder) {
-        this.userRepository = userRepository;
+    public AuthController(UserService userService, PasswordEncoder passwordEncoder) {
+        this.userService = userService;
         this.passwordEncoder = passwordEncoder;
     }
 
@@ -79,15 +80,20 @@ public class AuthController {
             return "auth/register";
         }
 
-        if (userRepository.existsByEmail(user.getEmail())) {
+        if (userService.existsByEmail(user.getEmail())) {
             model.addAttribute("message", "Пользователь с таким email уже существует.");
             return "auth/register";
         }
 
         // роль по умолчанию посетитель
         user.setRole(Role.VISITOR);
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        userRepository.save(user);
+        try {
+            user.setPassword(passwordEncoder.encode(user.getPassword()));
+        } catch (PasswordHashingOverloadedException e) {
+            model.addAttribute("message", "Сервер перегружен, повторите регистрацию через несколько секунд.");
+            return "auth/register";
+        }
+        userService.save(user);
 
         model.addAttribute("message", "Регистрация прошла успешно");
         return "auth/register";
@@ -0,0 +1,79 @@
+package com.example.museum.controller;
+
+import com.example.museum.dto.CatalogImportReport;
+import com.example.museum.service.CatalogImportService;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+
+/**
+ * Контроллер массового импорта залов и экспонатов из файла.
+ * <p>
+ * Доступ разрешён ролям {@code ADMIN} и {@code SUPER_ADMIN}.
+ * Для импорта без веб-интерфейса см. {@link com.example.museum.config.CatalogImportRunner}.
+ */
+@Controller
+@RequestMapping("/admin/catalog/import")
+public class CatalogImportController {
+
+    private final CatalogImportService catalogImportService;
+
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param catalogImportService сервис массового импорта каталога
+     */
+    public CatalogImportController(CatalogImportService catalogImportService) {
+        this.catalogImportService = catalogImportService;
+    }
+
+
+    /**
+     * Отображает форму загрузки файла импорта.
+     *
+     * @param model          объект модели
+     * @return имя шаблона "catalog-import"
+     */
+    @GetMapping
+    public String showImportForm(Model model) {
+        return "catalog-import";
+    }
+
+
+    /**
+     * Импортирует залы и экспонаты из загруженного файла и показывает отчёт.
+     * <p>
+     * Формат определяется по расширению файла: {@code .json} и {@code .ndjson} — JSON, иначе CSV.
+     *
+     * @param file           загруженный файл
+     * @param model          объект модели
+     * @return имя шаблона "catalog-import" с отчётом об импорте
+     * @throws IOException если загруженный файл не удалось прочитать
+     */
+    @PostMapping
+    public String importCatalog(@RequestParam("file") MultipartFile file,
+                                Model model) throws IOException {
+        String fileName = file.getOriginalFilename() != null
+                ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        CatalogImportService.Format format = fileName.endsWith(".json") || fileName.endsWith(".ndjson")
+                ? CatalogImportService.Format.JSON : CatalogImportService.Format.CSV;
+
+        try (InputStream in = file.getInputStream()) {
+            CatalogImportReport report = catalogImportService.importCatalog(in, format);
+            model.addAttribute("report", report);
+        }
+
+        return "catalog-import";
+    }
+
+}
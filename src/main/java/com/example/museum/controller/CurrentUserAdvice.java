@@ -0,0 +1,37 @@
+package com.example.museum.controller;
+
+import com.example.museum.service.MuseumUserDetails;
+import org.springframework.security.core.Authentication;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ModelAttribute;
+
+
+/**
+ * Добавляет в модель всех страниц данные текущего пользователя для навигационной панели.
+ * <p>
+ * Полное имя и роли берутся из {@link MuseumUserDetails}, сохранённого в сессии,
+ * поэтому отображение навбара не требует запросов к базе данных.
+ */
+@ControllerAdvice
+public class CurrentUserAdvice {
+
+    /**
+     * Заполняет атрибуты {@code currentUserEmail}, {@code currentUserFullName}
+     * и {@code currentUserAuthorities}, если пользователь авторизован.
+     *
+     * @param model          объект модели
+     * @param authentication объект аутентификации ({@code null} для анонимного пользователя)
+     */
+    @ModelAttribute
+    public void addCurrentUser(Model model, Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return;
+        }
+        String email = authentication.getName();
+        model.addAttribute("currentUserEmail", email);
+        model.addAttribute("currentUserFullName",
+                authentication.getPrincipal() instanceof MuseumUserDetails user ? user.getDisplayName() : email);
+        model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
+    }
+}
@@ -1,17 +1,16 @@
 package com.example.museum.controller;
 
+import com.example.museum.dto.ExhibitSearchResult;
 import com.example.museum.model.Exhibit;
 import com.example.museum.model.Hall;
 import com.example.museum.service.ExhibitService;
 import com.example.museum.service.HallService;
 import jakarta.validation.Valid;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 /**
  * Контроллер для управления экспонатами музея.
@@ -25,61 +24,54 @@ public class ExhibitController {
 
     private final ExhibitService exhibitService;
     private final HallService hallService;
-    private final com.example.museum.service.UserService userService;
+    private final PageModelAssembler pageModelAssembler;
 
 
     /**
      * Конструктор для внедрения зависимостей.
      *
-     * @param exhibitService сервис для работы с экспонатами
-     * @param hallService    сервис для работы с залами
-     * @param userService    сервис для работы с пользователями
+     * @param exhibitService     сервис для работы с экспонатами
+     * @param hallService        сервис для работы с залами
+     * @param pageModelAssembler параллельная подготовка модели страницы
      */
     public ExhibitController(ExhibitService exhibitService, HallService hallService,
-                             com.example.museum.service.UserService userService) {
+                             PageModelAssembler pageModelAssembler) {
         this.exhibitService = exhibitService;
         this.hallService = hallService;
-        this.userService = userService;
+        this.pageModelAssembler = pageModelAssembler;
     }
 
 
     /**
      * Отображает список экспонатов с возможностью поиска.
+     * <p>
+     * Экспонаты и список залов для формы загружаются параллельно. Если найдено больше
+     * экспонатов, чем {@code museum.exhibits.search-limit}, страница сообщает, что показаны первые из них;
+     * без критериев показываются первые экспонаты по возрастанию идентификатора.
      *
+     * @param name           фильтр по названию (опционально)
      * @param author         фильтр по автору (опционально)
      * @param era            фильтр по эпохе (опционально)
      * @param model          объект модели
-     * @param authentication объект аутентификации
      * @return имя шаблона "exhibits"
      */
     @GetMapping({"", "/"})
     public String listExhibits(
+            @RequestParam(required = false) String name,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) String era,
-            Model model,
-            Authentication authentication) {
-
-        List<Exhibit> exhibits;
-        if (author != null || era != null) {
-            exhibits = exhibitService.searchByAuthorAndEra(author, era);
-        } else {
-            exhibits = exhibitService.findAll();
-        }
+            Model model) {
+
+        pageModelAssembler.page(model)
+                .fetch("searchResult", () -> exhibitService.searchListItems(name, author, era))
+                .fetch("halls", hallService::findAll)
+                .load();
 
-        model.addAttribute("exhibits", exhibits);
         model.addAttribute("exhibit", new Exhibit());
-        model.addAttribute("halls", hallService.findAll());
+        model.addAttribute("searchName", name);
         model.addAttribute("searchAuthor", author);
         model.addAttribute("searchEra", era);
 
-        // ← Обновление: передаём полное имя
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            com.example.museum.model.User user = userService.findByEmail(email);
-            model.addAttribute("currentUserFullName", user != null ? user.getFullName() : email);
-            model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-        }
-
         return "exhibits";
     }
 
@@ -90,22 +82,16 @@ public class ExhibitController {
      * @param exhibit        объект экспоната из формы
      * @param bindingResult  результат валидации
      * @param model          объект модели
-     * @param authentication объект аутентификации
      * @return имя шаблона "exhibits" в случае ошибки, иначе перенаправление на список
      */
     @PostMapping("/add")
     public String addExhibit(@Valid @ModelAttribute("exhibit") Exhibit exhibit,
                              BindingResult bindingResult,
-                             Model model,
-                             Authentication authentication) {
+                             Model model) {
         if (bindingResult.hasErrors()) {
-            model.addAttribute("exhibits", exhibitService.findAll());
+            model.addAttribute("searchResult", exhibitService.searchListItems(null, null, null));
             model.addAttribute("halls", hallService.findAll());
             model.addAttribute("exhibit", exhibit);
-            if (authentication != null && authentication.isAuthenticated()) {
-                model.addAttribute("currentUserEmail", authentication.getName());
-                model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-            }
             return "exhibits";
         }
         exhibitService.save(exhibit);
@@ -118,26 +104,20 @@ public class ExhibitController {
      *
      * @param id             идентификатор экспоната
      * @param model          объект модели
-     * @param authentication объект аутентификации
      * @return имя шаблона "exhibits"
      */
     @GetMapping("/edit/{id}")
-    public String editExhibit(@PathVariable Long id, Model model, Authentication authentication) {
+    public String editExhibit(@PathVariable Long id, Model model) {
         Exhibit exhibit = exhibitService.findById(id);
         if (exhibit == null) {
             return "redirect:/exhibits";
         }
 
-        model.addAttribute("exhibits", exhibitService.findAll());
+        model.addAttribute("searchResult", rowsWithExhibit(exhibit));
         model.addAttribute("exhibit", exhibit);
         model.addAttribute("editingId", id);
         model.addAttribute("halls", hallService.findAll());
 
-        if (authentication != null && authentication.isAuthenticated()) {
-            model.addAttribute("currentUserEmail", authentication.getName());
-            model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-        }
-
         return "exhibits";
     }
 
@@ -148,23 +128,17 @@ public class ExhibitController {
      * @param exhibit        обновлённый объект экспоната
      * @param bindingResult  результат валидации
      * @param model          объект модели
-     * @param authentication объект аутентификации
      * @return имя шаблона "exhibits" в случае ошибки, иначе перенаправление на список
      */
     @PostMapping("/save")
     public String saveExhibit(@Valid @ModelAttribute("exhibit") Exhibit exhibit,
                               BindingResult bindingResult,
-                              Model model,
-                              Authentication authentication) {
+                              Model model) {
         if (bindingResult.hasErrors()) {
-            model.addAttribute("exhibits", exhibitService.findAll());
+            model.addAttribute("searchResult", rowsWithExhibit(exhibit.getId() != null ? exhibitService.findById(exhibit.getId()) : null));
             model.addAttribute("halls", hallService.findAll());
             model.addAttribute("exhibit", exhibit);
             model.addAttribute("editingId", exhibit.getId());
-            if (authentication != null && authentication.isAuthenticated()) {
-                model.addAttribute("currentUserEmail", authentication.getName());
-                model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-            }
             return "exhibits";
         }
         exhibitService.save(exhibit);
@@ -172,6 +146,19 @@ public class ExhibitController {
     }
 
 
+    /**
+     * Строки списка для формы редактирования: форма выводится в строке экспоната,
+     * а список без критериев ограничен первыми экспонатами, поэтому экспонаты ищутся
+     * по сохранённому названию редактируемого.
+     *
+     * @param stored сохранённый экспонат или {@code null}
+     * @return строки списка
+     */
+    private ExhibitSearchResult rowsWithExhibit(Exhibit stored) {
+        return exhibitService.searchListItems(stored != null ? stored.getName() : null, null, null);
+    }
+
+
     /**
      * Удаляет экспонат по идентификатору.
      *
@@ -4,7 +4,6 @@ import com.example.museum.model.Exhibition;
 import com.example.museum.model.User;
 import com.example.museum.service.ExhibitionService;
 import jakarta.validation.Valid;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -24,36 +23,33 @@ public class ExhibitionController {
 
     private final ExhibitionService exhibitionService;
     private final com.example.museum.service.UserService userService;
+    private final PageModelAssembler pageModelAssembler;
 
     public ExhibitionController(ExhibitionService exhibitionService,
-                                com.example.museum.service.UserService userService) {
+                                com.example.museum.service.UserService userService,
+                                PageModelAssembler pageModelAssembler) {
         this.exhibitionService = exhibitionService;
         this.userService = userService;
+        this.pageModelAssembler = pageModelAssembler;
     }
 
 
     /**
      * Отображает список выставок и форму добавления.
+     * <p>
+     * Выставки и список гидов загружаются параллельно.
      *
      * @param model          объект модели
-     * @param authentication объект аутентификации
      * @return имя шаблона "exhibitions"
      */
     @GetMapping({"", "/"})
-    public String listExhibitions(Model model, Authentication authentication) {
-        model.addAttribute("exhibitions", exhibitionService.findAll());
+    public String listExhibitions(Model model) {
+        pageModelAssembler.page(model)
+                .fetch("exhibitions", exhibitionService::findListItems)
+                .fetch("guides", userService::findAllGuides)
+                .load();
         model.addAttribute("exhibition", new Exhibition());
 
-        List<User> guides = userService.findAllGuides();
-        model.addAttribute("guides", guides);
-
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            com.example.museum.model.User user = userService.findByEmail(email);
-            model.addAttribute("currentUserFullName", user != null ? user.getFullName() : email);
-            model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-        }
-
         return "exhibitions";
     }
 
@@ -67,7 +63,6 @@ public class ExhibitionController {
      * @param endDate        дата окончания
      * @param description    описание (опционально)
      * @param model          объект модели
-     * @param authentication объект аутентификации
      * @return шаблон "exhibitions" или перенаправление
      */
     @PostMapping("/add")
@@ -76,31 +71,22 @@ public class ExhibitionController {
                                 @RequestParam LocalDate startDate,
                                 @RequestParam LocalDate endDate,
                                 @RequestParam(required = false) String description,
-                                Model model,
-                                Authentication authentication) {
+                                Model model) {
 
         if (endDate.isBefore(startDate)) {
-            model.addAttribute("exhibitions", exhibitionService.findAll());
+            model.addAttribute("exhibitions", exhibitionService.findListItems());
             model.addAttribute("exhibition", new Exhibition());
             model.addAttribute("guides", userService.findAllGuides());
 
-            if (authentication != null && authentication.isAuthenticated()) {
-                model.addAttribute("currentUserEmail", authentication.getName());
-                model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-            }
             model.addAttribute("error", "Дата окончания не может быть раньше даты начала.");
             return "exhibitions";
         }
 
         User curator = userService.findByEmail(curatorEmail);
         if (curator == null) {
-            model.addAttribute("exhibitions", exhibitionService.findAll());
+            model.addAttribute("exhibitions", exhibitionService.findListItems());
             model.addAttribute("exhibition", new Exhibition());
             model.addAttribute("guides", userService.findAllGuides());
-            if (authentication != null && authentication.isAuthenticated()) {
-                model.addAttribute("currentUserEmail", authentication.getName());
-                model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-            }
             model.addAttribute("error", "Выбранный куратор не найден.");
             return "exhibitions";
         }
@@ -122,11 +108,10 @@ public class ExhibitionController {
      *
      * @param id             идентификатор выставки
      * @param model          объект модели
-     * @param authentication объект аутентификации
      * @return имя шаблона "exhibitions"
      */
     @GetMapping("/edit/{id}")
-    public String editExhibition(@PathVariable Long id, Model model, Authentication authentication) {
+    public String editExhibition(@PathVariable Long id, Model model) {
         Exhibition exhibition = exhibitionService.findById(id);
         if (exhibition == null) {
             return "redirect:/exhibitions";
@@ -134,16 +119,11 @@ public class ExhibitionController {
 
         model.addAttribute("exhibition", exhibition);
         model.addAttribute("editingId", id);
-        model.addAttribute("exhibitions", exhibitionService.findAll());
+        model.addAttribute("exhibitions", exhibitionService.findListItems());
 
         List<User> guides = userService.findAllGuides();
         model.addAttribute("guides", guides);
 
-        if (authentication != null && authentication.isAuthenticated()) {
-            model.addAttribute("currentUserEmail", authentication.getName());
-            model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-        }
-
         return "exhibitions";
     }
 
@@ -158,7 +138,6 @@ public class ExhibitionController {
      * @param endDate        дата окончания
      * @param description    описание
      * @param model          объект модели
-     * @param authentication объект аутентификации
      * @return перенаправление или шаблон с ошибкой
      */
     @PostMapping("/save")
@@ -168,20 +147,15 @@ public class ExhibitionController {
                                  @RequestParam LocalDate startDate,
                                  @RequestParam LocalDate endDate,
                                  @RequestParam(required = false) String description,
-                                 Model model,
-                                 Authentication authentication) {
+                                 Model model) {
 
         if (endDate.isBefore(startDate)) {
             Exhibition existing = exhibitionService.findById(id);
             model.addAttribute("exhibition", existing);
             model.addAttribute("editingId", id);
-            model.addAttribute("exhibitions", exhibitionService.findAll());
+            model.addAttribute("exhibitions", exhibitionService.findListItems());
             model.addAttribute("guides", userService.findAllGuides());
 
-            if (authentication != null && authentication.isAuthenticated()) {
-                model.addAttribute("currentUserEmail", authentication.getName());
-                model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-            }
             model.addAttribute("error", "Дата окончания не может быть раньше даты начала.");
             return "exhibitions";
         }
@@ -191,12 +165,8 @@ public class ExhibitionController {
             Exhibition existing = exhibitionService.findById(id);
             model.addAttribute("exhibition", existing);
             model.addAttribute("editingId", id);
-            model.addAttribute("exhibitions", exhibitionService.findAll());
+            model.addAttribute("exhibitions", exhibitionService.findListItems());
             model.addAttribute("guides", userService.findAllGuides());
-            if (authentication != null && authentication.isAuthenticated()) {
-                model.addAttribute("currentUserEmail", authentication.getName());
-                model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-            }
             model.addAttribute("error", "Выбранный куратор не найден.");
             return "exhibitions";
         }
@@ -3,13 +3,11 @@ package com.example.museum.controller;
 import com.example.museum.model.Hall;
 import com.example.museum.service.HallService;
 import jakarta.validation.Valid;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 /**
  * Контроллер для управления информацией о залах музея.
@@ -23,19 +21,15 @@ import java.util.List;
 public class HallController {
 
     private final HallService hallService;
-    private final com.example.museum.service.UserService userService;
 
 
     /**
      * Конструктор для внедрения зависимостей через Spring.
      *
      * @param hallService сервис для работы с залами
-     * @param userService сервис для работы с пользователями (используется для получения данных текущего пользователя)
      */
-    public HallController(HallService hallService,
-                          com.example.museum.service.UserService userService) {
+    public HallController(HallService hallService) {
         this.hallService = hallService;
-        this.userService = userService;
     }
 
 
@@ -45,35 +39,19 @@ public class HallController {
      * @param name          фильтр по названию зала (опционально)
      * @param floor         фильтр по этажу (опционально)
      * @param model         объект модели для передачи данных в представление
-     * @param authentication объект аутентификации Spring Security
      * @return имя шаблона Thymeleaf "halls"
      */
     @GetMapping({"", "/"})
     public String listHalls(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) Integer floor,
-            Model model,
-            Authentication authentication) {
-
-        List<Hall> halls;
-        if (name != null || floor != null) {
-            halls = hallService.searchByNameAndFloor(name, floor);
-        } else {
-            halls = hallService.findAll();
-        }
+            Model model) {
 
-        model.addAttribute("halls", halls);
+        model.addAttribute("halls", hallService.findListItems(name, floor));
         model.addAttribute("hall", new Hall());
         model.addAttribute("searchName", name);
         model.addAttribute("searchFloor", floor);
 
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            com.example.museum.model.User user = userService.findByEmail(email);
-            model.addAttribute("currentUserFullName", user != null ? user.getFullName() : email);
-            model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-        }
-
         return "halls";
     }
 
@@ -83,21 +61,15 @@ public class HallController {
      * @param hall           объект зала, полученный из формы
      * @param bindingResult  результат валидации входных данных
      * @param model          объект модели
-     * @param authentication объект аутентификации
      * @return имя шаблона "halls" в случае ошибки валидации, иначе перенаправление на список залов
      */
     @PostMapping("/add")
     public String addHall(@Valid @ModelAttribute("hall") Hall hall,
                           BindingResult bindingResult,
-                          Model model,
-                          Authentication authentication) {
+                          Model model) {
         if (bindingResult.hasErrors()) {
-            model.addAttribute("halls", hallService.findAll());
+            model.addAttribute("halls", hallService.findListItems(null, null));
             model.addAttribute("hall", hall);
-            if (authentication != null && authentication.isAuthenticated()) {
-                model.addAttribute("currentUserEmail", authentication.getName());
-                model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-            }
             return "halls";
         }
         hallService.save(hall);
@@ -110,25 +82,19 @@ public class HallController {
      *
      * @param id             идентификатор зала
      * @param model          объект модели
-     * @param authentication объект аутентификации
      * @return имя шаблона "halls"
      */
     @GetMapping("/edit/{id}")
-    public String editHall(@PathVariable Long id, Model model, Authentication authentication) {
+    public String editHall(@PathVariable Long id, Model model) {
         Hall hall = hallService.findById(id);
         if (hall == null) {
             return "redirect:/halls";
         }
 
-        model.addAttribute("halls", hallService.findAll());
+        model.addAttribute("halls", hallService.findListItems(null, null));
         model.addAttribute("hall", hall);
         model.addAttribute("editingId", id);
 
-        if (authentication != null && authentication.isAuthenticated()) {
-            model.addAttribute("currentUserEmail", authentication.getName());
-            model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-        }
-
         return "halls";
     }
 
@@ -138,22 +104,16 @@ public class HallController {
      * @param hall           обновлённый объект зала
      * @param bindingResult  результат валидации
      * @param model          объект модели
-     * @param authentication объект аутентификации
      * @return имя шаблона "halls" в случае ошибки, иначе перенаправление
      */
     @PostMapping("/save")
     public String saveHall(@Valid @ModelAttribute("hall") Hall hall,
                            BindingResult bindingResult,
-                           Model model,
-                           Authentication authentication) {
+                           Model model) {
         if (bindingResult.hasErrors()) {
-            model.addAttribute("halls", hallService.findAll());
+            model.addAttribute("halls", hallService.findListItems(null, null));
             model.addAttribute("hall", hall);
             model.addAttribute("editingId", hall.getId());
-            if (authentication != null && authentication.isAuthenticated()) {
-                model.addAttribute("currentUserEmail", authentication.getName());
-                model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-            }
             return "halls";
         }
         hallService.save(hall);
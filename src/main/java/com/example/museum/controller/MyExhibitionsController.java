@@ -3,7 +3,6 @@ package com.example.museum.controller;
 import com.example.museum.model.Exhibition;
 import com.example.museum.model.User;
 import com.example.museum.service.ExhibitionService;
-import com.example.museum.service.UserService;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -21,19 +20,15 @@ import java.util.List;
 public class MyExhibitionsController {
 
     private final ExhibitionService exhibitionService;
-    private final UserService userService;
 
 
     /**
      * Конструктор для внедрения зависимостей через Spring.
      *
      * @param exhibitionService сервис для работы с выставками
-     * @param userService       сервис для работы с пользователями
      */
-    public MyExhibitionsController(ExhibitionService exhibitionService,
-                                   UserService userService) {
+    public MyExhibitionsController(ExhibitionService exhibitionService) {
         this.exhibitionService = exhibitionService;
-        this.userService = userService;
     }
 
 
@@ -50,10 +45,6 @@ public class MyExhibitionsController {
             String email = authentication.getName();
             List<Exhibition> myExhibitions = exhibitionService.findByCuratorEmail(email);
             model.addAttribute("myExhibitions", myExhibitions);
-
-            User user = userService.findByEmail(email);
-            model.addAttribute("currentUserFullName", user != null ? user.getFullName() : email);
-            model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
         }
         return "my-exhibitions";
     }
@@ -0,0 +1,242 @@
+package com.example.museum.controller;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.ui.Model;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+
+/**
+ * Параллельная подготовка модели страницы из независимых выборок.
+ * <p>
+ * Контроллер описывает выборки страницы (атрибут модели и функция, возвращающая его значение),
+ * а {@link PageModel#load()} запускает каждую в своём виртуальном потоке, ждёт все
+ * и добавляет результаты в {@link Model}. Время подготовки страницы — самая долгая выборка,
+ * а не их сумма. Выборки ограничены общей областью: если одна из них завершилась ошибкой
+ * или не уложилась в свой срок, остальные прерываются, а {@code load()} сразу выбрасывает
+ * {@link PageModelException}, не дожидаясь их.
+ * <p>
+ * Выборки выполняются вне потока запроса и не видят его {@code EntityManager}, поэтому
+ * должны возвращать данные, готовые к отрисовке: ленивые связи, нужные шаблону,
+ * загружаются в самой выборке. Каждая выборка берёт своё соединение из пула, поэтому
+ * параллельная загрузка занимает по разрешению на каждую выборку сверх первой (первую покрывает
+ * соединение, которое взял бы сам запрос). Разрешений на все страницы вместе столько же,
+ * сколько соединений в пуле ({@code museum.web.page-model.extra-connections}). Если свободных
+ * разрешений нет, выборки выполняются по очереди в потоке запроса, не ожидая: под нагрузкой
+ * параллельные страницы не вытесняют из пула остальные запросы.
+ * При {@code museum.web.page-model.parallel=false} выборки всегда выполняются по очереди.
+ * Метрика {@code museum.web.page_model.load} (тег {@code result}: {@code success} или {@code error}).
+ */
+@Component
+public class PageModelAssembler {
+
+    private static final Logger log = LoggerFactory.getLogger(PageModelAssembler.class);
+
+    /**
+     * Размер пула Hikari по умолчанию.
+     */
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final boolean parallel;
+    private final Duration defaultTimeout;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore extraConnections;
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("page-model-", 0).factory();
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param meterRegistry    реестр метрик
+     * @param dataSource       источник данных (размер пула Hikari)
+     * @param parallel         выполнять ли выборки параллельно
+     * @param extraConnections разрешений на соединения параллельных выборок; 0 — по размеру пула Hikari
+     * @param defaultTimeout   срок выборки, если он не задан явно
+     */
+    public PageModelAssembler(MeterRegistry meterRegistry,
+                              DataSource dataSource,
+                              @Value("${museum.web.page-model.parallel:true}") boolean parallel,
+                              @Value("${museum.web.page-model.extra-connections:0}") int extraConnections,
+                              @Value("${museum.web.page-model.timeout:5s}") Duration defaultTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.parallel = parallel;
+        this.extraConnections = new Semaphore(extraConnections > 0 ? extraConnections : poolSize(dataSource));
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * Начинает описание выборок для модели страницы.
+     *
+     * @param model модель, в которую будут добавлены результаты
+     * @return описание модели страницы
+     */
+    public PageModel page(Model model) {
+        return new PageModel(model);
+    }
+
+    /**
+     * Набор выборок одной страницы.
+     */
+    public final class PageModel {
+
+        private final Model model;
+        private final Map<String, Fetch> fetches = new LinkedHashMap<>();
+
+        private PageModel(Model model) {
+            this.model = model;
+        }
+
+        /**
+         * Добавляет выборку со сроком по умолчанию ({@code museum.web.page-model.timeout}).
+         *
+         * @param attribute имя атрибута модели
+         * @param fetch     функция, возвращающая значение атрибута
+         * @return это же описание
+         */
+        public PageModel fetch(String attribute, Supplier<?> fetch) {
+            return fetch(attribute, fetch, defaultTimeout);
+        }
+
+        /**
+         * Добавляет выборку с собственным сроком.
+         *
+         * @param attribute имя атрибута модели
+         * @param fetch     функция, возвращающая значение атрибута
+         * @param timeout   срок выборки от начала загрузки
+         * @return это же описание
+         */
+        public PageModel fetch(String attribute, Supplier<?> fetch, Duration timeout) {
+            fetches.put(attribute, new Fetch(attribute, fetch, timeout));
+            return this;
+        }
+
+        /**
+         * Выполняет выборки и добавляет их результаты в модель.
+         *
+         * @return модель страницы
+         * @throws PageModelException если выборка завершилась ошибкой, не уложилась в срок
+         *                            или поток запроса был прерван
+         */
+        public Model load() {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String result = "success";
+            try {
+                int extraPermits = fetches.size() - 1;
+                // не ждёт: запросы, уже держащие соединения, не должны ждать друг друга
+                if (parallel && extraPermits > 0 && extraConnections.tryAcquire(extraPermits)) {
+                    model.addAllAttributes(loadParallel(extraPermits));
+                } else {
+                    model.addAllAttributes(loadSequential());
+                }
+                return model;
+            } catch (PageModelException e) {
+                result = "error";
+                throw e;
+            } finally {
+                sample.stop(meterRegistry.timer("museum.web.page_model.load", "result", result));
+            }
+        }
+
+        private Map<String, Object> loadSequential() {
+            Map<String, Object> values = new HashMap<>();
+            for (Fetch fetch : fetches.values()) {
+                try {
+                    values.put(fetch.attribute(), fetch.supplier().get());
+                } catch (RuntimeException e) {
+                    throw new PageModelException("Не удалось получить «" + fetch.attribute() + "»", e);
+                }
+            }
+            return values;
+        }
+
+        private Map<String, Object> loadParallel(int extraPermits) {
+            long start = System.nanoTime();
+            // разрешения возвращают выборки по завершении, а не запрос: прерванная выборка
+            // может ещё держать соединение после того, как запрос ответил ошибкой
+            AtomicInteger unreleased = new AtomicInteger(extraPermits);
+            ExecutorService executor = Executors.newThreadPerTaskExecutor(threadFactory);
+            try {
+                CompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+                Map<Future<Object>, Fetch> pending = new HashMap<>();
+                for (Fetch fetch : fetches.values()) {
+                    pending.put(completion.submit(() -> {
+                        try {
+                            return fetch.supplier().get();
+                        } finally {
+                            if (unreleased.getAndDecrement() > 0) {
+                                extraConnections.release();
+                            }
+                        }
+                    }), fetch);
+                }
+
+                Map<String, Object> values = new HashMap<>();
+                while (!pending.isEmpty()) {
+                    Fetch nearest = nearestDeadline(pending.values());
+                    long remaining = start + nearest.timeout().toNanos() - System.nanoTime();
+                    Future<Object> done = completion.poll(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        throw new PageModelException("Выборка «" + nearest.attribute() + "» не уложилась в "
+                                + nearest.timeout().toMillis() + " мс", null);
+                    }
+                    Fetch fetch = pending.remove(done);
+                    try {
+                        values.put(fetch.attribute(), done.get());
+                    } catch (ExecutionException e) {
+                        throw new PageModelException("Не удалось получить «" + fetch.attribute() + "»", e.getCause());
+                    }
+                }
+                return values;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PageModelException("Подготовка страницы прервана", e);
+            } finally {
+                // не дожидаемся прерванных выборок: запрос к базе завершится в фоне и вернёт соединение
+                executor.shutdownNow();
+            }
+        }
+
+        private static Fetch nearestDeadline(Collection<Fetch> pending) {
+            return Collections.min(pending, Comparator.comparing(Fetch::timeout));
+        }
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            // до запуска пула незаданный размер равен -1 и заменяется значением по умолчанию
+            if (dataSource.isWrapperFor(HikariDataSource.class)
+                    && dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() > 0) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("Не удалось определить размер пула соединений", e);
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    private record Fetch(String attribute, Supplier<?> supplier, Duration timeout) {}
+}
@@ -0,0 +1,15 @@
+package com.example.museum.controller;
+
+
+/**
+ * Исключение, выбрасываемое, когда модель страницы не удалось подготовить:
+ * одна из выборок завершилась ошибкой или не уложилась в свой срок.
+ *
+ * @see PageModelAssembler
+ */
+public class PageModelException extends RuntimeException {
+
+    public PageModelException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
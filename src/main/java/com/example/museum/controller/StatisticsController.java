@@ -1,48 +1,56 @@
 package com.example.museum.controller;
 
-import com.example.museum.model.Exhibition;
-import com.example.museum.model.User;
-import com.example.museum.repository.ExhibitionRepository;
-import com.example.museum.repository.VisitRepository;
-import org.springframework.security.core.Authentication;
+import com.example.museum.dto.ExhibitionVisitStats;
+import com.example.museum.dto.GuideExhibitionStats;
+import com.example.museum.dto.VisitTimelinePoint;
+import com.example.museum.service.StatisticsService;
+import com.example.museum.service.VisitRollupService;
+import com.example.museum.service.VisitorSketchService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 
 /**
  * Контроллер для отображения статистической информации о работе музея.
  * <p>
  * Формирует данные для текстовой гистограммы посещаемости выставок
- * и круговой диаграммы распределения выставок по гидам.
+ * и круговой диаграммы распределения выставок по гидам, а также
+ * временной ряд посещений по агрегатам за часы и дни.
  * Доступ ограничен ролями {@code GUIDE}, {@code ADMIN} и {@code SUPER_ADMIN}.
  */
 @Controller
 public class StatisticsController {
 
-    private final ExhibitionRepository exhibitionRepository;
-    private final VisitRepository visitRepository;
-    private final com.example.museum.service.UserService userService;
+    private final StatisticsService statisticsService;
+    private final VisitRollupService visitRollupService;
+    private final VisitorSketchService visitorSketchService;
 
 
     /**
      * Конструктор для внедрения зависимостей.
      *
-     * @param exhibitionRepository репозиторий для работы с выставками
-     * @param visitRepository      репозиторий для работы с посещениями
-     * @param userService          сервис для работы с пользователями
+     * @param statisticsService  сервис для построения статистики
+     * @param visitRollupService   сервис агрегатов посещений по времени
+     * @param visitorSketchService сервис оценки уникальных посетителей
      */
-    public StatisticsController(ExhibitionRepository exhibitionRepository,
-                                VisitRepository visitRepository,
-                                com.example.museum.service.UserService userService) {
-        this.exhibitionRepository = exhibitionRepository;
-        this.visitRepository = visitRepository;
-        this.userService = userService;
+    public StatisticsController(StatisticsService statisticsService,
+                                VisitRollupService visitRollupService,
+                                VisitorSketchService visitorSketchService) {
+        this.statisticsService = statisticsService;
+        this.visitRollupService = visitRollupService;
+        this.visitorSketchService = visitorSketchService;
     }
 
 
@@ -52,44 +60,86 @@ public class StatisticsController {
      * 2. Круговая диаграмма (Chart.js) — распределение выставок по гидам.
      *
      * @param model          объект модели
-     * @param authentication объект аутентификации
      * @return имя шаблона "statistics"
      */
     @GetMapping("/statistics")
-    public String showStatistics(Model model, Authentication authentication) {
-        List<Exhibition> exhibitions = exhibitionRepository.findAll();
-        List<Object[]> stats = exhibitions.stream()
-                .map(exhibition -> new Object[]{
-                        exhibition.getTitle(),
-                        visitRepository.countByExhibitionId(exhibition.getId())
-                })
-                .collect(Collectors.toList());
-
+    public String showStatistics(Model model) {
+        List<ExhibitionVisitStats> stats = statisticsService.getExhibitionVisitStats();
         model.addAttribute("statistics", stats);
 
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            com.example.museum.model.User user = userService.findByEmail(email);
-            model.addAttribute("currentUserFullName", user != null ? user.getFullName() : email);
-            model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-        }
 
-        List<Object[]> guideStats = exhibitionRepository.countExhibitionsByCuratorEmail();
+        List<GuideExhibitionStats> guideStats = statisticsService.getGuideExhibitionStats();
         List<String> guideNames = new ArrayList<>();
         List<Integer> guideCounts = new ArrayList<>();
 
-        for (Object[] row : guideStats) {
-            String email = (String) row[0];
-            Long count = (Long) row[1];
-            User guide = userService.findByEmail(email);
-            guideNames.add(guide != null ? guide.getFullName() : email);
-            guideCounts.add(count.intValue());
+        for (GuideExhibitionStats row : guideStats) {
+            guideNames.add(row.fullName() != null ? row.fullName() : row.email());
+            guideCounts.add(row.exhibitionCount().intValue());
         }
 
         model.addAttribute("guideExhibitionLabels", guideNames);
         model.addAttribute("guideExhibitionData", guideCounts);
 
-
         return "statistics";
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Отображает динамику посещений выставок (линейный график Chart.js).
+     * <p>
+     * Данные берутся только из почасовых или посуточных агрегатов, без обращения к таблице посещений.
+     * В подписи каждой выставки указывается оценка уникальных посетителей за период по посуточным эскизам.
+     * По умолчанию показываются последние 30 дней (по дням) или последние 2 дня (по часам).
+     *
+     * @param granularity    шаг графика: "day" или "hour"
+     * @param from           первый день периода (опционально)
+     * @param to             последний день периода включительно (опционально)
+     * @param model          объект модели
+     * @return имя шаблона "statistics-timeline"
+     */
+    @GetMapping("/statistics/timeline")
+    public String showVisitTimeline(@RequestParam(defaultValue = "day") String granularity,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                    Model model) {
+        boolean hourly = "hour".equals(granularity);
+        LocalDate periodEnd = to != null ? to : LocalDate.now();
+        LocalDate periodStart = from != null ? from : periodEnd.minusDays(hourly ? 1 : 29);
+
+        List<VisitTimelinePoint> points = visitRollupService.findTimeline(
+                hourly ? "hour" : "day", periodStart.atStartOfDay(), periodEnd.plusDays(1).atStartOfDay());
+
+        List<LocalDateTime> buckets = points.stream()
+                .map(VisitTimelinePoint::bucketStart)
+                .distinct()
+                .sorted()
+                .toList();
+        Map<LocalDateTime, Integer> bucketIndex = new HashMap<>();
+        for (int i = 0; i < buckets.size(); i++) {
+            bucketIndex.put(buckets.get(i), i);
+        }
+
+        Map<Long, Long> uniqueVisitors = visitorSketchService.estimateUniqueVisitors(periodStart, periodEnd);
+
+        // один набор данных графика на выставку: {label: название, data: [количество по интервалам]}
+        Map<Long, Map<String, Object>> datasets = new LinkedHashMap<>();
+        for (VisitTimelinePoint point : points) {
+            Map<String, Object> dataset = datasets.computeIfAbsent(point.exhibitionId(), id -> {
+                Map<String, Object> created = new LinkedHashMap<>();
+                created.put("label", point.title() + " (~" + uniqueVisitors.getOrDefault(id, 0L) + " уник.)");
+                created.put("data", new long[buckets.size()]);
+                return created;
+            });
+            ((long[]) dataset.get("data"))[bucketIndex.get(point.bucketStart())] = point.visitCount();
+        }
+
+        DateTimeFormatter labelFormat = DateTimeFormatter.ofPattern(hourly ? "dd.MM HH:00" : "dd.MM.yyyy");
+        model.addAttribute("timelineLabels", buckets.stream().map(labelFormat::format).toList());
+        model.addAttribute("timelineDatasets", datasets.values());
+        model.addAttribute("granularity", hourly ? "hour" : "day");
+        model.addAttribute("from", periodStart);
+        model.addAttribute("to", periodEnd);
+
+        return "statistics-timeline";
+    }
+}
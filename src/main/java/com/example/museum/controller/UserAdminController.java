@@ -2,8 +2,7 @@ package com.example.museum.controller;
 
 import com.example.museum.model.Role;
 import com.example.museum.model.User;
-import com.example.museum.repository.UserRepository;
-import org.springframework.security.core.Authentication;
+import com.example.museum.service.UserService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -15,24 +14,21 @@ import org.springframework.web.bind.annotation.*;
  * Позволяет просматривать список всех пользователей, изменять их роли
  * и удалять учётные записи. Доступ к функционалу разрешён исключительно
  * суперадминистратору ({@code SUPER_ADMIN}).
+ * Изменения применяются к сессиям уже вошедших пользователей при их следующем запросе.
  */
 @Controller
 @RequestMapping("/users")
 public class UserAdminController {
 
-    private final UserRepository userRepository;
-    private final com.example.museum.service.UserService userService;
+    private final UserService userService;
 
 
     /**
      * Конструктор для внедрения зависимостей.
      *
-     * @param userRepository репозиторий для работы с пользователями
-     * @param userService    сервис для работы с пользователями
+     * @param userService сервис для работы с пользователями
      */
-    public UserAdminController(UserRepository userRepository,
-                               com.example.museum.service.UserService userService) {
-        this.userRepository = userRepository;
+    public UserAdminController(UserService userService) {
         this.userService = userService;
     }
 
@@ -40,20 +36,12 @@ public class UserAdminController {
     /**
      * Отображает список всех зарегистрированных пользователей.
      *
-     * @param model          объект модели
-     * @param authentication объект аутентификации
+     * @param model объект модели
      * @return имя шаблона "users"
      */
     @GetMapping
-    public String listUsers(Model model, Authentication authentication) {
-        model.addAttribute("users", userRepository.findAll());
-
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            com.example.museum.model.User user = userService.findByEmail(email);
-            model.addAttribute("currentUserFullName", user != null ? user.getFullName() : email);
-            model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-        }
+    public String listUsers(Model model) {
+        model.addAttribute("users", userService.findAll());
 
         return "users";
     }
@@ -71,11 +59,11 @@ public class UserAdminController {
      */
     @PostMapping("/{id}/role")
     public String updateRole(@PathVariable Long id, @RequestParam String role, Model model) {
-        User user = userRepository.findById(id).orElse(null);
+        User user = userService.findById(id);
         if (user != null) {
             if (user.getRole() != Role.SUPER_ADMIN) {
                 user.setRole(Role.valueOf(role));
-                userRepository.save(user);
+                userService.save(user);
             }
         }
         return "redirect:/users";
@@ -92,9 +80,9 @@ public class UserAdminController {
      */
     @PostMapping("/{id}/delete")
     public String deleteUser(@PathVariable Long id) {
-        User user = userRepository.findById(id).orElse(null);
+        User user = userService.findById(id);
         if (user != null && user.getRole() != Role.SUPER_ADMIN) {
-            userRepository.deleteById(id);
+            userService.deleteById(id);
         }
         return "redirect:/users";
     }
@@ -1,18 +1,17 @@
 package com.example.museum.controller;
 
-import com.example.museum.model.Exhibition;
+import com.example.museum.dto.VisitPage;
 import com.example.museum.model.Visit;
 import com.example.museum.service.ExhibitionService;
-import com.example.museum.service.UserService;
+import com.example.museum.service.VisitIngestionService;
 import com.example.museum.service.VisitService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
-
 
 /**
  * Контроллер для управления посещениями выставок.
@@ -20,29 +19,39 @@ import java.util.List;
  * Обеспечивает просмотр истории посещений и регистрацию нового визита.
  * Для посетителей доступна только их собственная история,
  * для администраторов и суперадминистраторов — полный журнал.
+ * Журнал выводится постранично: ссылка на следующую страницу содержит позицию
+ * последней показанной записи, а не номер страницы.
  */
 @Controller
 @RequestMapping("/visits")
 public class VisitController {
 
     private final VisitService visitService;
+    private final VisitIngestionService visitIngestionService;
     private final ExhibitionService exhibitionService;
-    private final UserService userService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
 
     /**
      * Конструктор для внедрения зависимостей.
      *
-     * @param visitService         сервис для работы с посещениями
-     * @param exhibitionService    сервис для работы с выставками
-     * @param userService          сервис для работы с пользователями
+     * @param visitService          сервис для работы с посещениями
+     * @param visitIngestionService сервис приёма регистраций посещений
+     * @param exhibitionService     сервис для работы с выставками
+     * @param defaultPageSize       количество записей на странице журнала по умолчанию
+     * @param maxPageSize           максимально допустимое количество записей на странице
      */
     public VisitController(VisitService visitService,
+                           VisitIngestionService visitIngestionService,
                            ExhibitionService exhibitionService,
-                           UserService userService) {
+                           @Value("${museum.visits.page-size:50}") int defaultPageSize,
+                           @Value("${museum.visits.max-page-size:500}") int maxPageSize) {
         this.visitService = visitService;
+        this.visitIngestionService = visitIngestionService;
         this.exhibitionService = exhibitionService;
-        this.userService = userService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
 
@@ -50,8 +59,13 @@ public class VisitController {
      * Отображает страницу "Посещения", которая включает:
      * - форму регистрации нового посещения;
      * - таблицу истории посещений (зависит от роли пользователя).
+     * <p>
+     * По умолчанию посетитель видит свою историю по названию выставки,
+     * а администратор — журнал от новых посещений к старым.
      *
-     * @param sort               параметр сортировки (asc/desc)
+     * @param sort               параметр сортировки (asc/desc по выставке, date по дате)
+     * @param cursor             позиция, с которой начинается страница (опционально)
+     * @param size               количество записей на странице (опционально)
      * @param model              объект модели
      * @param authentication     объект аутентификации
      * @param message            опциональное сообщение (например, об успешной регистрации)
@@ -60,41 +74,35 @@ public class VisitController {
     @GetMapping({"", "/"})
     public String showVisitsAndForm(
             @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
             Model model,
             Authentication authentication,
             @RequestParam(required = false) String message) {
 
         if (authentication != null && authentication.isAuthenticated()) {
             String email = authentication.getName();
-            com.example.museum.model.User user = userService.findByEmail(email);
-            model.addAttribute("currentUserFullName", user != null ? user.getFullName() : email);
-            model.addAttribute("currentUserAuthorities", authentication.getAuthorities());
-
             boolean isVisitor = authentication.getAuthorities().stream()
                     .anyMatch(a -> a.getAuthority().equals("ROLE_VISITOR"));
 
-            if (isVisitor) {
-                String sortDir = (sort != null && "desc".equals(sort)) ? "desc" : "asc";
-                List<Visit> myVisits = visitService.findVisitsByVisitorEmail(email, sortDir);
-                model.addAttribute("visits", myVisits);
-                model.addAttribute("currentSort", sortDir);
-                model.addAttribute("isVisitorView", true);
-            } else {
-                if (sort != null && ("asc".equals(sort) || "desc".equals(sort))) {
-                    model.addAttribute("visits", visitService.findAllSortedByExhibitionTitle(sort));
-                    model.addAttribute("currentSort", sort);
-                } else {
-                    model.addAttribute("visits", visitService.findAll());
-                    model.addAttribute("currentSort", "asc");
-                }
-                model.addAttribute("isVisitorView", false);
-            }
+            int pageSize = size != null ? Math.max(1, Math.min(size, maxPageSize)) : defaultPageSize;
+            String sortDir = "asc".equals(sort) || "desc".equals(sort) || "date".equals(sort)
+                    ? sort
+                    : (isVisitor ? "asc" : "date");
+
+            VisitPage page = isVisitor
+                    ? visitService.findVisitorPage(email, sortDir, cursor, pageSize)
+                    : visitService.findPage(sortDir, cursor, pageSize);
+            model.addAttribute("visits", page.visits());
+            model.addAttribute("nextCursor", page.nextCursor());
+            model.addAttribute("isFirstPage", cursor == null || cursor.isBlank());
+            model.addAttribute("currentSort", sortDir);
+            model.addAttribute("pageSize", pageSize);
+            model.addAttribute("isVisitorView", isVisitor);
 
             if (message != null) {
                 model.addAttribute("message", message);
             }
-
-            model.addAttribute("currentUserEmail", email);
         }
 
         model.addAttribute("exhibitions", exhibitionService.findAll());
@@ -108,6 +116,7 @@ public class VisitController {
      * Регистрирует новое посещение выставки.
      * <p>
      * Email посетителя автоматически устанавливается на основе данных аутентификации.
+     * В режиме отложенной записи посещение сохраняется фоновым потоком вскоре после ответа.
      *
      * @param visit              объект посещения из формы
      * @param authentication     объект аутентификации
@@ -120,7 +129,7 @@ public class VisitController {
                            RedirectAttributes redirectAttributes) {
         if (authentication != null && authentication.isAuthenticated()) {
             visit.setVisitorEmail(authentication.getName());
-            visitService.save(visit);
+            visitIngestionService.register(visit);
             redirectAttributes.addFlashAttribute("message", "Посещение успешно зарегистрировано");
         }
         return "redirect:/visits";
@@ -0,0 +1,71 @@
+package com.example.museum.controller;
+
+import com.example.museum.service.VisitExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+
+/**
+ * Контроллер выгрузки посещений для аналитиков.
+ * <p>
+ * Отдаёт посещения файлом CSV или NDJSON, записывая строки в ответ по мере чтения
+ * из базы данных. Доступ разрешён ролям {@code ADMIN} и {@code SUPER_ADMIN}.
+ */
+@Controller
+@RequestMapping("/admin/visits")
+public class VisitExportController {
+
+    private final VisitExportService visitExportService;
+
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param visitExportService сервис выгрузки посещений
+     */
+    public VisitExportController(VisitExportService visitExportService) {
+        this.visitExportService = visitExportService;
+    }
+
+
+    /**
+     * Выгружает посещения файлом.
+     * <p>
+     * Пример: {@code /admin/visits/export?format=ndjson&from=2025-01-01&to=2025-01-31&exhibitionId=3}.
+     *
+     * @param format       формат: "csv" (по умолчанию) или "ndjson"
+     * @param from         первый день периода (опционально)
+     * @param to           последний день периода включительно (опционально)
+     * @param exhibitionId идентификатор выставки (опционально)
+     * @param response     HTTP-ответ, в который записываются данные
+     * @throws IOException если запись ответа не удалась
+     */
+    @GetMapping("/export")
+    public void exportVisits(@RequestParam(defaultValue = "csv") String format,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                             @RequestParam(required = false) Long exhibitionId,
+                             HttpServletResponse response) throws IOException {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        String fileName = "visits-" + LocalDate.now() + (ndjson ? ".ndjson" : ".csv");
+
+        response.setContentType(ndjson ? "application/x-ndjson" : "text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+
+        visitExportService.export(ndjson ? VisitExportService.Format.NDJSON : VisitExportService.Format.CSV,
+                from, to, exhibitionId, response.getOutputStream());
+        response.flushBuffer();
+    }
+}
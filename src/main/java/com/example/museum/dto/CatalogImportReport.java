@@ -0,0 +1,28 @@
+package com.example.museum.dto;
+
+import java.util.List;
+
+
+/**
+ * Итог массового импорта каталога.
+ *
+ * @param rowsRead         количество прочитанных записей
+ * @param hallsImported    количество добавленных залов
+ * @param hallsSkipped     количество залов, пропущенных как уже существующие
+ * @param exhibitsImported количество добавленных экспонатов
+ * @param errorCount       общее количество отклонённых записей
+ * @param errors           ошибки по записям (не более заданного числа первых ошибок)
+ * @param aborted          {@code true}, если чтение файла прервано из-за нарушения его структуры
+ */
+public record CatalogImportReport(long rowsRead, long hallsImported, long hallsSkipped, long exhibitsImported,
+                                  long errorCount, List<RowError> errors, boolean aborted) {
+
+    /**
+     * Ошибка импорта одной записи.
+     *
+     * @param row     номер строки (CSV) или порядковый номер записи (JSON)
+     * @param message описание ошибки
+     */
+    public record RowError(long row, String message) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.museum.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+
+/**
+ * Запись файла массового импорта каталога: зал или экспонат.
+ * <p>
+ * Значения хранятся строками в том виде, в каком прочитаны из CSV или JSON;
+ * преобразование и проверка выполняются при импорте, чтобы ошибка
+ * в одной записи не прерывала чтение файла. Экспонат ссылается на зал по названию.
+ *
+ * @param type         тип записи: "hall" или "exhibit"
+ * @param name         название зала или экспоната
+ * @param description  описание (опционально)
+ * @param author       автор экспоната
+ * @param creationYear год создания экспоната
+ * @param era          эпоха экспоната
+ * @param hall         название зала экспоната
+ * @param floor        этаж зала
+ * @param capacity     вместимость зала
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CatalogImportRow(String type, String name, String description, String author,
+                               String creationYear, String era, String hall, String floor, String capacity) {
+}
@@ -0,0 +1,20 @@
+package com.example.museum.dto;
+
+
+/**
+ * Строка списка экспонатов.
+ * <p>
+ * Заполняется выражением {@code SELECT new ...} с соединением с залом, поэтому список
+ * не загружает сущности и не читает столбец {@code description}, который в списке не показывается.
+ *
+ * @param id           идентификатор экспоната
+ * @param name         название
+ * @param author       автор
+ * @param creationYear год создания
+ * @param era          эпоха
+ * @param hallId       идентификатор зала или {@code null}
+ * @param hallName     название зала или {@code null}
+ */
+public record ExhibitListItem(Long id, String name, String author, Integer creationYear, String era,
+                              Long hallId, String hallName) {
+}
@@ -0,0 +1,14 @@
+package com.example.museum.dto;
+
+import java.util.List;
+
+
+/**
+ * Результат поиска экспонатов для страницы списка.
+ *
+ * @param exhibits  найденные экспонаты, не больше {@code limit}
+ * @param limit     наибольшее число показываемых экспонатов ({@code museum.exhibits.search-limit})
+ * @param truncated {@code true}, если найдено больше экспонатов, чем показано
+ */
+public record ExhibitSearchResult(List<ExhibitListItem> exhibits, int limit, boolean truncated) {
+}
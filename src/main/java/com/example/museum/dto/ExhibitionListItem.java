@@ -0,0 +1,22 @@
+package com.example.museum.dto;
+
+import java.time.LocalDate;
+
+
+/**
+ * Строка списка выставок.
+ * <p>
+ * Имя куратора берётся соединением с {@code users}, описание обрезается в запросе
+ * до заданной длины; полностью оно загружается только для редактируемой выставки.
+ *
+ * @param id                   идентификатор выставки
+ * @param title                название
+ * @param startDate            дата начала
+ * @param endDate              дата окончания
+ * @param curatorFullName      полное имя куратора или {@code null}
+ * @param descriptionPreview   начало описания или {@code null}
+ * @param descriptionTruncated было ли описание обрезано
+ */
+public record ExhibitionListItem(Long id, String title, LocalDate startDate, LocalDate endDate,
+                                 String curatorFullName, String descriptionPreview, boolean descriptionTruncated) {
+}
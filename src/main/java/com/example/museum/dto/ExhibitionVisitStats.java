@@ -0,0 +1,28 @@
+package com.example.museum.dto;
+
+
+/**
+ * Проекция для статистики посещаемости: количество посещений одной выставки.
+ * <p>
+ * Заполняется непосредственно JPQL-выражением {@code SELECT new ...}, поэтому
+ * не требует загрузки сущностей {@link com.example.museum.model.Exhibition}.
+ * Оценка уникальных посетителей добавляется сервисом статистики.
+ *
+ * @param exhibitionId   идентификатор выставки
+ * @param title          название выставки
+ * @param visitCount     количество зарегистрированных посещений
+ * @param uniqueVisitors приблизительное количество уникальных посетителей
+ */
+public record ExhibitionVisitStats(Long exhibitionId, String title, Long visitCount, Long uniqueVisitors) {
+
+    /**
+     * Конструктор для JPQL-проекции без оценки уникальных посетителей.
+     *
+     * @param exhibitionId идентификатор выставки
+     * @param title        название выставки
+     * @param visitCount   количество зарегистрированных посещений
+     */
+    public ExhibitionVisitStats(Long exhibitionId, String title, Long visitCount) {
+        this(exhibitionId, title, visitCount, 0L);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.museum.dto;
+
+
+/**
+ * Проекция для статистики распределения выставок по гидам.
+ *
+ * @param email           email гида (куратора)
+ * @param fullName        полное имя гида
+ * @param exhibitionCount количество выставок, куратором которых является гид
+ */
+public record GuideExhibitionStats(String email, String fullName, Long exhibitionCount) {
+}
@@ -0,0 +1,20 @@
+package com.example.museum.dto;
+
+
+/**
+ * Строка списка залов.
+ * <p>
+ * Описание обрезается в запросе до заданной длины; полностью оно загружается
+ * только для редактируемого зала.
+ *
+ * @param id                   идентификатор зала
+ * @param name                 название
+ * @param floor                этаж
+ * @param capacity             вместимость
+ * @param exhibitCount         количество экспонатов в зале
+ * @param descriptionPreview   начало описания или {@code null}
+ * @param descriptionTruncated было ли описание обрезано
+ */
+public record HallListItem(Long id, String name, Integer floor, Integer capacity, long exhibitCount,
+                           String descriptionPreview, boolean descriptionTruncated) {
+}
@@ -0,0 +1,61 @@
+package com.example.museum.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+
+/**
+ * Позиция в журнале посещений для постраничного просмотра без OFFSET.
+ * <p>
+ * Содержит значения ключа сортировки последней показанной записи: название
+ * выставки или дату посещения и идентификатор посещения. Передаётся клиенту
+ * в виде непрозрачной строки Base64, поэтому ссылка на следующую страницу
+ * остаётся корректной при добавлении новых посещений.
+ *
+ * @param sort      порядок сортировки, для которого получена позиция ("asc", "desc" или "date")
+ * @param visitId   идентификатор последнего показанного посещения
+ * @param title     название выставки последнего посещения (для сортировки по выставке)
+ * @param visitDate дата последнего посещения (для сортировки по дате)
+ */
+public record VisitCursor(String sort, Long visitId, String title, LocalDateTime visitDate) {
+
+    private static final String SEPARATOR = "\n";
+
+    /**
+     * Кодирует позицию в строку для передачи в параметре запроса.
+     *
+     * @return непрозрачная строка позиции
+     */
+    public String encode() {
+        String key = "date".equals(sort) ? visitDate.toString() : title;
+        String raw = sort + SEPARATOR + visitId + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Восстанавливает позицию из строки, полученной {@link #encode()}.
+     *
+     * @param value строка позиции
+     * @param sort  текущий порядок сортировки
+     * @return позиция или {@code null}, если строка пуста, повреждена или получена для другой сортировки
+     */
+    public static VisitCursor decode(String value, String sort) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 3);
+            if (parts.length != 3 || !parts[0].equals(sort)) {
+                return null;
+            }
+            Long visitId = Long.valueOf(parts[1]);
+            return "date".equals(sort)
+                    ? new VisitCursor(sort, visitId, null, LocalDateTime.parse(parts[2]))
+                    : new VisitCursor(sort, visitId, parts[2], null);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.museum.dto;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * Строка выгрузки посещений.
+ * <p>
+ * Заполняется JPQL-выражением {@code SELECT new ...} при потоковом чтении,
+ * поэтому выгружаемые посещения не попадают в контекст персистентности.
+ *
+ * @param id              идентификатор посещения
+ * @param visitorEmail    email посетителя
+ * @param visitDate       дата и время посещения
+ * @param exhibitionId    идентификатор выставки
+ * @param exhibitionTitle название выставки
+ */
+public record VisitExportRow(Long id, String visitorEmail, LocalDateTime visitDate,
+                             Long exhibitionId, String exhibitionTitle) {
+}
@@ -0,0 +1,24 @@
+package com.example.museum.dto;
+
+import com.example.museum.model.Visit;
+
+import java.util.List;
+
+
+/**
+ * Страница журнала посещений.
+ *
+ * @param visits     посещения текущей страницы
+ * @param nextCursor позиция для запроса следующей страницы или {@code null}, если страница последняя
+ */
+public record VisitPage(List<Visit> visits, String nextCursor) {
+
+    /**
+     * Проверяет, есть ли следующая страница.
+     *
+     * @return {@code true}, если после текущей страницы есть посещения
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
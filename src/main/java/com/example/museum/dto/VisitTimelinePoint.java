@@ -0,0 +1,16 @@
+package com.example.museum.dto;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * Проекция для временного ряда посещений: количество посещений выставки
+ * за один временной интервал (час или день).
+ *
+ * @param exhibitionId идентификатор выставки
+ * @param title        название выставки
+ * @param bucketStart  начало интервала
+ * @param visitCount   количество посещений за интервал
+ */
+public record VisitTimelinePoint(Long exhibitionId, String title, LocalDateTime bucketStart, Long visitCount) {
+}
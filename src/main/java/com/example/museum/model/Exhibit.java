@@ -1,6 +1,9 @@
 package com.example.museum.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 
 /**
@@ -18,12 +21,15 @@ public class Exhibit {
      * Уникальный идентификатор экспоната.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exhibits_seq")
+    @SequenceGenerator(name = "exhibits_seq", sequenceName = "exhibits_seq", allocationSize = 50)
     private Long id;
 
     /**
      * Название экспоната.
      */
+    @NotBlank(message = "Укажите название экспоната")
+    @Size(max = 255, message = "Название не должно превышать 255 символов")
     @Column(name = "name", nullable = false)
     private String name;
 
@@ -36,18 +42,23 @@ public class Exhibit {
     /**
      * Автор экспоната.
      */
+    @NotBlank(message = "Укажите автора")
+    @Size(max = 255, message = "Имя автора не должно превышать 255 символов")
     @Column(name = "author", nullable = false)
     private String author;
 
     /**
      * Год создания экспоната.
      */
+    @NotNull(message = "Укажите год создания")
     @Column(name = "creation_year", nullable = false)
     private Integer creationYear;
 
     /**
      * Историческая эпоха, к которой относится экспонат.
      */
+    @NotBlank(message = "Укажите эпоху")
+    @Size(max = 255, message = "Эпоха не должна превышать 255 символов")
     @Column(name = "era", nullable = false)
     private String era;
 
@@ -55,6 +66,7 @@ public class Exhibit {
      * Зал, в котором находится экспонат.
      * Установлена связь «многие к одному» с сущностью {@link Hall}.
      */
+    @NotNull(message = "Укажите зал")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "hall_id", nullable = false, foreignKey = @ForeignKey(name = "fk_exhibit_hall"))
     private Hall hall;
@@ -1,6 +1,9 @@
 package com.example.museum.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDate;
 
 /**
@@ -8,16 +11,20 @@ import java.time.LocalDate;
  * <p>
  * Соответствует таблице {@code exhibitions} и содержит информацию
  * о названии, датах начала и окончания, описании и кураторе выставки.
+ * Хранится в кеше второго уровня (регион {@code exhibitions}).
  */
 @Entity
 @Table(name = "exhibitions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "exhibitions")
 public class Exhibition {
 
     /**
      * Уникальный идентификатор выставки.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exhibitions_seq")
+    @SequenceGenerator(name = "exhibitions_seq", sequenceName = "exhibitions_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -0,0 +1,48 @@
+package com.example.museum.model;
+
+import jakarta.persistence.*;
+
+
+/**
+ * Сущность, хранящая накопленное количество посещений выставки.
+ * <p>
+ * Соответствует таблице {@code exhibition_visit_counts}. Значения обновляются
+ * пакетно из счётчиков в памяти, поэтому статистика не пересчитывает
+ * таблицу {@code visits} при каждом запросе.
+ */
+@Entity
+@Table(name = "exhibition_visit_counts")
+public class ExhibitionVisitCount {
+
+    /**
+     * Идентификатор выставки (совпадает с первичным ключом {@link Exhibition}).
+     */
+    @Id
+    @Column(name = "exhibition_id")
+    private Long exhibitionId;
+
+    /**
+     * Количество посещений, сброшенных в базу данных.
+     */
+    @Column(name = "visit_count", nullable = false)
+    private Long visitCount;
+
+    public ExhibitionVisitCount() {}
+
+    /**
+     * Конструктор для создания счётчика с начальным значением.
+     *
+     * @param exhibitionId идентификатор выставки
+     * @param visitCount   количество посещений
+     */
+    public ExhibitionVisitCount(Long exhibitionId, Long visitCount) {
+        this.exhibitionId = exhibitionId;
+        this.visitCount = visitCount;
+    }
+
+    public Long getExhibitionId() { return exhibitionId; }
+    public void setExhibitionId(Long exhibitionId) { this.exhibitionId = exhibitionId; }
+
+    public Long getVisitCount() { return visitCount; }
+    public void setVisitCount(Long visitCount) { this.visitCount = visitCount; }
+}
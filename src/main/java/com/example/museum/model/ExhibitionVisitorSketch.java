@@ -0,0 +1,48 @@
+package com.example.museum.model;
+
+import jakarta.persistence.*;
+
+
+/**
+ * Сущность, хранящая эскиз HyperLogLog уникальных посетителей выставки за всё время.
+ * <p>
+ * Соответствует таблице {@code exhibition_visitor_sketches}. Эскиз хранится
+ * в виде компактного массива байтов (см. {@link com.example.museum.util.HyperLogLog})
+ * и обновляется слиянием с эскизами, накопленными на узлах приложения.
+ */
+@Entity
+@Table(name = "exhibition_visitor_sketches")
+public class ExhibitionVisitorSketch {
+
+    /**
+     * Идентификатор выставки (совпадает с первичным ключом {@link Exhibition}).
+     */
+    @Id
+    @Column(name = "exhibition_id")
+    private Long exhibitionId;
+
+    /**
+     * Сериализованный эскиз HyperLogLog.
+     */
+    @Column(name = "sketch", nullable = false)
+    private byte[] sketch;
+
+    public ExhibitionVisitorSketch() {}
+
+    /**
+     * Конструктор для создания записи с готовым эскизом.
+     *
+     * @param exhibitionId идентификатор выставки
+     * @param sketch       сериализованный эскиз
+     */
+    public ExhibitionVisitorSketch(Long exhibitionId, byte[] sketch) {
+        this.exhibitionId = exhibitionId;
+        this.sketch = sketch;
+    }
+
+    public Long getExhibitionId() { return exhibitionId; }
+    public void setExhibitionId(Long exhibitionId) { this.exhibitionId = exhibitionId; }
+
+    public byte[] getSketch() { return sketch; }
+    public void setSketch(byte[] sketch) { this.sketch = sketch; }
+}
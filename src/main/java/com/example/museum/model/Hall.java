@@ -1,6 +1,12 @@
 package com.example.museum.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 
 /**
@@ -8,33 +14,42 @@ import jakarta.persistence.*;
  * <p>
  * Соответствует таблице {@code halls} и содержит информацию о названии,
  * этаже, вместимости и описании зала.
+ * Хранится в кеше второго уровня (регион {@code halls}).
  */
 @Entity
 @Table(name = "halls")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "halls")
 public class Hall {
 
     /**
      * Уникальный идентификатор зала.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "halls_seq")
+    @SequenceGenerator(name = "halls_seq", sequenceName = "halls_seq", allocationSize = 50)
     private Long id;
 
     /**
      * Название зала.
      */
+    @NotBlank(message = "Укажите название зала")
+    @Size(max = 255, message = "Название зала не должно превышать 255 символов")
     @Column(nullable = false)
     private String name;
 
     /**
      * Этаж, на котором расположен зал.
      */
+    @NotNull(message = "Укажите этаж")
     @Column(nullable = false)
     private Integer floor;
 
     /**
      * Вместимость зала (максимальное количество посетителей).
      */
+    @NotNull(message = "Укажите вместимость")
+    @Positive(message = "Вместимость должна быть положительной")
     @Column(nullable = false)
     private Integer capacity;
 
@@ -0,0 +1,59 @@
+package com.example.museum.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+
+/**
+ * Сущность, хранящая версию применённого набора начальных данных.
+ * <p>
+ * Соответствует таблице {@code seed_versions}. Если записанная версия не ниже текущей,
+ * заполнение базы при запуске пропускается без проверки отдельных записей.
+ */
+@Entity
+@Table(name = "seed_versions")
+public class SeedVersion {
+
+    /**
+     * Название набора начальных данных.
+     */
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    /**
+     * Версия набора, применённая к базе данных.
+     */
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    /**
+     * Момент применения версии.
+     */
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+
+    public SeedVersion() {}
+
+    /**
+     * Конструктор для создания отметки о применённой версии.
+     *
+     * @param name      название набора
+     * @param version   версия набора
+     * @param appliedAt момент применения
+     */
+    public SeedVersion(String name, Integer version, LocalDateTime appliedAt) {
+        this.name = name;
+        this.version = version;
+        this.appliedAt = appliedAt;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+
+    public LocalDateTime getAppliedAt() { return appliedAt; }
+    public void setAppliedAt(LocalDateTime appliedAt) { this.appliedAt = appliedAt; }
+}
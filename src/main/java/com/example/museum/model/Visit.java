@@ -18,7 +18,8 @@ public class Visit {
      * Уникальный идентификатор записи о посещении.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "visits_seq")
+    @SequenceGenerator(name = "visits_seq", sequenceName = "visits_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -2,45 +2,32 @@ package com.example.museum.repository;
 
 import com.example.museum.model.Exhibit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.util.Optional;
 
 
 /**
  * Репозиторий для управления сущностями "Экспонат" ({@link Exhibit}).
  * <p>
- * Содержит методы для поиска экспонатов по автору, эпохе или обоим критериям одновременно.
+ * Поиск по названию, автору и эпохе выполняется через условия {@link ExhibitSpecifications},
+ * которые добавляются в запрос только для заданных критериев.
+ * Формы экспонатов загружают зал тем же запросом ({@link ExhibitSpecifications#fetchHall()}),
+ * страница списка получает проекции {@link ExhibitRepositoryCustom#findListItems}.
  */
 @Repository
-public interface ExhibitRepository extends JpaRepository<Exhibit, Long> {
+public interface ExhibitRepository extends JpaRepository<Exhibit, Long>, JpaSpecificationExecutor<Exhibit>,
+        ExhibitRepositoryCustom {
 
     /**
-     * Находит экспонаты, автор которых содержит указанную строку (регистронезависимо).
+     * Находит экспонат по идентификатору вместе с его залом.
      *
-     * @param author частичное или полное имя автора
-     * @return список найденных экспонатов
+     * @param id идентификатор экспоната
+     * @return экспонат с инициализированным залом
      */
-    List<Exhibit> findByAuthorContainingIgnoreCase(String author);
-
-    /**
-     * Находит экспонаты, эпоха которых содержит указанную строку (регистронезависимо).
-     *
-     * @param era частичное или полное название эпохи
-     * @return список найденных экспонатов
-     */
-    List<Exhibit> findByEraContainingIgnoreCase(String era);
-
-    /**
-     * Находит экспонаты, соответствующие одновременно заданному автору и эпохе
-     * (регистронезависимо).
-     *
-     * @param author частичное или полное имя автора
-     * @param era    частичное или полное название эпохи
-     * @return список найденных экспонатов
-     */
-    List<Exhibit> findByAuthorContainingIgnoreCaseAndEraContainingIgnoreCase(String author, String era);
-
-}
\ No newline at end of file
+    @Query("SELECT e FROM Exhibit e LEFT JOIN FETCH e.hall WHERE e.id = :id")
+    Optional<Exhibit> findWithHallById(@Param("id") Long id);
+}
@@ -0,0 +1,25 @@
+package com.example.museum.repository;
+
+import com.example.museum.dto.ExhibitListItem;
+import com.example.museum.model.Exhibit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+
+/**
+ * Запросы списка экспонатов, возвращающие проекции вместо сущностей.
+ */
+public interface ExhibitRepositoryCustom {
+
+    /**
+     * Возвращает строки списка экспонатов, удовлетворяющих условию.
+     *
+     * @param criteria   условие поиска или {@code null} для всех экспонатов
+     * @param sort       порядок строк
+     * @param maxResults наибольшее количество строк; 0 — без ограничения
+     * @return строки списка с названием зала
+     */
+    List<ExhibitListItem> findListItems(Specification<Exhibit> criteria, Sort sort, int maxResults);
+}
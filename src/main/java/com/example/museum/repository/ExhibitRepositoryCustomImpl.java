@@ -0,0 +1,62 @@
+package com.example.museum.repository;
+
+import com.example.museum.dto.ExhibitListItem;
+import com.example.museum.model.Exhibit;
+import com.example.museum.model.Hall;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+
+/**
+ * Реализация {@link ExhibitRepositoryCustom} на Criteria API.
+ * <p>
+ * Условия {@link ExhibitSpecifications} применяются к тому же корню запроса, что и в
+ * {@link ExhibitRepository}, поэтому поиск использует те же триграммные индексы,
+ * а в SELECT попадают только столбцы строки списка и название зала.
+ */
+class ExhibitRepositoryCustomImpl implements ExhibitRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    ExhibitRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ExhibitListItem> findListItems(Specification<Exhibit> criteria, Sort sort, int maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ExhibitListItem> query = cb.createQuery(ExhibitListItem.class);
+        Root<Exhibit> root = query.from(Exhibit.class);
+        Join<Exhibit, Hall> hall = root.join("hall", JoinType.LEFT);
+        query.select(cb.construct(ExhibitListItem.class,
+                root.get("id"), root.get("name"), root.get("author"), root.get("creationYear"), root.get("era"),
+                hall.get("id"), hall.get("name")));
+
+        if (criteria != null) {
+            Predicate predicate = criteria.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        TypedQuery<ExhibitListItem> typedQuery = entityManager.createQuery(query);
+        if (maxResults > 0) {
+            typedQuery.setMaxResults(maxResults);
+        }
+        return typedQuery.getResultList();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.museum.repository;
+
+import com.example.museum.model.Exhibit;
+import jakarta.persistence.criteria.JoinType;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Условия поиска экспонатов для {@link ExhibitRepository}.
+ * <p>
+ * Поиск по подстроке строится как {@code ILIKE '%...%'}: в PostgreSQL такое условие
+ * обслуживается триграммными GIN-индексами по названию, автору и эпохе.
+ */
+public final class ExhibitSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private ExhibitSpecifications() {
+    }
+
+    /**
+     * Условие «атрибут содержит строку» без учёта регистра.
+     * Символы {@code %} и {@code _} в строке поиска трактуются буквально.
+     *
+     * @param attribute имя атрибута экспоната: "name", "author" или "era"
+     * @param term      искомая строка
+     * @return условие поиска
+     */
+    public static Specification<Exhibit> containsIgnoreCase(String attribute, String term) {
+        String pattern = "%" + escapeLike(term) + "%";
+        return (root, query, cb) -> ((HibernateCriteriaBuilder) cb).ilike(root.get(attribute), pattern, ESCAPE);
+    }
+
+    /**
+     * Загружает зал экспоната тем же запросом.
+     *
+     * @return условие, добавляющее соединение с залом
+     */
+    public static Specification<Exhibit> fetchHall() {
+        return (root, query, cb) -> {
+            if (query != null && query.getResultType() == Exhibit.class) {
+                root.fetch("hall", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
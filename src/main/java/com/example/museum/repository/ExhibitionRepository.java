@@ -1,51 +1,111 @@
 package com.example.museum.repository;
 
+import com.example.museum.dto.ExhibitionListItem;
+import com.example.museum.dto.ExhibitionVisitStats;
+import com.example.museum.dto.GuideExhibitionStats;
 import com.example.museum.model.Exhibition;
-import com.example.museum.model.Role;
-import com.example.museum.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 /**
  * Репозиторий для управления сущностями "Выставка" ({@link Exhibition}).
  * <p>
- * Предоставляет методы для поиска выставок по куратору, подсчёта количества
- * выставок с одинаковым названием и агрегации данных по гидам.
+ * Предоставляет методы для поиска выставок по куратору, проверки существования
+ * выставок с заданными названиями и агрегации данных по гидам.
+ * Списки выставок с кураторами хранятся в кеше запросов (регион {@code exhibitions-queries}).
  */
 @Repository
 public interface ExhibitionRepository extends JpaRepository<Exhibition, Long> {
 
     /**
-     * Подсчитывает количество выставок с указанным названием.
+     * Возвращает те из указанных названий, под которыми уже существуют выставки.
      * Используется для предотвращения дублирования постоянных выставок.
      *
-     * @param title название выставки
-     * @return количество выставок с данным названием
+     * @param titles проверяемые названия
+     * @return названия существующих выставок
      */
-    long countByTitle(String title);
+    @Query("SELECT DISTINCT e.title FROM Exhibition e WHERE e.title IN :titles")
+    List<String> findExistingTitles(@Param("titles") Collection<String> titles);
+
+    /**
+     * Возвращает все выставки, загружая кураторов тем же запросом.
+     *
+     * @return список выставок с инициализированным куратором
+     */
+    @Query("SELECT e FROM Exhibition e LEFT JOIN FETCH e.curator")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "exhibitions-queries")
+    })
+    List<Exhibition> findAllWithCurator();
+
+    /**
+     * Возвращает строки списка выставок с именем куратора и описанием, обрезанным в запросе.
+     *
+     * @param previewLength наибольшая длина описания в строке списка
+     * @return строки списка, упорядоченные по идентификатору
+     */
+    @Query("SELECT new com.example.museum.dto.ExhibitionListItem(e.id, e.title, e.startDate, e.endDate, c.fullName, " +
+            "SUBSTRING(e.description, 1, :previewLength), " +
+            "CASE WHEN LENGTH(e.description) > :previewLength THEN true ELSE false END) " +
+            "FROM Exhibition e LEFT JOIN e.curator c " +
+            "ORDER BY e.id")
+    List<ExhibitionListItem> findListItems(@Param("previewLength") int previewLength);
+
+    /**
+     * Находит выставку по идентификатору вместе с её куратором.
+     *
+     * @param id идентификатор выставки
+     * @return выставка с инициализированным куратором
+     */
+    @Query("SELECT e FROM Exhibition e LEFT JOIN FETCH e.curator WHERE e.id = :id")
+    Optional<Exhibition> findWithCuratorById(@Param("id") Long id);
 
     /**
      * Находит все выставки, куратором которых является пользователь
      * с указанным email-адресом.
      *
      * @param email email куратора (гида)
-     * @return список выставок, привязанных к данному гиду
+     * @return список выставок, привязанных к данному гиду, с загруженным куратором
      */
-    @Query("SELECT e FROM Exhibition e WHERE e.curator.email = :email")
+    @Query("SELECT e FROM Exhibition e JOIN FETCH e.curator c WHERE c.email = :email")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "exhibitions-queries")
+    })
     List<Exhibition> findByCuratorEmail(@Param("email") String email);
 
     /**
-     * Возвращает статистику: количество выставок, сгруппированных по email'ам гидов.
-     * Результат представляет собой список массивов объектов, где
-     * первый элемент — email гида, второй — количество его выставок.
+     * Возвращает количество посещений каждой выставки по таблице счётчиков
+     * {@code exhibition_visit_counts}, не пересчитывая таблицу {@code visits}.
+     * <p>
+     * Выставки без посещений также попадают в результат с нулевым счётчиком.
+     *
+     * @return список проекций [выставка, количество_посещений], упорядоченный по идентификатору выставки
+     */
+    @Query("SELECT new com.example.museum.dto.ExhibitionVisitStats(e.id, e.title, COALESCE(c.visitCount, 0L)) " +
+            "FROM Exhibition e LEFT JOIN ExhibitionVisitCount c ON c.exhibitionId = e.id " +
+            "ORDER BY e.id")
+    List<ExhibitionVisitStats> findVisitStatistics();
+
+    /**
+     * Возвращает статистику: количество выставок, сгруппированных по гидам,
+     * вместе с полными именами гидов (без дополнительных запросов к {@code users}).
      *
-     * @return список массивов вида [email, количество_выставок]
+     * @return список проекций [email, полное_имя, количество_выставок]
      */
-    @Query("SELECT e.curator.email, COUNT(e) FROM Exhibition e WHERE e.curator IS NOT NULL GROUP BY e.curator.email")
-    List<Object[]> countExhibitionsByCuratorEmail();
-}
\ No newline at end of file
+    @Query("SELECT new com.example.museum.dto.GuideExhibitionStats(c.email, c.fullName, COUNT(e)) " +
+            "FROM Exhibition e JOIN e.curator c " +
+            "GROUP BY c.email, c.fullName ORDER BY c.fullName")
+    List<GuideExhibitionStats> countExhibitionsByCurator();
+}
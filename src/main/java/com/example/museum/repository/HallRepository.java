@@ -1,7 +1,13 @@
 package com.example.museum.repository;
 
+import com.example.museum.dto.HallListItem;
 import com.example.museum.model.Hall;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,7 +16,9 @@ import java.util.List;
 /**
  * Репозиторий для управления сущностями "Зал" ({@link Hall}).
  * <p>
- * Обеспечивает методы поиска залов по названию, этажу или обоим параметрам.
+ * Обеспечивает методы поиска залов по названию, этажу или обоим параметрам,
+ * а также строки списка залов без полного текста описаний.
+ * Результат {@link #findAll()} хранится в кеше запросов (регион {@code halls-queries}).
  *
  * @author Костенко М.С.
  * @since 1.0
@@ -18,6 +26,18 @@ import java.util.List;
 @Repository
 public interface HallRepository extends JpaRepository<Hall, Long> {
 
+    /**
+     * Возвращает все залы. Результат кешируется до изменения таблицы {@code halls}.
+     *
+     * @return список всех залов
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "halls-queries")
+    })
+    List<Hall> findAll();
+
     /**
      * Находит залы, название которых содержит указанную строку (регистронезависимо).
      *
@@ -42,4 +62,25 @@ public interface HallRepository extends JpaRepository<Hall, Long> {
      * @return список залов, соответствующих обоим критериям
      */
     List<Hall> findByNameContainingIgnoreCaseAndFloor(String name, Integer floor);
+
+    /**
+     * Возвращает строки списка залов с количеством экспонатов и описанием, обрезанным в запросе.
+     *
+     * @param namePattern   шаблон LIKE для названия в нижнем регистре ({@code \} — экранирующий символ)
+     *                      или {@code null}, чтобы не фильтровать по названию
+     * @param floor         номер этажа или {@code null}, чтобы не фильтровать по этажу
+     * @param previewLength наибольшая длина описания в строке списка
+     * @return строки списка, упорядоченные по идентификатору
+     */
+    @Query("SELECT new com.example.museum.dto.HallListItem(h.id, h.name, h.floor, h.capacity, " +
+            "(SELECT COUNT(x) FROM Exhibit x WHERE x.hall = h), " +
+            "SUBSTRING(h.description, 1, :previewLength), " +
+            "CASE WHEN LENGTH(h.description) > :previewLength THEN true ELSE false END) " +
+            "FROM Hall h " +
+            "WHERE (CAST(:namePattern AS String) IS NULL OR LOWER(h.name) LIKE :namePattern ESCAPE '\\') " +
+            "AND (CAST(:floor AS Integer) IS NULL OR h.floor = :floor) " +
+            "ORDER BY h.id")
+    List<HallListItem> findListItems(@Param("namePattern") String namePattern,
+                                     @Param("floor") Integer floor,
+                                     @Param("previewLength") int previewLength);
 }
\ No newline at end of file
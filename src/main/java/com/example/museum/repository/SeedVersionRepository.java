@@ -0,0 +1,30 @@
+package com.example.museum.repository;
+
+import com.example.museum.model.SeedVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+
+/**
+ * Репозиторий для отметок о применённых наборах начальных данных ({@link SeedVersion}).
+ */
+@Repository
+public interface SeedVersionRepository extends JpaRepository<SeedVersion, String> {
+
+    /**
+     * Находит отметку о наборе с блокировкой строки до конца транзакции,
+     * чтобы несколько узлов не заполняли базу одновременно.
+     *
+     * @param name название набора
+     * @return объект {@link Optional}, содержащий отметку, если набор уже применялся
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SeedVersion s WHERE s.name = :name")
+    Optional<SeedVersion> findForUpdate(@Param("name") String name);
+}
@@ -2,9 +2,16 @@ package com.example.museum.repository;
 
 import com.example.museum.model.Role;
 import com.example.museum.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,7 +20,8 @@ import java.util.Optional;
  * Репозиторий для управления сущностями "Пользователь" ({@link User}).
  * <p>
  * Используется для проверки существования пользователя по email,
- * поиска по email и фильтрации по ролям.
+ * поиска по email и фильтрации по ролям. Списки пользователей по роли хранятся
+ * в кеше запросов (регион {@code users-queries}).
  *
  * @author Костенко М.С.
  * @since 1.0
@@ -37,11 +45,43 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Находит пользователей с любым из указанных email-адресов одним запросом.
+     *
+     * @param emails email-адреса пользователей
+     * @return найденные пользователи
+     */
+    List<User> findByEmailIn(Collection<String> emails);
+
+    /**
+     * Возвращает email-адрес пользователя по идентификатору без загрузки всей сущности.
+     *
+     * @param id идентификатор пользователя
+     * @return объект {@link Optional}, содержащий email, если пользователь найден
+     */
+    @Query("SELECT u.email FROM User u WHERE u.id = :id")
+    Optional<String> findEmailById(@Param("id") Long id);
+
     /**
      * Возвращает список всех пользователей с заданной ролью.
      *
      * @param role роль пользователей (например, {@code Role.GUIDE})
      * @return список пользователей с указанной ролью
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "users-queries")
+    })
     List<User> findByRole(Role role);
-}
\ No newline at end of file
+
+    /**
+     * Заменяет хеш пароля пользователя одним запросом UPDATE.
+     *
+     * @param email    email пользователя
+     * @param password новый хеш пароля
+     * @return количество изменённых записей
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+}
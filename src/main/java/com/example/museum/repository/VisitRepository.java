@@ -1,12 +1,19 @@
 package com.example.museum.repository;
 
+import com.example.museum.dto.VisitExportRow;
 import com.example.museum.model.Visit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 /**
@@ -14,6 +21,11 @@ import java.util.List;
  * <p>
  * Обеспечивает методы для получения списка посещений с сортировкой по названию выставки,
  * а также подсчёта количества посещений конкретной выставки.
+ * <p>
+ * Постраничные методы используют поиск по ключу сортировки (keyset): следующая страница
+ * начинается строго после ключа последней записи предыдущей, без OFFSET, поэтому
+ * стоимость запроса не зависит от номера страницы. Методы, возвращающие списки посещений,
+ * загружают выставку тем же запросом.
  */
 @Repository
 public interface VisitRepository extends JpaRepository<Visit, Long> {
@@ -24,7 +36,7 @@ public interface VisitRepository extends JpaRepository<Visit, Long> {
      *
      * @return список посещений
      */
-    @Query("SELECT v FROM Visit v JOIN v.exhibition e ORDER BY e.title ASC")
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e ORDER BY e.title ASC")
     List<Visit> findAllByExhibitionTitleAsc();
 
 
@@ -33,7 +45,7 @@ public interface VisitRepository extends JpaRepository<Visit, Long> {
      *
      * @return список посещений
      */
-    @Query("SELECT v FROM Visit v JOIN v.exhibition e ORDER BY e.title DESC")
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e ORDER BY e.title DESC")
     List<Visit> findAllByExhibitionTitleDesc();
 
 
@@ -43,7 +55,7 @@ public interface VisitRepository extends JpaRepository<Visit, Long> {
      * @param email email посетителя
      * @return список посещений пользователя
      */
-    @Query("SELECT v FROM Visit v JOIN v.exhibition e WHERE v.visitorEmail = :email ORDER BY e.title ASC")
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e WHERE v.visitorEmail = :email ORDER BY e.title ASC")
     List<Visit> findByVisitorEmailOrderByExhibitionTitle(@Param("email") String email);
 
 
@@ -53,10 +65,192 @@ public interface VisitRepository extends JpaRepository<Visit, Long> {
      * @param email email посетителя
      * @return список посещений пользователя
      */
-    @Query("SELECT v FROM Visit v JOIN v.exhibition e WHERE v.visitorEmail = :email ORDER BY e.title DESC")
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e WHERE v.visitorEmail = :email ORDER BY e.title DESC")
     List<Visit> findByVisitorEmailOrderByExhibitionTitleDesc(@Param("email") String email);
 
 
+    /**
+     * Возвращает первую страницу журнала, отсортированного по названию выставки и id по возрастанию.
+     *
+     * @param limit размер страницы
+     * @return посещения с загруженными выставками
+     */
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e ORDER BY e.title ASC, v.id ASC")
+    List<Visit> findFirstPageByExhibitionTitleAsc(Limit limit);
+
+
+    /**
+     * Возвращает страницу журнала по названию выставки и id по возрастанию после заданной позиции.
+     *
+     * @param title название выставки последней показанной записи
+     * @param id    идентификатор последней показанной записи
+     * @param limit размер страницы
+     * @return посещения с загруженными выставками
+     */
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e " +
+           "WHERE (e.title, v.id) > (:title, :id) ORDER BY e.title ASC, v.id ASC")
+    List<Visit> findPageByExhibitionTitleAscAfter(@Param("title") String title, @Param("id") Long id, Limit limit);
+
+
+    /**
+     * Возвращает первую страницу журнала, отсортированного по названию выставки и id по убыванию.
+     *
+     * @param limit размер страницы
+     * @return посещения с загруженными выставками
+     */
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e ORDER BY e.title DESC, v.id DESC")
+    List<Visit> findFirstPageByExhibitionTitleDesc(Limit limit);
+
+
+    /**
+     * Возвращает страницу журнала по названию выставки и id по убыванию после заданной позиции.
+     *
+     * @param title название выставки последней показанной записи
+     * @param id    идентификатор последней показанной записи
+     * @param limit размер страницы
+     * @return посещения с загруженными выставками
+     */
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e " +
+           "WHERE (e.title, v.id) < (:title, :id) ORDER BY e.title DESC, v.id DESC")
+    List<Visit> findPageByExhibitionTitleDescAfter(@Param("title") String title, @Param("id") Long id, Limit limit);
+
+
+    /**
+     * Возвращает первую страницу журнала, отсортированного от новых посещений к старым.
+     *
+     * @param limit размер страницы
+     * @return посещения с загруженными выставками
+     */
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e ORDER BY v.visitDate DESC, v.id DESC")
+    List<Visit> findFirstPageByVisitDateDesc(Limit limit);
+
+
+    /**
+     * Возвращает страницу журнала от новых посещений к старым после заданной позиции.
+     *
+     * @param visitDate дата последней показанной записи
+     * @param id        идентификатор последней показанной записи
+     * @param limit     размер страницы
+     * @return посещения с загруженными выставками
+     */
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e " +
+           "WHERE (v.visitDate, v.id) < (:visitDate, :id) ORDER BY v.visitDate DESC, v.id DESC")
+    List<Visit> findPageByVisitDateDescAfter(@Param("visitDate") LocalDateTime visitDate, @Param("id") Long id, Limit limit);
+
+
+    /**
+     * Возвращает первую страницу истории посетителя по названию выставки и id по возрастанию.
+     *
+     * @param email email посетителя
+     * @param limit размер страницы
+     * @return посещения с загруженными выставками
+     */
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e WHERE v.visitorEmail = :email " +
+           "ORDER BY e.title ASC, v.id ASC")
+    List<Visit> findFirstPageByVisitorEmailOrderByExhibitionTitleAsc(@Param("email") String email, Limit limit);
+
+
+    /**
+     * Возвращает страницу истории посетителя по названию выставки и id по возрастанию после заданной позиции.
+     *
+     * @param email email посетителя
+     * @param title название выставки последней показанной записи
+     * @param id    идентификатор последней показанной записи
+     * @param limit размер страницы
+     * @return посещения с загруженными выставками
+     */
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e WHERE v.visitorEmail = :email " +
+           "AND (e.title, v.id) > (:title, :id) ORDER BY e.title ASC, v.id ASC")
+    List<Visit> findPageByVisitorEmailOrderByExhibitionTitleAscAfter(@Param("email") String email,
+                                                                     @Param("title") String title,
+                                                                     @Param("id") Long id,
+                                                                     Limit limit);
+
+
+    /**
+     * Возвращает первую страницу истории посетителя по названию выставки и id по убыванию.
+     *
+     * @param email email посетителя
+     * @param limit размер страницы
+     * @return посещения с загруженными выставками
+     */
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e WHERE v.visitorEmail = :email " +
+           "ORDER BY e.title DESC, v.id DESC")
+    List<Visit> findFirstPageByVisitorEmailOrderByExhibitionTitleDesc(@Param("email") String email, Limit limit);
+
+
+    /**
+     * Возвращает страницу истории посетителя по названию выставки и id по убыванию после заданной позиции.
+     *
+     * @param email email посетителя
+     * @param title название выставки последней показанной записи
+     * @param id    идентификатор последней показанной записи
+     * @param limit размер страницы
+     * @return посещения с загруженными выставками
+     */
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e WHERE v.visitorEmail = :email " +
+           "AND (e.title, v.id) < (:title, :id) ORDER BY e.title DESC, v.id DESC")
+    List<Visit> findPageByVisitorEmailOrderByExhibitionTitleDescAfter(@Param("email") String email,
+                                                                      @Param("title") String title,
+                                                                      @Param("id") Long id,
+                                                                      Limit limit);
+
+
+    /**
+     * Возвращает первую страницу истории посетителя от новых посещений к старым.
+     *
+     * @param email email посетителя
+     * @param limit размер страницы
+     * @return посещения с загруженными выставками
+     */
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e WHERE v.visitorEmail = :email " +
+           "ORDER BY v.visitDate DESC, v.id DESC")
+    List<Visit> findFirstPageByVisitorEmailOrderByVisitDateDesc(@Param("email") String email, Limit limit);
+
+
+    /**
+     * Возвращает страницу истории посетителя от новых посещений к старым после заданной позиции.
+     *
+     * @param email     email посетителя
+     * @param visitDate дата последней показанной записи
+     * @param id        идентификатор последней показанной записи
+     * @param limit     размер страницы
+     * @return посещения с загруженными выставками
+     */
+    @Query("SELECT v FROM Visit v JOIN FETCH v.exhibition e WHERE v.visitorEmail = :email " +
+           "AND (v.visitDate, v.id) < (:visitDate, :id) ORDER BY v.visitDate DESC, v.id DESC")
+    List<Visit> findPageByVisitorEmailOrderByVisitDateDescAfter(@Param("email") String email,
+                                                                @Param("visitDate") LocalDateTime visitDate,
+                                                                @Param("id") Long id,
+                                                                Limit limit);
+
+
+    /**
+     * Потоково читает посещения для выгрузки в порядке даты и идентификатора.
+     * <p>
+     * Строки читаются курсором порциями фиксированного размера, поэтому метод
+     * должен вызываться внутри транзакции, а поток — закрываться после чтения.
+     *
+     * @param from         начало периода (включительно) или {@code null}
+     * @param to           конец периода (не включительно) или {@code null}
+     * @param exhibitionId идентификатор выставки или {@code null} для всех выставок
+     * @return поток строк выгрузки
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.museum.dto.VisitExportRow(v.id, v.visitorEmail, v.visitDate, e.id, e.title) " +
+           "FROM Visit v JOIN v.exhibition e " +
+           "WHERE (CAST(:from AS LocalDateTime) IS NULL OR v.visitDate >= :from) " +
+           "AND (CAST(:to AS LocalDateTime) IS NULL OR v.visitDate < :to) " +
+           "AND (CAST(:exhibitionId AS Long) IS NULL OR e.id = :exhibitionId) " +
+           "ORDER BY v.visitDate, v.id")
+    Stream<VisitExportRow> streamForExport(@Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           @Param("exhibitionId") Long exhibitionId);
+
+
     /**
      * Подсчитывает общее количество посещений заданной выставки.
      *
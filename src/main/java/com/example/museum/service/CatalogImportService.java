@@ -0,0 +1,46 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.CatalogImportReport;
+
+import java.io.InputStream;
+
+
+/**
+ * Интерфейс сервиса массового импорта залов и экспонатов.
+ * <p>
+ * Файл читается потоково; записи проверяются ограничениями Bean Validation
+ * сущностей {@link com.example.museum.model.Hall} и {@link com.example.museum.model.Exhibit}
+ * и сохраняются пакетами. Ошибочные записи попадают в отчёт и не прерывают импорт.
+ */
+public interface CatalogImportService {
+
+    /**
+     * Формат файла импорта.
+     */
+    enum Format {
+
+        /**
+         * CSV с заголовком; столбцы соответствуют полям {@link com.example.museum.dto.CatalogImportRow}
+         * (например, {@code type,name,description,author,creation_year,era,hall,floor,capacity}).
+         */
+        CSV,
+
+        /**
+         * JSON-массив объектов или последовательность объектов (NDJSON).
+         */
+        JSON
+    }
+
+    /**
+     * Импортирует залы и экспонаты из потока.
+     * <p>
+     * Экспонат ссылается на зал по названию (без учёта регистра): на уже существующий
+     * или на зал, описанный выше в том же файле. Зал с уже существующим названием
+     * повторно не создаётся.
+     *
+     * @param in     поток с содержимым файла в кодировке UTF-8; не закрывается методом
+     * @param format формат файла
+     * @return отчёт об импорте
+     */
+    CatalogImportReport importCatalog(InputStream in, Format format);
+}
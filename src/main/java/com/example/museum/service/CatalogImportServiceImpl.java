@@ -0,0 +1,409 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.CatalogImportReport;
+import com.example.museum.dto.CatalogImportRow;
+import com.example.museum.model.Exhibit;
+import com.example.museum.model.Hall;
+import com.example.museum.repository.ExhibitRepository;
+import com.example.museum.repository.HallRepository;
+import com.example.museum.util.CsvReader;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * Реализация сервиса {@link CatalogImportService}.
+ * <p>
+ * Файл читается порциями фиксированного размера. Каждая порция проверяется
+ * в пуле потоков, пока читаются следующие, а сохраняется в порядке файла
+ * в отдельной транзакции пакетными INSERT-запросами. Если транзакция порции
+ * не удалась, её записи сохраняются по одной, чтобы отклонить только ошибочные.
+ * Залы сопоставляются по названию через одну карту в памяти, заполненную
+ * одним запросом в начале импорта и дополняемую новыми залами.
+ * <p>
+ * Транзакции ограничены порцией, поэтому класс не помечен {@code @Transactional}.
+ */
+@Service
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportServiceImpl.class);
+
+    private static final String TYPE_HALL = "hall";
+    private static final String TYPE_EXHIBIT = "exhibit";
+
+    private final HallRepository hallRepository;
+    private final ExhibitRepository exhibitRepository;
+    private final CatalogReadModelService catalogReadModelService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService validationExecutor;
+    private final int validationThreads;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public CatalogImportServiceImpl(HallRepository hallRepository,
+                                    ExhibitRepository exhibitRepository,
+                                    CatalogReadModelService catalogReadModelService,
+                                    EntityManager entityManager,
+                                    Validator validator,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${museum.catalog.import.validation-threads:0}") int validationThreads,
+                                    @Value("${museum.catalog.import.chunk-size:1000}") int chunkSize,
+                                    @Value("${museum.catalog.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.hallRepository = hallRepository;
+        this.exhibitRepository = exhibitRepository;
+        this.catalogReadModelService = catalogReadModelService;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validationThreads = validationThreads > 0 ? validationThreads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.validationExecutor = Executors.newFixedThreadPool(this.validationThreads, task -> {
+            Thread thread = new Thread(task, "catalog-import-validation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CatalogImportReport importCatalog(InputStream in, Format format) {
+        ImportState state = new ImportState();
+        hallRepository.findAll().forEach(hall -> state.halls.putIfAbsent(hallKey(hall.getName()), hall));
+
+        Deque<Future<List<ValidatedRow>>> inFlight = new ArrayDeque<>();
+        try {
+            RowSource source = format == Format.JSON ? jsonSource(in) : csvSource(in);
+            List<ParsedRow> chunk;
+            while (!(chunk = readChunk(source, state)).isEmpty()) {
+                List<ParsedRow> rows = chunk;
+                inFlight.add(validationExecutor.submit(() -> rows.stream().map(this::validate).toList()));
+                // не больше порций в работе, чем потоков проверки: объём памяти ограничен
+                if (inFlight.size() >= validationThreads) {
+                    persistChunk(await(inFlight.poll()), state);
+                }
+            }
+        } catch (IOException e) {
+            state.aborted = true;
+            state.error(state.rowsRead + 1, "Чтение файла прервано: " + e.getMessage());
+        } finally {
+            while (!inFlight.isEmpty()) {
+                persistChunk(await(inFlight.poll()), state);
+            }
+            // порции фиксируются по отдельности: снимок строится один раз после всех
+            catalogReadModelService.markChanged();
+        }
+
+        log.info("Импорт каталога: прочитано {}, залов добавлено {} (пропущено {}), экспонатов добавлено {}, ошибок {}{}",
+                state.rowsRead, state.hallsImported, state.hallsSkipped, state.exhibitsImported, state.errorCount,
+                state.aborted ? ", чтение прервано" : "");
+        return new CatalogImportReport(state.rowsRead, state.hallsImported, state.hallsSkipped,
+                state.exhibitsImported, state.errorCount, List.copyOf(state.errors), state.aborted);
+    }
+
+    /**
+     * Останавливает пул потоков проверки при остановке приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        validationExecutor.shutdownNow();
+    }
+
+    private List<ParsedRow> readChunk(RowSource source, ImportState state) throws IOException {
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+        ParsedRow row;
+        while (chunk.size() < chunkSize && (row = source.next()) != null) {
+            state.rowsRead++;
+            chunk.add(row);
+        }
+        return chunk;
+    }
+
+    private RowSource csvSource(InputStream in) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            return () -> null;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // допускаются варианты creation_year и creationYear, а также BOM в начале файла
+            columns.put(header.get(i).replace("﻿", "").replace("_", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+        return () -> {
+            List<String> fields;
+            do {
+                fields = reader.readRecord();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.stream().allMatch(String::isBlank));
+
+            long line = reader.getRecordLineNumber();
+            if (fields.size() != header.size()) {
+                return new ParsedRow(line, null,
+                        "Ожидалось столбцов: " + header.size() + ", получено: " + fields.size());
+            }
+            List<String> values = fields;
+            Function<String, String> column = name -> {
+                Integer index = columns.get(name);
+                return index != null ? values.get(index) : null;
+            };
+            return new ParsedRow(line, new CatalogImportRow(column.apply("type"), column.apply("name"),
+                    column.apply("description"), column.apply("author"), column.apply("creationyear"),
+                    column.apply("era"), column.apply("hall"), column.apply("floor"), column.apply("capacity")), null);
+        };
+    }
+
+    private RowSource jsonSource(InputStream in) throws IOException {
+        MappingIterator<CatalogImportRow> iterator = objectMapper.readerFor(CatalogImportRow.class).readValues(in);
+        AtomicInteger index = new AtomicInteger();
+        return () -> iterator.hasNextValue() ? new ParsedRow(index.incrementAndGet(), iterator.nextValue(), null) : null;
+    }
+
+    private ValidatedRow validate(ParsedRow parsed) {
+        if (parsed.error() != null) {
+            return ValidatedRow.failed(parsed.line(), parsed.error());
+        }
+        CatalogImportRow row = parsed.data();
+        List<String> problems = new ArrayList<>();
+        String type = row.type() != null ? row.type().trim().toLowerCase(Locale.ROOT) : "";
+
+        if (TYPE_HALL.equals(type)) {
+            Hall hall = new Hall(trim(row.name()), parseInteger(row.floor(), "Этаж", problems),
+                    parseInteger(row.capacity(), "Вместимость", problems), trim(row.description()));
+            problems.addAll(violations(hall));
+            return problems.isEmpty() ? new ValidatedRow(parsed.line(), hall, null, null, null)
+                    : ValidatedRow.failed(parsed.line(), String.join("; ", problems));
+        }
+        if (TYPE_EXHIBIT.equals(type)) {
+            String hallName = trim(row.hall());
+            // зал сопоставляется при сохранении; для проверки @NotNull подставляется временный объект
+            Exhibit exhibit = new Exhibit(trim(row.name()), trim(row.description()), trim(row.author()),
+                    parseInteger(row.creationYear(), "Год создания", problems), trim(row.era()),
+                    hallName != null ? new Hall() : null);
+            problems.addAll(violations(exhibit));
+            return problems.isEmpty() ? new ValidatedRow(parsed.line(), null, exhibit, hallName, null)
+                    : ValidatedRow.failed(parsed.line(), String.join("; ", problems));
+        }
+        return ValidatedRow.failed(parsed.line(),
+                "Неизвестный тип записи «" + row.type() + "» (ожидается hall или exhibit)");
+    }
+
+    private <T> List<String> violations(T entity) {
+        return validator.validate(entity).stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.toList());
+    }
+
+    private void persistChunk(List<ValidatedRow> chunk, ImportState state) {
+        Map<String, Hall> chunkHalls = new LinkedHashMap<>();
+        List<ValidatedRow> hallRows = new ArrayList<>();
+        List<ValidatedRow> exhibitRows = new ArrayList<>();
+
+        for (ValidatedRow row : chunk) {
+            if (row.error() != null) {
+                state.error(row.row(), row.error());
+            } else if (row.hall() != null) {
+                String key = hallKey(row.hall().getName());
+                if (state.halls.containsKey(key) || chunkHalls.containsKey(key)) {
+                    state.hallsSkipped++;
+                } else {
+                    chunkHalls.put(key, row.hall());
+                    hallRows.add(row);
+                }
+            } else {
+                String key = hallKey(row.hallName());
+                Hall hall = state.halls.getOrDefault(key, chunkHalls.get(key));
+                if (hall == null) {
+                    state.error(row.row(), "Зал «" + row.hallName() + "» не найден");
+                } else {
+                    row.exhibit().setHall(hall);
+                    exhibitRows.add(row);
+                }
+            }
+        }
+        if (hallRows.isEmpty() && exhibitRows.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                hallRepository.saveAll(hallRows.stream().map(ValidatedRow::hall).toList());
+                exhibitRepository.saveAll(exhibitRows.stream().map(ValidatedRow::exhibit).toList());
+                entityManager.flush();
+                // контекст персистентности не должен расти от порции к порции
+                entityManager.clear();
+            });
+            state.halls.putAll(chunkHalls);
+            state.hallsImported += hallRows.size();
+            state.exhibitsImported += exhibitRows.size();
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Не удалось сохранить порцию импорта каталога целиком, сохранение по одной записи", e);
+            persistOneByOne(hallRows, exhibitRows, state);
+        }
+    }
+
+    private void persistOneByOne(List<ValidatedRow> hallRows, List<ValidatedRow> exhibitRows, ImportState state) {
+        // идентификаторы, выданные в откатившейся транзакции, недействительны
+        hallRows.forEach(row -> row.hall().setId(null));
+        exhibitRows.forEach(row -> row.exhibit().setId(null));
+
+        for (ValidatedRow row : hallRows) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> hallRepository.save(row.hall()));
+                state.halls.put(hallKey(row.hall().getName()), row.hall());
+                state.hallsImported++;
+            } catch (DataAccessException | TransactionException e) {
+                row.hall().setId(null);
+                state.error(row.row(), "Не удалось сохранить зал: " + rootMessage(e));
+            }
+        }
+        for (ValidatedRow row : exhibitRows) {
+            if (row.exhibit().getHall().getId() == null) {
+                state.error(row.row(), "Зал «" + row.hallName() + "» не сохранён");
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> exhibitRepository.save(row.exhibit()));
+                state.exhibitsImported++;
+            } catch (DataAccessException | TransactionException e) {
+                state.error(row.row(), "Не удалось сохранить экспонат: " + rootMessage(e));
+            }
+        }
+        entityManager.clear();
+    }
+
+    private static List<ValidatedRow> await(Future<List<ValidatedRow>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Импорт каталога прерван", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка проверки записей импорта", e.getCause());
+        }
+    }
+
+    private static Integer parseInteger(String value, String field, List<String> problems) {
+        String trimmed = trim(value);
+        if (trimmed == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(trimmed);
+        } catch (NumberFormatException e) {
+            problems.add(field + ": «" + trimmed + "» не является целым числом");
+            return null;
+        }
+    }
+
+    private static String trim(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static String hallKey(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    /**
+     * Источник записей файла импорта.
+     */
+    private interface RowSource {
+
+        /**
+         * @return следующая запись или {@code null}, если файл прочитан
+         */
+        ParsedRow next() throws IOException;
+    }
+
+    /**
+     * Прочитанная запись с номером строки и ошибкой разбора, если она есть.
+     */
+    private record ParsedRow(long line, CatalogImportRow data, String error) {
+    }
+
+    /**
+     * Проверенная запись: зал или экспонат, готовые к сохранению, либо описание ошибки.
+     */
+    private record ValidatedRow(long row, Hall hall, Exhibit exhibit, String hallName, String error) {
+
+        static ValidatedRow failed(long row, String error) {
+            return new ValidatedRow(row, null, null, null, error);
+        }
+    }
+
+    /**
+     * Состояние одного импорта: карта залов и счётчики отчёта.
+     */
+    private final class ImportState {
+
+        private final Map<String, Hall> halls = new HashMap<>();
+        private final List<CatalogImportReport.RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long hallsImported;
+        private long hallsSkipped;
+        private long exhibitsImported;
+        private long errorCount;
+        private boolean aborted;
+
+        private void error(long row, String message) {
+            errorCount++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new CatalogImportReport.RowError(row, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.ExhibitListItem;
+import com.example.museum.dto.ExhibitionListItem;
+import com.example.museum.dto.HallListItem;
+
+import java.util.List;
+
+
+/**
+ * Модель чтения каталога: страницы списков экспонатов, залов и выставок
+ * обслуживаются из неизменяемого снимка в памяти ({@link CatalogSnapshot}) без обращения к базе данных.
+ * <p>
+ * После каждого изменения каталога (сохранение или удаление экспоната, зала, выставки, импорт)
+ * снимок строится заново в фоне и заменяется целиком; внутри транзакции — только после её фиксации.
+ * Пока новый снимок строится, чтения получают предыдущий.
+ * Изменения на других узлах приложения попадают в снимок при периодическом обновлении.
+ */
+public interface CatalogReadModelService {
+
+    /**
+     * Включена ли модель чтения ({@code museum.catalog.read-model.enabled}).
+     * Если нет, списки читаются из базы данных.
+     *
+     * @return {@code true}, если списки обслуживаются из снимка
+     */
+    boolean isEnabled();
+
+    /**
+     * Возвращает первые экспонаты каталога для списка без критериев поиска.
+     * Поиск по тексту выполняется в базе данных.
+     *
+     * @param limit наибольшее количество строк
+     * @return строки экспонатов по возрастанию идентификатора
+     */
+    List<ExhibitListItem> findExhibits(int limit);
+
+    /**
+     * Возвращает строки списка залов, отфильтрованные по названию и этажу.
+     *
+     * @param name  часть названия или {@code null}
+     * @param floor номер этажа или {@code null}
+     * @return строки списка по возрастанию идентификатора
+     */
+    List<HallListItem> findHalls(String name, Integer floor);
+
+    /**
+     * Возвращает строки списка всех выставок.
+     *
+     * @return строки списка по возрастанию идентификатора
+     */
+    List<ExhibitionListItem> findExhibitions();
+
+    /**
+     * Отмечает изменение каталога и ставит в очередь построение нового снимка, не дожидаясь его;
+     * внутри транзакции отметка применяется только после её фиксации.
+     */
+    void markChanged();
+}
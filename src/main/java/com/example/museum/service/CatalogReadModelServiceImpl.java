@@ -0,0 +1,221 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.ExhibitListItem;
+import com.example.museum.dto.ExhibitionListItem;
+import com.example.museum.dto.HallListItem;
+import com.example.museum.repository.ExhibitRepository;
+import com.example.museum.repository.ExhibitionRepository;
+import com.example.museum.repository.HallRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Реализация {@link CatalogReadModelService}.
+ * <p>
+ * Снимок строится из тех же запросов строк списков, которыми страницы читают базу
+ * при выключенной модели чтения, в одной транзакции только для чтения с уровнем
+ * изоляции {@code REPEATABLE READ}, чтобы экспонаты, залы и выставки были согласованы.
+ * <p>
+ * Каждое изменение каталога увеличивает версию каталога после фиксации и ставит построение
+ * нового снимка в очередь единственного фонового потока; изменения, зафиксированные до начала
+ * построения, объединяются в одно построение. Поток, выполнивший изменение, и чтения не ждут
+ * построения: до замены чтения получают предыдущий снимок. Ждёт только первое чтение, если
+ * снимок ещё ни разу не был построен. Если построение не удалось, снимок построит следующее
+ * изменение или периодическое обновление ({@code museum.catalog.read-model.refresh-interval-ms}),
+ * которое также переносит в снимок изменения, сделанные на других узлах.
+ */
+@Service
+public class CatalogReadModelServiceImpl implements CatalogReadModelService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogReadModelServiceImpl.class);
+
+    private final ExhibitRepository exhibitRepository;
+    private final HallRepository hallRepository;
+    private final ExhibitionRepository exhibitionRepository;
+    private final TransactionTemplate readOnly;
+    private final boolean enabled;
+    private final int descriptionPreviewLength;
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "catalog-read-model");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // не synchronized: построение выполняет запросы к базе и не должно закреплять виртуальный поток за несущим
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param exhibitRepository        репозиторий экспонатов
+     * @param hallRepository           репозиторий залов
+     * @param exhibitionRepository     репозиторий выставок
+     * @param transactionManager       менеджер транзакций для построения снимка
+     * @param enabled                  включена ли модель чтения
+     * @param descriptionPreviewLength длина описания в списках залов и выставок
+     */
+    public CatalogReadModelServiceImpl(ExhibitRepository exhibitRepository,
+                                       HallRepository hallRepository,
+                                       ExhibitionRepository exhibitionRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${museum.catalog.read-model.enabled:true}") boolean enabled,
+                                       @Value("${museum.catalog.description-preview-length:200}") int descriptionPreviewLength) {
+        this.exhibitRepository = exhibitRepository;
+        this.hallRepository = hallRepository;
+        this.exhibitionRepository = exhibitionRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        // после фиксации изменения ресурсы его транзакции ещё привязаны к потоку: нужна отдельная транзакция
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.descriptionPreviewLength = descriptionPreviewLength;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public List<ExhibitListItem> findExhibits(int limit) {
+        return current().findExhibits(limit);
+    }
+
+    @Override
+    public List<HallListItem> findHalls(String name, Integer floor) {
+        return current().findHalls(name, floor);
+    }
+
+    @Override
+    public List<ExhibitionListItem> findExhibitions() {
+        return current().findExhibitions();
+    }
+
+    @Override
+    public void markChanged() {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyChange();
+                }
+            });
+        } else {
+            applyChange();
+        }
+    }
+
+    /**
+     * Строит снимок при запуске приложения, чтобы первая страница списка его не ждала.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            tryRefresh(false);
+        }
+    }
+
+    /**
+     * Периодически строит снимок заново: переносит изменения, сделанные на других узлах.
+     */
+    @Scheduled(initialDelayString = "${museum.catalog.read-model.refresh-interval-ms:60000}",
+               fixedDelayString = "${museum.catalog.read-model.refresh-interval-ms:60000}")
+    public void refreshPeriodically() {
+        if (enabled) {
+            tryRefresh(true);
+        }
+    }
+
+    /**
+     * Останавливает фоновый поток построения при остановке приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Ждёт завершения построений, поставленных в очередь до вызова.
+     *
+     * @throws Exception если ожидание прервано или не уложилось в 30 секунд
+     */
+    void awaitRefresh() throws Exception {
+        refresher.submit(() -> { }).get(30, TimeUnit.SECONDS);
+    }
+
+    private CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot;
+        return current == CatalogSnapshot.EMPTY ? refresh(false) : current;
+    }
+
+    private void applyChange() {
+        catalogVersion.incrementAndGet();
+        // построение уже в очереди и ещё не началось: оно прочитает новую версию
+        if (refreshQueued.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                refreshQueued.set(false);
+                tryRefresh(false);
+            });
+        }
+    }
+
+    private void tryRefresh(boolean force) {
+        try {
+            refresh(force);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Не удалось построить снимок каталога", e);
+        }
+    }
+
+    private CatalogSnapshot refresh(boolean force) {
+        refreshLock.lock();
+        try {
+            // версия читается до запросов: изменение, зафиксированное во время построения, сделает снимок устаревшим
+            long version = catalogVersion.get();
+            if (!force && snapshot.version() >= version) {
+                return snapshot;
+            }
+            long start = System.nanoTime();
+            CatalogSnapshot next = readOnly.execute(status -> CatalogSnapshot.of(version,
+                    exhibitRepository.findListItems(null, Sort.by("id"), 0),
+                    hallRepository.findListItems(null, null, descriptionPreviewLength),
+                    exhibitionRepository.findListItems(descriptionPreviewLength)));
+            snapshot = next;
+            log.debug("Снимок каталога версии {} построен за {} мс: экспонатов {}", version,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), next.exhibitCount());
+            return next;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+}
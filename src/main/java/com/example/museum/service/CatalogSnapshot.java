@@ -0,0 +1,154 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.ExhibitListItem;
+import com.example.museum.dto.ExhibitionListItem;
+import com.example.museum.dto.HallListItem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Неизменяемый снимок каталога для страниц списков: экспонаты, залы и выставки.
+ * <p>
+ * Экспонаты хранятся по возрастанию идентификатора и обслуживают список без критериев поиска;
+ * поиск по тексту выполняется в базе данных по триграммным индексам. Строки списка собираются
+ * один раз при построении снимка и возвращаются без копирования. Повторяющиеся значения
+ * (автор, эпоха, название зала) хранятся в словаре по одному экземпляру.
+ * Для залов при построении снимка подсчитывается количество экспонатов; индекс
+ * «зал → экспонаты» не строится, так как ни одна страница не выводит экспонаты зала.
+ */
+public final class CatalogSnapshot {
+
+    /**
+     * Пустой снимок, устаревший по отношению к любой версии каталога.
+     */
+    static final CatalogSnapshot EMPTY = of(-1, List.of(), List.of(), List.of());
+
+    private final long version;
+
+    private final List<ExhibitListItem> exhibits;
+
+    private final List<HallListItem> halls;
+    private final String[] hallNames;
+
+    private final List<ExhibitionListItem> exhibitions;
+
+    private CatalogSnapshot(long version, List<ExhibitListItem> exhibits,
+                            List<HallListItem> halls, List<ExhibitionListItem> exhibitions) {
+        this.version = version;
+        this.exhibits = exhibits;
+        this.halls = halls;
+        this.hallNames = halls.stream().map(hall -> lower(hall.name())).toArray(String[]::new);
+        this.exhibitions = exhibitions;
+    }
+
+    /**
+     * Строит снимок из строк списков.
+     *
+     * @param version     версия каталога, с которой согласован снимок
+     * @param exhibits    строки экспонатов по возрастанию идентификатора
+     * @param halls       строки залов по возрастанию идентификатора
+     * @param exhibitions строки выставок по возрастанию идентификатора
+     * @return снимок каталога
+     */
+    public static CatalogSnapshot of(long version, List<ExhibitListItem> exhibits,
+                                     List<HallListItem> halls, List<ExhibitionListItem> exhibitions) {
+        Map<String, String> dictionary = new HashMap<>();
+        Map<Long, String> hallNames = new HashMap<>();
+        halls.forEach(hall -> hallNames.put(hall.id(), intern(dictionary, hall.name())));
+        Map<Long, Long> exhibitCounts = new HashMap<>();
+
+        ExhibitListItem[] rows = new ExhibitListItem[exhibits.size()];
+        for (int row = 0; row < rows.length; row++) {
+            ExhibitListItem item = exhibits.get(row);
+            rows[row] = new ExhibitListItem(item.id(), item.name(), intern(dictionary, item.author()),
+                    item.creationYear(), intern(dictionary, item.era()), item.hallId(),
+                    hallNames.getOrDefault(item.hallId(), item.hallName()));
+            exhibitCounts.merge(item.hallId(), 1L, Long::sum);
+        }
+
+        List<HallListItem> countedHalls = halls.stream()
+                .map(hall -> new HallListItem(hall.id(), hallNames.get(hall.id()), hall.floor(), hall.capacity(),
+                        exhibitCounts.getOrDefault(hall.id(), 0L), hall.descriptionPreview(), hall.descriptionTruncated()))
+                .toList();
+        return new CatalogSnapshot(version, List.of(rows), countedHalls, List.copyOf(exhibitions));
+    }
+
+    /**
+     * Версия каталога, с которой согласован снимок.
+     *
+     * @return версия каталога
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Возвращает первые экспонаты каталога.
+     *
+     * @param limit наибольшее количество строк
+     * @return строки экспонатов по возрастанию идентификатора
+     */
+    public List<ExhibitListItem> findExhibits(int limit) {
+        return exhibits.subList(0, Math.min(limit, exhibits.size()));
+    }
+
+    /**
+     * Возвращает залы, название которых содержит строку (без учёта регистра) и которые
+     * расположены на заданном этаже.
+     *
+     * @param name  часть названия или {@code null}
+     * @param floor номер этажа или {@code null}
+     * @return найденные залы по возрастанию идентификатора
+     */
+    public List<HallListItem> findHalls(String name, Integer floor) {
+        String nameTerm = term(name);
+        if (nameTerm == null && floor == null) {
+            return halls;
+        }
+        List<HallListItem> found = new ArrayList<>();
+        for (int row = 0; row < halls.size(); row++) {
+            HallListItem hall = halls.get(row);
+            if ((nameTerm == null || hallNames[row].contains(nameTerm))
+                    && (floor == null || floor.equals(hall.floor()))) {
+                found.add(hall);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Возвращает все выставки.
+     *
+     * @return строки списка выставок по возрастанию идентификатора
+     */
+    public List<ExhibitionListItem> findExhibitions() {
+        return exhibitions;
+    }
+
+    /**
+     * Количество экспонатов в снимке.
+     *
+     * @return количество экспонатов
+     */
+    public int exhibitCount() {
+        return exhibits.size();
+    }
+
+    private static String term(String value) {
+        String term = value != null ? value.trim() : "";
+        return term.isEmpty() ? null : lower(term);
+    }
+
+    private static String intern(Map<String, String> dictionary, String value) {
+        return value == null ? null : dictionary.computeIfAbsent(value, v -> v);
+    }
+
+    private static String lower(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
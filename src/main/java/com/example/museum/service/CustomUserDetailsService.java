@@ -1,36 +1,76 @@
 package com.example.museum.service;
 
 import com.example.museum.model.User;
-import com.example.museum.model.Role;
 import com.example.museum.repository.UserRepository;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.Duration;
 
 
 /**
  * Реализация интерфейса {@link UserDetailsService} для аутентификации
  * пользователей на основе данных из репозитория {@link UserRepository}.
  * <p>
- * Преобразует сущность {@link User} в объект Spring Security {@link UserDetails},
- * необходимый для управления сессией и авторизацией.
+ * Преобразует сущность {@link User} в объект {@link MuseumUserDetails},
+ * необходимый для управления сессией и авторизацией. Вместе с ролями в нём
+ * хранится полное имя пользователя для навигационной панели.
+ * <p>
+ * Найденные пользователи кешируются (размер и время жизни записи ограничены настройками
+ * {@code museum.users.cache.*}), поэтому повторные входы не обращаются к базе данных.
+ * Запись сбрасывается по {@link UserChangedEvent} — после изменения роли, удаления
+ * или регистрации пользователя, в том числе на другом узле. Кроме того, запись,
+ * загруженная раньше последнего изменения пользователя, не используется.
+ * Вход с email, которого точно нет среди пользователей ({@link UserEmailFilterService}),
+ * отклоняется без запроса к базе данных; пока фильтр не уверен в ответе, проверяет база.
+ * Статистика попаданий публикуется как метрики {@code cache.*} с тегом {@code cache=users}.
  */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserService userService;
+    private final UserRevisionService userRevisionService;
+    private final UserEmailFilterService userEmailFilterService;
+    private final Cache<String, CachedUser> cache;
 
     /**
-     * Конструктор для внедрения зависимости репозитория пользователей.
+     * Конструктор для внедрения зависимостей.
      *
-     * @param userRepository репозиторий для доступа к данным пользователей
+     * @param userRepository         репозиторий для доступа к данным пользователей
+     * @param userService            сервис для работы с пользователями
+     * @param userRevisionService    сервис версий пользовательских данных
+     * @param userEmailFilterService фильтр email-адресов зарегистрированных пользователей
+     * @param meterRegistry          реестр метрик для статистики кеша
+     * @param maxSize                максимальное количество пользователей в кеше
+     * @param ttl                    время жизни записи кеша
      */
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    UserService userService,
+                                    UserRevisionService userRevisionService,
+                                    UserEmailFilterService userEmailFilterService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${museum.users.cache.max-size:10000}") long maxSize,
+                                    @Value("${museum.users.cache.ttl:10m}") Duration ttl) {
         this.userRepository = userRepository;
+        this.userService = userService;
+        this.userRevisionService = userRevisionService;
+        this.userEmailFilterService = userEmailFilterService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
     }
 
 
@@ -41,24 +81,64 @@ public class CustomUserDetailsService implements UserDetailsService {
      * {@link UsernameNotFoundException}.
      *
      * @param email email-адрес пользователя
-     * @return объект {@link UserDetails}, содержащий данные для аутентификации
+     * @return объект {@link MuseumUserDetails}, содержащий данные для аутентификации
      * @throws UsernameNotFoundException если пользователь с указанным email не существует
      */
     @Override
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+    public MuseumUserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        CachedUser present = cache.asMap().get(email);
+        if (present != null && userRevisionService.isChangedSince(email, present.revision())) {
+            cache.invalidate(email);
+        }
+        CachedUser cached = cache.get(email, this::load);
+
+        // после входа Spring Security стирает пароль в объекте пользователя, поэтому каждый раз создаётся новый
+        return new MuseumUserDetails(cached.user(), cached.revision());
+    }
+
+    /**
+     * Сохраняет новый хеш пароля, вычисленный Spring Security после успешного входа,
+     * если прежний хеш устарел (см. {@link PasswordHashingService}).
+     *
+     * @param user        данные вошедшего пользователя
+     * @param newPassword новый хеш пароля
+     * @return данные пользователя с новым хешем
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userService.updatePassword(user.getUsername(), newPassword);
+        return loadUserByUsername(user.getUsername());
+    }
+
+    /**
+     * Сбрасывает запись кеша изменённого пользователя (или весь кеш).
+     *
+     * @param event событие изменения пользователя
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.email() == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(event.email());
+        }
+    }
+
+    private CachedUser load(String email) {
+        // вход с незарегистрированным email отклоняется без запроса к базе данных
+        if (!userEmailFilterService.mightExist(email)) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+        // версия читается до запроса: изменение, зафиксированное во время чтения, сделает данные устаревшими
+        long revision = userRevisionService.currentRevision();
+        User user = userRepository.findByEmail(email).orElse(null);
         if (user == null) {
+            userEmailFilterService.recordFalsePositive();
             throw new UsernameNotFoundException("User not found with email: " + email);
         }
+        return new CachedUser(user, revision);
+    }
 
-        String roleName = user.getRole().name();
-        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + roleName));
-
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                authorities
-        );
+    private record CachedUser(User user, long revision) {
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.example.museum.service;
 
+import com.example.museum.dto.ExhibitListItem;
+import com.example.museum.dto.ExhibitSearchResult;
 import com.example.museum.model.Exhibit;
 import java.util.List;
 
@@ -13,14 +15,14 @@ import java.util.List;
 public interface ExhibitService {
 
     /**
-     * Возвращает список всех экспонатов.
+     * Возвращает список всех экспонатов вместе с их залами.
      *
      * @return список экспонатов
      */
     List<Exhibit> findAll();
 
     /**
-     * Находит экспонат по его уникальному идентификатору.
+     * Находит экспонат по его уникальному идентификатору вместе с залом.
      *
      * @param id идентификатор экспоната
      * @return объект экспоната или {@code null}, если не найден
@@ -50,4 +52,41 @@ public interface ExhibitService {
      * @return список экспонатов
      */
     List<Exhibit> searchByAuthorAndEra(String author, String era);
+
+    /**
+     * Ищет экспонаты по подстроке в названии, имени автора и эпохе (регистронезависимо).
+     * <p>
+     * Пустые критерии не учитываются; если все критерии пустые, возвращаются все экспонаты.
+     * Результат поиска упорядочен по названию и ограничен настройкой {@code museum.exhibits.search-limit}.
+     *
+     * @param name   часть названия экспоната (опционально)
+     * @param author часть имени автора (опционально)
+     * @param era    часть названия эпохи (опционально)
+     * @return список найденных экспонатов с загруженными залами
+     */
+    List<Exhibit> search(String name, String author, String era);
+
+    /**
+     * Возвращает строки страницы списка экспонатов по тем же правилам, что и {@link #search}:
+     * без критериев — первые экспонаты по возрастанию идентификатора, иначе найденные,
+     * по названию; в обоих случаях не больше {@code museum.exhibits.search-limit}.
+     * Описания экспонатов не загружаются.
+     *
+     * @param name   часть названия экспоната (опционально)
+     * @param author часть имени автора (опционально)
+     * @param era    часть названия эпохи (опционально)
+     * @return строки списка с названием зала
+     */
+    List<ExhibitListItem> findListItems(String name, String author, String era);
+
+    /**
+     * Ищет строки списка экспонатов так же, как {@link #findListItems}, и сообщает,
+     * были ли найдены экспонаты сверх {@code museum.exhibits.search-limit}.
+     *
+     * @param name   часть названия экспоната (опционально)
+     * @param author часть имени автора (опционально)
+     * @param era    часть названия эпохи (опционально)
+     * @return строки списка и признак неполного результата
+     */
+    ExhibitSearchResult searchListItems(String name, String author, String era);
 }
\ No newline at end of file
@@ -1,62 +1,127 @@
 package com.example.museum.service;
 
+import com.example.museum.dto.ExhibitListItem;
+import com.example.museum.dto.ExhibitSearchResult;
 import com.example.museum.model.Exhibit;
 import com.example.museum.repository.ExhibitRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+import static com.example.museum.repository.ExhibitSpecifications.containsIgnoreCase;
+import static com.example.museum.repository.ExhibitSpecifications.fetchHall;
+
 
 /**
  * Реализация сервиса {@link ExhibitService}.
  * <p>
  * Содержит логику поиска экспонатов с поддержкой частичного совпадения
- * по автору и эпохе (регистронезависимо).
+ * по названию, автору и эпохе (регистронезависимо). Запрос поиска содержит
+ * условия только для заданных критериев, чтобы каждое из них могло
+ * использовать свой триграммный индекс. Строки страницы списка без критериев читаются
+ * из модели чтения каталога ({@link CatalogReadModelService}), если она включена; сохранение
+ * и удаление отмечают в ней изменение каталога.
  */
 @Service
 @Transactional
 public class ExhibitServiceImpl implements ExhibitService {
 
+    static final Sort SEARCH_ORDER = Sort.by("name", "id");
+
     private final ExhibitRepository exhibitRepository;
+    private final CatalogReadModelService catalogReadModelService;
+    private final int searchLimit;
 
-    public ExhibitServiceImpl(ExhibitRepository exhibitRepository) {
+    public ExhibitServiceImpl(ExhibitRepository exhibitRepository,
+                              CatalogReadModelService catalogReadModelService,
+                              @Value("${museum.exhibits.search-limit:500}") int searchLimit) {
         this.exhibitRepository = exhibitRepository;
+        this.catalogReadModelService = catalogReadModelService;
+        this.searchLimit = searchLimit;
     }
 
     @Override
     public List<Exhibit> findAll() {
-        return exhibitRepository.findAll();
+        return exhibitRepository.findAll(fetchHall());
     }
 
     @Override
     public Exhibit findById(Long id) {
-        return exhibitRepository.findById(id).orElse(null);
+        return exhibitRepository.findWithHallById(id).orElse(null);
     }
 
     @Override
     public Exhibit save(Exhibit exhibit) {
-        return exhibitRepository.save(exhibit);
+        Exhibit saved = exhibitRepository.save(exhibit);
+        catalogReadModelService.markChanged();
+        return saved;
     }
 
     @Override
     public void deleteById(Long id) {
         exhibitRepository.deleteById(id);
+        catalogReadModelService.markChanged();
     }
 
     @Override
     public List<Exhibit> searchByAuthorAndEra(String author, String era) {
-        String cleanAuthor = (author != null) ? author.trim() : "";
-        String cleanEra = (era != null) ? era.trim() : "";
+        return search(null, author, era);
+    }
 
-        if (cleanAuthor.isEmpty() && cleanEra.isEmpty()) {
+    @Override
+    @Transactional(readOnly = true)
+    public List<Exhibit> search(String name, String author, String era) {
+        Specification<Exhibit> criteria = criteria(name, author, era);
+        if (criteria == null) {
             return findAll();
-        } else if (cleanAuthor.isEmpty()) {
-            return exhibitRepository.findByEraContainingIgnoreCase(cleanEra);
-        } else if (cleanEra.isEmpty()) {
-            return exhibitRepository.findByAuthorContainingIgnoreCase(cleanAuthor);
+        }
+        return exhibitRepository.findBy(criteria.and(fetchHall()),
+                query -> query.sortBy(SEARCH_ORDER).limit(searchLimit).all());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ExhibitListItem> findListItems(String name, String author, String era) {
+        return searchListItems(name, author, era).exhibits();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ExhibitSearchResult searchListItems(String name, String author, String era) {
+        Specification<Exhibit> criteria = criteria(name, author, era);
+        // на одну строку больше предела: по ней видно, что найдено не всё
+        List<ExhibitListItem> found;
+        if (criteria == null && catalogReadModelService.isEnabled()) {
+            found = catalogReadModelService.findExhibits(searchLimit + 1);
         } else {
-            return exhibitRepository.findByAuthorContainingIgnoreCaseAndEraContainingIgnoreCase(cleanAuthor, cleanEra);
+            found = exhibitRepository.findListItems(criteria, criteria == null ? Sort.by("id") : SEARCH_ORDER,
+                    searchLimit + 1);
+        }
+        if (found.size() <= searchLimit) {
+            return new ExhibitSearchResult(found, searchLimit, false);
+        }
+        return new ExhibitSearchResult(List.copyOf(found.subList(0, searchLimit)), searchLimit, true);
+    }
+
+    /**
+     * Объединяет условия для непустых критериев поиска.
+     *
+     * @return условие поиска или {@code null}, если все критерии пустые
+     */
+    private static Specification<Exhibit> criteria(String name, String author, String era) {
+        Specification<Exhibit> criteria = null;
+        for (String[] criterion : new String[][]{{"name", name}, {"author", author}, {"era", era}}) {
+            String term = criterion[1] != null ? criterion[1].trim() : "";
+            if (!term.isEmpty()) {
+                Specification<Exhibit> condition = containsIgnoreCase(criterion[0], term);
+                criteria = criteria == null ? condition : criteria.and(condition);
+            }
         }
+        return criteria;
     }
-}
\ No newline at end of file
+}
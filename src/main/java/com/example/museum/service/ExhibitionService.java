@@ -1,5 +1,6 @@
 package com.example.museum.service;
 
+import com.example.museum.dto.ExhibitionListItem;
 import com.example.museum.model.Exhibition;
 import java.util.List;
 
@@ -13,14 +14,14 @@ import java.util.List;
 public interface ExhibitionService {
 
     /**
-     * Возвращает список всех выставок.
+     * Возвращает список всех выставок вместе с их кураторами.
      *
      * @return список выставок
      */
     List<Exhibition> findAll();
 
     /**
-     * Находит выставку по её уникальному идентификатору.
+     * Находит выставку по её уникальному идентификатору вместе с куратором.
      *
      * @param id идентификатор выставки
      * @return объект выставки или {@code null}, если не найдена
@@ -50,4 +51,12 @@ public interface ExhibitionService {
      * @return список выставок
      */
     List<Exhibition> findByCuratorEmail(String curatorEmail);
+
+    /**
+     * Возвращает строки страницы списка выставок с именем куратора.
+     * Описание каждой выставки обрезается в запросе до {@code museum.catalog.description-preview-length} символов.
+     *
+     * @return строки списка, упорядоченные по идентификатору
+     */
+    List<ExhibitionListItem> findListItems();
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.example.museum.service;
 
+import com.example.museum.dto.ExhibitionListItem;
 import com.example.museum.model.Exhibition;
 import com.example.museum.repository.ExhibitionRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -13,40 +16,59 @@ import java.util.List;
  * <p>
  * Обеспечивает бизнес-логику для работы с выставками и делегирует
  * операции доступа к данным репозиторию {@link ExhibitionRepository}.
+ * Список выставок читается из модели чтения каталога, если она включена.
  */
 @Service
 @Transactional
 public class ExhibitionServiceImpl implements ExhibitionService {
 
     private final ExhibitionRepository exhibitionRepository;
+    private final CatalogReadModelService catalogReadModelService;
+    private final int descriptionPreviewLength;
 
-    public ExhibitionServiceImpl(ExhibitionRepository exhibitionRepository) {
+    public ExhibitionServiceImpl(ExhibitionRepository exhibitionRepository,
+                                 CatalogReadModelService catalogReadModelService,
+                                 @Value("${museum.catalog.description-preview-length:200}") int descriptionPreviewLength) {
         this.exhibitionRepository = exhibitionRepository;
+        this.catalogReadModelService = catalogReadModelService;
+        this.descriptionPreviewLength = descriptionPreviewLength;
     }
 
 
     @Override
     public List<Exhibition> findAll() {
-        return exhibitionRepository.findAll();
+        return exhibitionRepository.findAllWithCurator();
     }
 
     @Override
     public Exhibition findById(Long id) {
-        return exhibitionRepository.findById(id).orElse(null);
+        return exhibitionRepository.findWithCuratorById(id).orElse(null);
     }
 
     @Override
     public Exhibition save(Exhibition exhibition) {
-        return exhibitionRepository.save(exhibition);
+        Exhibition saved = exhibitionRepository.save(exhibition);
+        catalogReadModelService.markChanged();
+        return saved;
     }
 
     @Override
     public void deleteById(Long id) {
         exhibitionRepository.deleteById(id);
+        catalogReadModelService.markChanged();
     }
 
     @Override
     public List<Exhibition> findByCuratorEmail(String curatorEmail) {
         return exhibitionRepository.findByCuratorEmail(curatorEmail);
     }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ExhibitionListItem> findListItems() {
+        if (catalogReadModelService.isEnabled()) {
+            return catalogReadModelService.findExhibitions();
+        }
+        return exhibitionRepository.findListItems(descriptionPreviewLength);
+    }
 }
\ No newline at end of file
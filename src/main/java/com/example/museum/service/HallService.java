@@ -1,5 +1,6 @@
 package com.example.museum.service;
 
+import com.example.museum.dto.HallListItem;
 import com.example.museum.model.Hall;
 import java.util.List;
 
@@ -60,4 +61,14 @@ public interface HallService {
      * @return список залов, соответствующих критериям поиска; может быть пустым
      */
     List<Hall> searchByNameAndFloor(String name, Integer floor);
+
+    /**
+     * Возвращает строки страницы списка залов по тем же критериям, что и {@link #searchByNameAndFloor}.
+     * Описание каждого зала обрезается в запросе до {@code museum.catalog.description-preview-length} символов.
+     *
+     * @param name  фильтр по названию зала (опционально)
+     * @param floor фильтр по номеру этажа (опционально)
+     * @return строки списка, упорядоченные по идентификатору
+     */
+    List<HallListItem> findListItems(String name, Integer floor);
 }
\ No newline at end of file
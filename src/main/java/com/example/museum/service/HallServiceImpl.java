@@ -1,27 +1,38 @@
 package com.example.museum.service;
 
+import com.example.museum.dto.HallListItem;
 import com.example.museum.model.Hall;
 import com.example.museum.repository.HallRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 
 
 /**
  * Реализация сервиса {@link HallService}.
  * <p>
  * Реализует логику поиска залов с поддержкой частичного совпадения по названию
- * и точного совпадения по этажу.
+ * и точного совпадения по этажу. Строки страницы списка читаются из модели чтения
+ * каталога, если она включена.
  */
 @Service
 @Transactional
 public class HallServiceImpl implements HallService {
 
     private final HallRepository hallRepository;
+    private final CatalogReadModelService catalogReadModelService;
+    private final int descriptionPreviewLength;
 
-    public HallServiceImpl(HallRepository hallRepository) {
+    public HallServiceImpl(HallRepository hallRepository,
+                           CatalogReadModelService catalogReadModelService,
+                           @Value("${museum.catalog.description-preview-length:200}") int descriptionPreviewLength) {
         this.hallRepository = hallRepository;
+        this.catalogReadModelService = catalogReadModelService;
+        this.descriptionPreviewLength = descriptionPreviewLength;
     }
 
     @Override
@@ -36,12 +47,15 @@ public class HallServiceImpl implements HallService {
 
     @Override
     public Hall save(Hall hall) {
-        return hallRepository.save(hall);
+        Hall saved = hallRepository.save(hall);
+        catalogReadModelService.markChanged();
+        return saved;
     }
 
     @Override
     public void deleteById(Long id) {
         hallRepository.deleteById(id);
+        catalogReadModelService.markChanged();
     }
 
     @Override
@@ -60,4 +74,19 @@ public class HallServiceImpl implements HallService {
             return hallRepository.findByNameContainingIgnoreCaseAndFloor(cleanName, floor);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<HallListItem> findListItems(String name, Integer floor) {
+        if (catalogReadModelService.isEnabled()) {
+            return catalogReadModelService.findHalls(name, floor);
+        }
+        String cleanName = (name != null) ? name.trim() : "";
+        String namePattern = cleanName.isEmpty() ? null : "%" + escapeLike(cleanName.toLowerCase(Locale.ROOT)) + "%";
+        return hallRepository.findListItems(namePattern, floor, descriptionPreviewLength);
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.museum.service;
+
+import com.example.museum.model.Role;
+import com.example.museum.model.User;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+
+/**
+ * Аутентифицированный пользователь музея, хранимый в сессии Spring Security.
+ * <p>
+ * Помимо логина, пароля и ролей содержит полное имя и роль пользователя,
+ * поэтому навигационной панели не нужно обращаться к базе данных на каждой странице.
+ * Поле {@code revision} — номер версии данных, с которой был создан объект;
+ * по нему {@link UserRevisionService} определяет, что пользователь был изменён
+ * и данные в сессии нужно перечитать.
+ */
+public class MuseumUserDetails extends org.springframework.security.core.userdetails.User {
+
+    private final Long id;
+    private final String fullName;
+    private final Role role;
+    private final long revision;
+
+    /**
+     * Создаёт данные аутентифицированного пользователя по сущности {@link User}.
+     *
+     * @param user     пользователь из базы данных
+     * @param revision версия данных пользователей на момент загрузки
+     */
+    public MuseumUserDetails(User user, long revision) {
+        super(user.getEmail(), user.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+        this.id = user.getId();
+        this.fullName = user.getFullName();
+        this.role = user.getRole();
+        this.revision = revision;
+    }
+
+    public Long getId() { return id; }
+
+    public String getFullName() { return fullName; }
+
+    public Role getRole() { return role; }
+
+    public long getRevision() { return revision; }
+
+    /**
+     * Имя для отображения: полное имя, а если оно не задано — email.
+     *
+     * @return отображаемое имя пользователя
+     */
+    public String getDisplayName() {
+        return fullName != null && !fullName.isBlank() ? fullName : getUsername();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.museum.service;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+
+/**
+ * Исключение, выбрасываемое, когда пул хеширования паролей перегружен.
+ * <p>
+ * Является {@link org.springframework.security.core.AuthenticationException}, поэтому
+ * при входе приводит к обычной ошибке аутентификации, а не к ошибке сервера.
+ */
+public class PasswordHashingOverloadedException extends AuthenticationServiceException {
+
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.museum.service;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+
+/**
+ * Сервис хеширования паролей.
+ * <p>
+ * Является {@link PasswordEncoder} приложения: хеширование и проверка пароля выполняются
+ * в отдельном пуле потоков ограниченного размера, чтобы всплеск входов и регистраций
+ * не занимал все потоки Tomcat вычислениями BCrypt. Если очередь пула переполнена
+ * или ожидание превысило допустимое время, выбрасывается {@link PasswordHashingOverloadedException}.
+ */
+public interface PasswordHashingService extends PasswordEncoder {
+
+    /**
+     * Возвращает фактор стоимости BCrypt, с которым хешируются новые пароли.
+     *
+     * @return логарифм количества раундов BCrypt
+     */
+    int getCost();
+}
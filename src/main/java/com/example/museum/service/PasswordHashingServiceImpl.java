@@ -0,0 +1,172 @@
+package com.example.museum.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Реализация {@link PasswordHashingService}.
+ * <p>
+ * Пароли хешируются {@link DelegatingPasswordEncoder} с BCrypt по умолчанию: новые хеши
+ * сохраняются с префиксом {@code {bcrypt}}, а хеши без префикса (созданные до его появления)
+ * проверяются как BCrypt. Spring Security после успешного входа вызывает
+ * {@link #upgradeEncoding(String)} и, если хеш без префикса или создан с меньшим фактором
+ * стоимости, сохраняет новый хеш через {@link CustomUserDetailsService#updatePassword}.
+ * <p>
+ * Фактор стоимости задаётся настройкой {@code museum.security.password-hashing.cost}; при значении 0
+ * он подбирается при запуске: наибольший фактор, при котором хеширование укладывается
+ * в {@code target-ms} (каждая единица фактора удваивает время), но не меньше 10.
+ * <p>
+ * Метрики: {@code museum.password.hashing.queue} — время ожидания в очереди,
+ * {@code museum.password.hashing.duration} — время вычисления (тег {@code operation}),
+ * а также {@code executor.*} пула {@code password-hashing}.
+ */
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingServiceImpl.class);
+
+    private static final String BCRYPT = "bcrypt";
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 16;
+
+    private final int cost;
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final Timer queueTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public PasswordHashingServiceImpl(MeterRegistry meterRegistry,
+                                      @Value("${museum.security.password-hashing.cost:10}") int cost,
+                                      @Value("${museum.security.password-hashing.target-ms:250}") long targetMs,
+                                      @Value("${museum.security.password-hashing.threads:0}") int threads,
+                                      @Value("${museum.security.password-hashing.queue-capacity:200}") int queueCapacity,
+                                      @Value("${museum.security.password-hashing.timeout-ms:5000}") long timeoutMs) {
+        this.cost = cost > 0 ? cost : calibrate(targetMs);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(this.cost);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        this.delegate = delegating;
+        this.timeoutMs = timeoutMs;
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.queueTimer = Timer.builder("museum.password.hashing.queue")
+                .description("Время ожидания задачи хеширования пароля в очереди")
+                .register(meterRegistry);
+        this.encodeTimer = durationTimer(meterRegistry, "encode");
+        this.matchesTimer = durationTimer(meterRegistry, "matches");
+        new ExecutorServiceMetrics(executor, "password-hashing", Tags.empty()).bindTo(meterRegistry);
+        log.info("Хеширование паролей: BCrypt, фактор стоимости {}, потоков {}", this.cost, poolSize);
+    }
+
+    @Override
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Timer durationTimer, Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return durationTimer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingOverloadedException("Очередь хеширования паролей переполнена", e);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingOverloadedException("Хеширование пароля не выполнено за " + timeoutMs + " мс", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PasswordHashingOverloadedException("Ожидание хеширования пароля прервано", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer durationTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("museum.password.hashing.duration")
+                .description("Время вычисления хеша пароля")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Подбирает фактор стоимости по времени одного хеширования с минимальным фактором.
+     */
+    private static int calibrate(long targetMs) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_COST);
+        probe.encode("calibration");
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        double elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000.0);
+
+        int calibrated = MIN_COST;
+        while (calibrated < MAX_COST && elapsedMs * 2 <= targetMs) {
+            elapsedMs *= 2;
+            calibrated++;
+        }
+        return calibrated;
+    }
+}
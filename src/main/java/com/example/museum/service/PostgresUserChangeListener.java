@@ -0,0 +1,96 @@
+package com.example.museum.service;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+
+
+/**
+ * Приём оповещений PostgreSQL ({@code LISTEN}/{@code NOTIFY}) об изменении пользователей.
+ * <p>
+ * Слушает канал через отдельное соединение вне пула: соединение с {@code LISTEN} занято
+ * всё время работы приложения. При обрыве соединение восстанавливается; оповещения,
+ * отправленные за время обрыва, теряются. Поэтому после каждой подписки на канал вызывается
+ * {@code onConnect}, а при обрыве и завершении — {@code onDisconnect}. Класс обращается к API драйвера PostgreSQL, поэтому загружается
+ * только при его наличии (см. {@link UserInvalidationBusImpl}).
+ */
+class PostgresUserChangeListener implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresUserChangeListener.class);
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+    private final int pollMs;
+    private final long reconnectDelayMs;
+    private final Consumer<String> onPayload;
+    private final Runnable onConnect;
+    private final Runnable onDisconnect;
+
+    PostgresUserChangeListener(String url, String username, String password, String channel,
+                               int pollMs, long reconnectDelayMs,
+                               Consumer<String> onPayload, Runnable onConnect, Runnable onDisconnect) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.pollMs = pollMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.onPayload = onPayload;
+        this.onConnect = onConnect;
+        this.onDisconnect = onDisconnect;
+    }
+
+    /**
+     * Проверяет, что соединение установлено драйвером PostgreSQL.
+     *
+     * @param connection соединение с базой данных
+     * @return {@code true}, если доступны {@code LISTEN}/{@code NOTIFY} через драйвер PostgreSQL
+     */
+    static boolean supports(Connection connection) throws SQLException {
+        return connection.isWrapperFor(PGConnection.class);
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                onConnect.run();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (!Thread.currentThread().isInterrupted()) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            onPayload.accept(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                onDisconnect.run();
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                log.warn("Соединение для оповещений об изменении пользователей потеряно, повтор через {} мс: {}",
+                        reconnectDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+        onDisconnect.run();
+    }
+}
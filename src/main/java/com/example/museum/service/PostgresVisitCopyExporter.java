@@ -0,0 +1,62 @@
+package com.example.museum.service;
+
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+
+/**
+ * Выгрузка посещений в CSV средствами PostgreSQL ({@code COPY ... TO STDOUT}).
+ * <p>
+ * Сервер сам формирует CSV, а драйвер передаёт данные в выходной поток без создания
+ * объектов на каждую строку. Класс обращается к API драйвера PostgreSQL, поэтому
+ * загружается только при его наличии (см. {@link VisitExportServiceImpl}).
+ */
+class PostgresVisitCopyExporter {
+
+    private static final String COPY_SQL =
+            "COPY (SELECT v.id, v.visitor_email, v.visit_date, v.exhibition_id, e.title AS exhibition_title " +
+            "FROM visits v JOIN exhibitions e ON e.id = v.exhibition_id WHERE TRUE%s " +
+            "ORDER BY v.visit_date, v.id) TO STDOUT WITH (FORMAT csv, HEADER true)";
+
+    /**
+     * Проверяет, что соединение установлено драйвером PostgreSQL.
+     *
+     * @param connection соединение с базой данных
+     * @return {@code true}, если доступен {@code COPY} через драйвер PostgreSQL
+     */
+    static boolean supports(Connection connection) throws SQLException {
+        return connection.isWrapperFor(PGConnection.class);
+    }
+
+    /**
+     * Выгружает посещения в CSV.
+     *
+     * @param connection   соединение PostgreSQL текущей транзакции
+     * @param from         первый день периода или {@code null}
+     * @param to           последний день периода включительно или {@code null}
+     * @param exhibitionId идентификатор выставки или {@code null}
+     * @param out          выходной поток
+     * @return количество выгруженных строк
+     */
+    static long copyCsv(Connection connection, LocalDate from, LocalDate to, Long exhibitionId, OutputStream out)
+            throws SQLException, IOException {
+        // COPY не поддерживает параметры запроса; подставляются только типизированные значения
+        StringBuilder filter = new StringBuilder();
+        if (from != null) {
+            filter.append(String.format(" AND v.visit_date >= DATE '%s'", from));
+        }
+        if (to != null) {
+            filter.append(String.format(" AND v.visit_date < DATE '%s'", to.plusDays(1)));
+        }
+        if (exhibitionId != null) {
+            filter.append(String.format(" AND v.exhibition_id = %d", exhibitionId));
+        }
+        return connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyOut(String.format(COPY_SQL, filter), out);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.ExhibitionVisitStats;
+import com.example.museum.dto.GuideExhibitionStats;
+import java.util.List;
+
+
+/**
+ * Интерфейс сервиса для построения статистики работы музея.
+ * <p>
+ * Каждый метод выполняет фиксированное количество агрегирующих запросов
+ * независимо от числа выставок и гидов.
+ */
+public interface StatisticsService {
+
+    /**
+     * Возвращает количество посещений и оценку уникальных посетителей по каждой выставке.
+     *
+     * @return список проекций с названием выставки, числом посещений и уникальных посетителей
+     */
+    List<ExhibitionVisitStats> getExhibitionVisitStats();
+
+    /**
+     * Возвращает распределение выставок по гидам с их полными именами.
+     *
+     * @return список проекций с данными гида и количеством его выставок
+     */
+    List<GuideExhibitionStats> getGuideExhibitionStats();
+}
@@ -0,0 +1,52 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.ExhibitionVisitStats;
+import com.example.museum.dto.GuideExhibitionStats;
+import com.example.museum.repository.ExhibitionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Реализация сервиса {@link StatisticsService}.
+ * <p>
+ * Использует группирующие запросы {@link ExhibitionRepository}, возвращающие
+ * типизированные проекции вместо загрузки сущностей. Количество посещений
+ * берётся из инкрементальных счётчиков {@link VisitCounterService}, количество
+ * уникальных посетителей — из эскизов {@link VisitorSketchService}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class StatisticsServiceImpl implements StatisticsService {
+
+    private final ExhibitionRepository exhibitionRepository;
+    private final VisitCounterService visitCounterService;
+    private final VisitorSketchService visitorSketchService;
+
+    public StatisticsServiceImpl(ExhibitionRepository exhibitionRepository,
+                                 VisitCounterService visitCounterService,
+                                 VisitorSketchService visitorSketchService) {
+        this.exhibitionRepository = exhibitionRepository;
+        this.visitCounterService = visitCounterService;
+        this.visitorSketchService = visitorSketchService;
+    }
+
+    @Override
+    public List<ExhibitionVisitStats> getExhibitionVisitStats() {
+        Map<Long, Long> uniqueVisitors = visitorSketchService.estimateUniqueVisitors();
+        // к сохранённым значениям добавляются изменения, ещё не сброшенные с этого узла
+        return exhibitionRepository.findVisitStatistics().stream()
+                .map(stats -> new ExhibitionVisitStats(stats.exhibitionId(), stats.title(),
+                        stats.visitCount() + visitCounterService.pendingDelta(stats.exhibitionId()),
+                        uniqueVisitors.getOrDefault(stats.exhibitionId(), 0L)))
+                .toList();
+    }
+
+    @Override
+    public List<GuideExhibitionStats> getGuideExhibitionStats() {
+        return exhibitionRepository.countExhibitionsByCurator();
+    }
+}
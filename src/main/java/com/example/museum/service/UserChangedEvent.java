@@ -0,0 +1,11 @@
+package com.example.museum.service;
+
+
+/**
+ * Событие изменения пользователя, публикуемое {@link UserRevisionService}
+ * после фиксации изменения (в том числе полученного с другого узла).
+ *
+ * @param email email-адрес изменённого пользователя; {@code null}, если устарели данные всех пользователей
+ */
+public record UserChangedEvent(String email) {
+}
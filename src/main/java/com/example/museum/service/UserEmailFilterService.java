@@ -0,0 +1,43 @@
+package com.example.museum.service;
+
+
+/**
+ * Фильтр email-адресов зарегистрированных пользователей.
+ * <p>
+ * Позволяет без запроса к базе данных ответить, что пользователя с указанным email
+ * точно нет — например, при входе с неизвестным email.
+ * Положительный ответ означает только, что пользователь может существовать,
+ * и должен быть проверен запросом.
+ */
+public interface UserEmailFilterService {
+
+    /**
+     * Проверяет, может ли существовать пользователь с указанным email. Email сравнивается
+     * с учётом регистра, как при поиске пользователя в базе данных.
+     * Пока фильтр не построен или мог пропустить регистрации на других узлах,
+     * всегда возвращает {@code true}.
+     *
+     * @param email email-адрес
+     * @return {@code false}, если пользователя с таким email точно нет
+     */
+    boolean mightExist(String email);
+
+    /**
+     * Добавляет email нового пользователя в фильтр.
+     *
+     * @param email email-адрес
+     */
+    void add(String email);
+
+    /**
+     * Учитывает в метриках ложноположительный ответ фильтра: фильтр ответил
+     * «может существовать», а запрос пользователя не нашёл.
+     */
+    void recordFalsePositive();
+
+    /**
+     * Перестраивает фильтр по текущему содержимому таблицы пользователей,
+     * убирая из него адреса удалённых пользователей.
+     */
+    void rebuild();
+}
@@ -0,0 +1,178 @@
+package com.example.museum.service;
+
+import com.example.museum.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * Реализация {@link UserEmailFilterService} на основе фильтра Блума.
+ * <p>
+ * Фильтр строится потоковым чтением email-адресов из таблицы {@code users} и периодически
+ * перестраивается, чтобы убрать адреса удалённых пользователей. Новые пользователи добавляются
+ * по {@link UserChangedEvent} — после фиксации регистрации, в том числе на другом узле.
+ * <p>
+ * Ответу «точно нет» можно верить, только если фильтр видел все регистрации других узлов.
+ * Поэтому фильтр помнит сеанс приёма оповещений ({@link UserInvalidationBus#receivingSession()}),
+ * в котором он построен, и отвечает сам, только пока этот сеанс продолжается. После обрыва
+ * соединения для оповещений (или при выключенных оповещениях) все проверки передаются базе данных;
+ * с новым сеансом все пользователи отмечаются изменёнными, и фильтр перестраивается.
+ * Остаётся окно на время доставки оповещения: вход на этом узле сразу после регистрации
+ * на другом может быть отклонён.
+ * <p>
+ * Метрики: {@code museum.users.email_filter.checks} (тег {@code result=absent|present|bypassed}),
+ * {@code museum.users.email_filter.false_positives}, расчётная
+ * ({@code museum.users.email_filter.expected_fpp}) и наблюдаемая
+ * ({@code museum.users.email_filter.false_positive_rate}) доля ложноположительных ответов.
+ */
+@Service
+public class UserEmailFilterServiceImpl implements UserEmailFilterService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEmailFilterServiceImpl.class);
+
+    private final JdbcTemplate streaming;
+    private final TransactionTemplate readOnly;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+
+    private final Counter absent;
+    private final Counter present;
+    private final Counter bypassed;
+    private final Counter falsePositives;
+
+    private final Object rebuildLock = new Object();
+    private final UserInvalidationBus userInvalidationBus;
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private volatile long builtInSession = UserInvalidationBus.NOT_RECEIVING;
+
+    public UserEmailFilterServiceImpl(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      UserInvalidationBus userInvalidationBus,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${museum.users.email-filter.expected-users:100000}") long expectedUsers,
+                                      @Value("${museum.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        // размер выборки позволяет драйверу PostgreSQL читать адреса курсором внутри транзакции
+        this.streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streaming.setFetchSize(10_000);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.userInvalidationBus = userInvalidationBus;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+
+        this.absent = Counter.builder("museum.users.email_filter.checks").tag("result", "absent")
+                .description("Проверки email, на которые фильтр ответил «точно нет»").register(meterRegistry);
+        this.present = Counter.builder("museum.users.email_filter.checks").tag("result", "present")
+                .description("Проверки email, на которые фильтр ответил «может существовать»").register(meterRegistry);
+        this.bypassed = Counter.builder("museum.users.email_filter.checks").tag("result", "bypassed")
+                .description("Проверки email, переданные базе данных: регистрации других узлов могли быть пропущены")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("museum.users.email_filter.false_positives")
+                .description("Ответы «может существовать» для несуществующих пользователей").register(meterRegistry);
+        Gauge.builder("museum.users.email_filter.expected_fpp", this,
+                        service -> service.filter != null ? service.filter.expectedFalsePositiveRate() : Double.NaN)
+                .description("Расчётная доля ложноположительных ответов по заполненности фильтра").register(meterRegistry);
+        Gauge.builder("museum.users.email_filter.false_positive_rate", this, UserEmailFilterServiceImpl::observedFalsePositiveRate)
+                .description("Наблюдаемая доля ложноположительных ответов среди проверок несуществующих email").register(meterRegistry);
+    }
+
+    @Override
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        if (current == null || email == null) {
+            return true;
+        }
+        if (!upToDate()) {
+            bypassed.increment();
+            return true;
+        }
+        boolean result = current.mightContain(email);
+        (result ? present : absent).increment();
+        return result;
+    }
+
+    @Override
+    public void add(String email) {
+        // сначала фильтр, который строится: адрес, добавленный после его замены, попадёт в новый фильтр
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(email);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(email);
+        }
+    }
+
+    @Override
+    public void recordFalsePositive() {
+        // промах базы после обхода фильтра не говорит о его точности
+        if (upToDate()) {
+            falsePositives.increment();
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${museum.users.email-filter.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${museum.users.email-filter.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            // сеанс запоминается до чтения: регистрации после его начала придут оповещениями
+            long session = userInvalidationBus.receivingSession();
+            Long users = streaming.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+            // запас по размеру, чтобы доля ложноположительных не росла до следующего перестроения
+            BloomFilter next = new BloomFilter(Math.max(expectedUsers, 2 * (users != null ? users : 0)), falsePositiveRate);
+            building = next;
+            try {
+                readOnly.executeWithoutResult(status -> streaming.query("SELECT email FROM users",
+                        (RowCallbackHandler) rs -> next.put(rs.getString(1))));
+                // сначала фильтр, потом сеанс: новый фильтр со старым сеансом не используется, обратное опасно
+                filter = next;
+                builtInSession = session;
+            } finally {
+                building = null;
+            }
+            log.debug("Фильтр email пользователей перестроен: {} адресов, {} бит", users, next.bitSize());
+        }
+    }
+
+    /**
+     * Добавляет email нового или изменённого пользователя; если устарели данные всех
+     * пользователей, перестраивает фильтр.
+     *
+     * @param event событие изменения пользователя
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.email() != null) {
+            add(event.email());
+        } else {
+            rebuild();
+        }
+    }
+
+    /**
+     * Проверяет, что фильтр построен в текущем сеансе приёма оповещений других узлов.
+     */
+    private boolean upToDate() {
+        long session = userInvalidationBus.receivingSession();
+        return session != UserInvalidationBus.NOT_RECEIVING && session == builtInSession;
+    }
+
+    private double observedFalsePositiveRate() {
+        double negatives = absent.count() + falsePositives.count();
+        return negatives > 0 ? falsePositives.count() / negatives : 0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.museum.service;
+
+
+/**
+ * Канал оповещения других узлов приложения об изменении пользователя.
+ * <p>
+ * Кеш пользователей и данные в сессиях хранятся в памяти каждого узла. Когда изменение
+ * сделано на одном узле, остальные узнают о нём через этот канал и сбрасывают
+ * свои копии данных пользователя.
+ */
+public interface UserInvalidationBus {
+
+    /**
+     * Значение {@link #receivingSession()}, когда узел не получает оповещения других узлов.
+     */
+    long NOT_RECEIVING = -1;
+
+    /**
+     * Оповещает другие узлы об изменении пользователя.
+     * Внутри транзакции оповещение доставляется только после её фиксации.
+     *
+     * @param email email-адрес изменённого пользователя
+     */
+    void publish(String email);
+
+    /**
+     * Возвращает номер текущего сеанса приёма оповещений с других узлов.
+     * <p>
+     * Номер меняется при каждом (пере)подключении: данные, построенные в одном сеансе,
+     * учитывают все изменения других узлов, пока номер остаётся прежним. Если других узлов
+     * нет (база без {@code LISTEN/NOTIFY}), сеанс один на всё время работы.
+     *
+     * @return номер сеанса или {@link #NOT_RECEIVING}, если изменения других узлов сейчас могут быть пропущены
+     */
+    default long receivingSession() {
+        return NOT_RECEIVING;
+    }
+}
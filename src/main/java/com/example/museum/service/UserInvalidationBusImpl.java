@@ -0,0 +1,139 @@
+package com.example.museum.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Реализация {@link UserInvalidationBus} через {@code LISTEN}/{@code NOTIFY} PostgreSQL.
+ * <p>
+ * Оповещение отправляется функцией {@code pg_notify} в транзакции изменения пользователя,
+ * поэтому сервер доставляет его всем узлам только после фиксации. Каждый узел слушает канал
+ * в отдельном потоке и применяет чужие оповещения через {@link UserRevisionService};
+ * свои оповещения пропускаются по идентификатору узла. Задержка применения на других узлах
+ * ограничена временем доставки оповещения, а при потере соединения — временем переподключения.
+ * После каждой подписки на канал, включая первую, устаревшими считаются все пользователи:
+ * изменения, сделанные до неё, могли быть пропущены. От подписки до обрыва соединения
+ * узел находится в одном сеансе приёма ({@link #receivingSession()}).
+ * <p>
+ * На других СУБД (например, H2 в тестах) оповещения не отправляются: приложение работает одним узлом,
+ * и сеанс приёма один. При {@code museum.users.invalidation.notify-enabled=false} узел
+ * не получает изменений других узлов и сеанса приёма нет.
+ */
+@Service
+public class UserInvalidationBusImpl implements UserInvalidationBus {
+
+    static final String CHANNEL = "museum_user_changed";
+
+    private static final boolean POSTGRES_DRIVER_PRESENT =
+            ClassUtils.isPresent("org.postgresql.PGConnection", UserInvalidationBusImpl.class.getClassLoader());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectProvider<UserRevisionService> userRevisionService;
+    private final boolean enabled;
+    private final int pollMs;
+    private final long reconnectDelayMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong sessions = new AtomicLong();
+    private volatile long receivingSession = NOT_RECEIVING;
+    private volatile boolean active;
+    private volatile Thread listener;
+
+    public UserInvalidationBusImpl(JdbcTemplate jdbcTemplate,
+                                   DataSourceProperties dataSourceProperties,
+                                   ObjectProvider<UserRevisionService> userRevisionService,
+                                   @Value("${museum.users.invalidation.notify-enabled:true}") boolean enabled,
+                                   @Value("${museum.users.invalidation.poll-ms:1000}") int pollMs,
+                                   @Value("${museum.users.invalidation.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.userRevisionService = userRevisionService;
+        this.enabled = enabled;
+        this.pollMs = pollMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    @Override
+    public void publish(String email) {
+        if (active) {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) rs -> { }, CHANNEL, nodeId + ":" + email);
+        }
+    }
+
+    @Override
+    public long receivingSession() {
+        return receivingSession;
+    }
+
+    /**
+     * Запускает поток приёма оповещений, если приложение работает с PostgreSQL,
+     * а на других СУБД начинает единственный сеанс приёма.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws SQLException {
+        if (!enabled) {
+            return;
+        }
+        boolean postgres = POSTGRES_DRIVER_PRESENT;
+        if (postgres) {
+            try (Connection connection = jdbcTemplate.getDataSource().getConnection()) {
+                postgres = PostgresUserChangeListener.supports(connection);
+            }
+        }
+        if (!postgres) {
+            onConnect();
+            return;
+        }
+
+        Thread thread = new Thread(new PostgresUserChangeListener(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(),
+                CHANNEL, pollMs, reconnectDelayMs,
+                this::receive,
+                this::onConnect,
+                () -> receivingSession = NOT_RECEIVING), "user-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+        listener = thread;
+        active = true;
+    }
+
+    @PreDestroy
+    public void stop() {
+        active = false;
+        receivingSession = NOT_RECEIVING;
+        Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void onConnect() {
+        receivingSession = sessions.incrementAndGet();
+        userRevisionService.getObject().markAllChanged();
+    }
+
+    private void receive(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0 || payload.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        userRevisionService.getObject().applyRemoteChange(payload.substring(separator + 1));
+    }
+}
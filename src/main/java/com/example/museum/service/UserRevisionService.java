@@ -0,0 +1,64 @@
+package com.example.museum.service;
+
+
+/**
+ * Сервис версий пользовательских данных.
+ * <p>
+ * Данные пользователя в сессии ({@link MuseumUserDetails}) и в кеше пользователей создаются
+ * один раз и дальше не читаются из базы. Чтобы изменения роли или имени, сделанные
+ * суперадминистратором, применялись к уже вошедшим пользователям, при каждом изменении
+ * пользователя фиксируется новая версия, публикуется {@link UserChangedEvent},
+ * а устаревшие данные перечитываются.
+ */
+public interface UserRevisionService {
+
+    /**
+     * Возвращает текущую версию данных пользователей.
+     * Вызывается до чтения пользователя из базы, чтобы изменение,
+     * зафиксированное во время чтения, не было пропущено.
+     *
+     * @return номер текущей версии
+     */
+    long currentRevision();
+
+    /**
+     * Отмечает, что данные пользователя изменились или он был удалён,
+     * и оповещает об этом другие узлы через {@link UserInvalidationBus}.
+     * Внутри транзакции отметка применяется только после её фиксации.
+     *
+     * @param email email-адрес пользователя
+     */
+    void markChanged(String email);
+
+    /**
+     * Применяет изменение пользователя, полученное с другого узла.
+     *
+     * @param email email-адрес пользователя
+     */
+    void applyRemoteChange(String email);
+
+    /**
+     * Отмечает устаревшими данные всех пользователей — например, если оповещения
+     * с других узлов могли быть пропущены.
+     */
+    void markAllChanged();
+
+    /**
+     * Проверяет, изменялся ли пользователь после указанной версии.
+     *
+     * @param email    email-адрес пользователя
+     * @param revision версия, с которой были загружены данные
+     * @return {@code true}, если данные, загруженные с этой версией, устарели
+     */
+    boolean isChangedSince(String email, long revision);
+
+    /**
+     * Проверяет, устарели ли данные пользователя в сессии.
+     *
+     * @param principal данные аутентифицированного пользователя
+     * @return {@code true}, если пользователь изменялся после загрузки этих данных
+     */
+    default boolean isStale(MuseumUserDetails principal) {
+        return isChangedSince(principal.getUsername(), principal.getRevision());
+    }
+}
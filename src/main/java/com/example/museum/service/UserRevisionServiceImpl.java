@@ -0,0 +1,129 @@
+package com.example.museum.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Реализация сервиса {@link UserRevisionService}.
+ * <p>
+ * Версии хранятся в памяти приложения, как и сами HTTP-сессии: для каждого
+ * изменённого пользователя запоминается номер версии его последнего изменения,
+ * а для сброса всех пользователей — номер версии этого сброса.
+ * Проверка актуальности данных не обращается к базе данных.
+ * <p>
+ * Число запомненных пользователей ограничено: когда их становится больше {@code max-tracked},
+ * старшая половина отметок забывается, а номер последней забытой версии сохраняется.
+ * Данные, загруженные до него, считаются устаревшими и перечитываются один раз,
+ * даже если их пользователь не изменялся.
+ */
+@Service
+public class UserRevisionServiceImpl implements UserRevisionService {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserInvalidationBus userInvalidationBus;
+
+    private final AtomicLong revision = new AtomicLong();
+    private final Map<String, Long> changedAt = new ConcurrentHashMap<>();
+    private volatile long allChangedAt = -1;
+    private volatile long forgottenUpTo = -1;
+    private final ReentrantLock forgetLock = new ReentrantLock();
+    private final int maxTracked;
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param eventPublisher      публикация {@link UserChangedEvent}
+     * @param userInvalidationBus оповещение других узлов
+     * @param maxTracked          сколько изменённых пользователей помнить по отдельности
+     */
+    public UserRevisionServiceImpl(ApplicationEventPublisher eventPublisher,
+                                   UserInvalidationBus userInvalidationBus,
+                                   @Value("${museum.users.revisions.max-tracked:10000}") int maxTracked) {
+        this.eventPublisher = eventPublisher;
+        this.userInvalidationBus = userInvalidationBus;
+        this.maxTracked = Math.max(2, maxTracked);
+    }
+
+    @Override
+    public long currentRevision() {
+        return revision.get();
+    }
+
+    @Override
+    public void markChanged(String email) {
+        if (email == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyChange(email);
+                }
+            });
+        } else {
+            applyChange(email);
+        }
+        userInvalidationBus.publish(email);
+    }
+
+    @Override
+    public void applyRemoteChange(String email) {
+        if (email != null) {
+            applyChange(email);
+        }
+    }
+
+    @Override
+    public void markAllChanged() {
+        allChangedAt = revision.incrementAndGet();
+        eventPublisher.publishEvent(new UserChangedEvent(null));
+    }
+
+    @Override
+    public boolean isChangedSince(String email, long loadedRevision) {
+        if (allChangedAt > loadedRevision || forgottenUpTo > loadedRevision) {
+            return true;
+        }
+        Long changed = changedAt.get(email);
+        return changed != null && changed > loadedRevision;
+    }
+
+    private void applyChange(String email) {
+        changedAt.put(email, revision.incrementAndGet());
+        if (changedAt.size() > maxTracked) {
+            forgetOldest();
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(email));
+    }
+
+    /**
+     * Забывает отметки, старше которых хотя бы {@code maxTracked / 2} версий.
+     * <p>
+     * У каждой версии не больше одной отметки, поэтому остаётся не больше половины предела.
+     * Граница поднимается до удаления отметок, чтобы проверка не пропустила изменение.
+     */
+    private void forgetOldest() {
+        if (!forgetLock.tryLock()) {
+            return;
+        }
+        try {
+            long cutoff = revision.get() - maxTracked / 2;
+            if (cutoff > forgottenUpTo) {
+                forgottenUpTo = cutoff;
+                changedAt.values().removeIf(changed -> changed <= cutoff);
+            }
+        } finally {
+            forgetLock.unlock();
+        }
+    }
+}
@@ -74,4 +74,12 @@ public interface UserService {
      * @return список гидов; может быть пустым, если гиды не назначены
      */
     List<User> findAllGuides();
-}
\ No newline at end of file
+
+    /**
+     * Заменяет хеш пароля пользователя (например, при переходе на новый фактор стоимости BCrypt).
+     *
+     * @param email           email-адрес пользователя
+     * @param encodedPassword новый хеш пароля
+     */
+    void updatePassword(String email, String encodedPassword);
+}
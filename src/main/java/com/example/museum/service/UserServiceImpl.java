@@ -13,15 +13,22 @@ import java.util.List;
  * Реализация сервиса {@link UserService}.
  * <p>
  * Делегирует операции работы с пользователями репозиторию {@link UserRepository}.
+ * При сохранении и удалении пользователя отмечает изменение в {@link UserRevisionService},
+ * чтобы данные в сессиях этого пользователя были перечитаны. Проверка занятости email
+ * всегда выполняется запросом: ответ фильтра {@link UserEmailFilterService} мог бы не учесть
+ * регистрацию на другом узле, и повторная регистрация упала бы на уникальном индексе.
  */
 @Service
 @Transactional
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserRevisionService userRevisionService;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository,
+                           UserRevisionService userRevisionService) {
         this.userRepository = userRepository;
+        this.userRevisionService = userRevisionService;
     }
 
     @Override
@@ -36,14 +43,28 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User save(User user) {
-        return userRepository.save(user);
+        if (user.getId() != null) {
+            // email мог измениться: сессии прежнего адреса тоже должны быть перечитаны
+            userRepository.findEmailById(user.getId()).ifPresent(userRevisionService::markChanged);
+        }
+        User saved = userRepository.save(user);
+        userRevisionService.markChanged(saved.getEmail());
+        return saved;
     }
 
     @Override
     public void deleteById(Long id) {
+        userRepository.findEmailById(id).ifPresent(userRevisionService::markChanged);
         userRepository.deleteById(id);
     }
 
+    @Override
+    public void updatePassword(String email, String encodedPassword) {
+        if (userRepository.updatePassword(email, encodedPassword) > 0) {
+            userRevisionService.markChanged(email);
+        }
+    }
+
     @Override
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
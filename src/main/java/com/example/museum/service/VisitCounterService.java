@@ -0,0 +1,35 @@
+package com.example.museum.service;
+
+
+/**
+ * Интерфейс сервиса инкрементальных счётчиков посещений по выставкам.
+ * <p>
+ * Изменения накапливаются в памяти без блокировок и периодически
+ * сбрасываются в таблицу {@code exhibition_visit_counts} пакетами.
+ */
+public interface VisitCounterService {
+
+    /**
+     * Изменяет счётчик посещений выставки на указанную величину.
+     * <p>
+     * Если вызов выполняется внутри транзакции, изменение учитывается
+     * только после её успешной фиксации.
+     *
+     * @param exhibitionId идентификатор выставки
+     * @param delta        величина изменения (отрицательная при удалении посещений)
+     */
+    void add(Long exhibitionId, long delta);
+
+    /**
+     * Возвращает изменение счётчика, накопленное на данном узле и ещё не сброшенное в базу данных.
+     *
+     * @param exhibitionId идентификатор выставки
+     * @return несброшенная величина изменения
+     */
+    long pendingDelta(Long exhibitionId);
+
+    /**
+     * Сбрасывает накопленные изменения в таблицу {@code exhibition_visit_counts}.
+     */
+    void flush();
+}
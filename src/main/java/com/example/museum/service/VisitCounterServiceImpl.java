@@ -0,0 +1,118 @@
+package com.example.museum.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Реализация сервиса {@link VisitCounterService}.
+ * <p>
+ * Для каждой выставки хранится {@link LongAdder}, поэтому параллельная регистрация
+ * посещений не конкурирует за общую блокировку. Сброс выполняется по расписанию
+ * одним пакетным upsert-запросом, отсортированным по идентификатору выставки,
+ * так что строки счётчиков обновляются не чаще одного раза за период на узел.
+ */
+@Service
+public class VisitCounterServiceImpl implements VisitCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitCounterServiceImpl.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO exhibition_visit_counts (exhibition_id, visit_count) " +
+            "SELECT ?, ? WHERE EXISTS (SELECT 1 FROM exhibitions WHERE id = ?) " +
+            "ON CONFLICT (exhibition_id) DO UPDATE " +
+            "SET visit_count = exhibition_visit_counts.visit_count + EXCLUDED.visit_count";
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // не synchronized: сброс выполняет запрос к базе и не должен закреплять виртуальный поток за несущим
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final JdbcTemplate jdbcTemplate;
+
+    public VisitCounterServiceImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void add(Long exhibitionId, long delta) {
+        if (exhibitionId == null || delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accumulate(exhibitionId, delta);
+                }
+            });
+        } else {
+            accumulate(exhibitionId, delta);
+        }
+    }
+
+    @Override
+    public long pendingDelta(Long exhibitionId) {
+        LongAdder adder = pending.get(exhibitionId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${museum.visit-counters.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        List<Object[]> batch = new ArrayList<>();
+        pending.keySet().stream().sorted().forEach(exhibitionId -> {
+            long delta = pending.get(exhibitionId).sumThenReset();
+            if (delta != 0) {
+                batch.add(new Object[]{exhibitionId, delta, exhibitionId});
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+        } catch (DataAccessException e) {
+            // возвращаем несохранённые изменения, чтобы повторить их при следующем сбросе
+            for (Object[] row : batch) {
+                accumulate((Long) row[0], (Long) row[1]);
+            }
+            log.warn("Не удалось сбросить счётчики посещений ({} выставок), повтор при следующем сбросе",
+                    batch.size(), e);
+        }
+    }
+
+    /**
+     * Сбрасывает оставшиеся изменения при остановке приложения.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void accumulate(Long exhibitionId, long delta) {
+        pending.computeIfAbsent(exhibitionId, id -> new LongAdder()).add(delta);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.museum.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+
+/**
+ * Интерфейс сервиса выгрузки посещений для аналитиков.
+ * <p>
+ * Посещения записываются в выходной поток по мере чтения из базы данных,
+ * без загрузки всей выборки в память.
+ */
+public interface VisitExportService {
+
+    /**
+     * Формат выгрузки.
+     */
+    enum Format {
+
+        /**
+         * CSV с заголовком: id, visitor_email, visit_date, exhibition_id, exhibition_title.
+         */
+        CSV,
+
+        /**
+         * JSON-объект на строку (NDJSON).
+         */
+        NDJSON
+    }
+
+    /**
+     * Выгружает посещения в выходной поток в порядке даты посещения.
+     *
+     * @param format       формат выгрузки
+     * @param from         первый день периода или {@code null} без ограничения
+     * @param to           последний день периода включительно или {@code null} без ограничения
+     * @param exhibitionId идентификатор выставки или {@code null} для всех выставок
+     * @param out          выходной поток; не закрывается методом
+     * @throws IOException если запись в выходной поток не удалась
+     */
+    void export(Format format, LocalDate from, LocalDate to, Long exhibitionId, OutputStream out) throws IOException;
+}
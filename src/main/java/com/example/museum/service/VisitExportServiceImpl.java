@@ -0,0 +1,163 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.VisitExportRow;
+import com.example.museum.repository.VisitRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+
+/**
+ * Реализация сервиса {@link VisitExportService}.
+ * <p>
+ * Посещения читаются потоком проекций {@link VisitExportRow} с фиксированным размером
+ * выборки и сразу записываются в буферизованный выходной поток, поэтому расход памяти
+ * не зависит от объёма выгрузки. Для CSV при работе с PostgreSQL используется
+ * {@code COPY ... TO STDOUT}; формат строк в обоих случаях совпадает.
+ */
+@Service
+@Transactional(readOnly = true)
+public class VisitExportServiceImpl implements VisitExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitExportServiceImpl.class);
+
+    private static final boolean POSTGRES_DRIVER_PRESENT =
+            ClassUtils.isPresent("org.postgresql.PGConnection", VisitExportServiceImpl.class.getClassLoader());
+
+    private static final String CSV_HEADER = "id,visitor_email,visit_date,exhibition_id,exhibition_title";
+
+    /**
+     * Формат даты как в выводе PostgreSQL: дробная часть секунды без завершающих нулей.
+     */
+    private static final DateTimeFormatter CSV_DATE_TIME = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 6, true)
+            .toFormatter();
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final VisitRepository visitRepository;
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final boolean copyEnabled;
+
+    public VisitExportServiceImpl(VisitRepository visitRepository,
+                                  DataSource dataSource,
+                                  ObjectMapper objectMapper,
+                                  @Value("${museum.visits.export.copy-enabled:true}") boolean copyEnabled) {
+        this.visitRepository = visitRepository;
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.copyEnabled = copyEnabled;
+    }
+
+    @Override
+    public void export(Format format, LocalDate from, LocalDate to, Long exhibitionId, OutputStream out)
+            throws IOException {
+        if (format == Format.CSV && copyEnabled && POSTGRES_DRIVER_PRESENT && copyCsv(from, to, exhibitionId, out)) {
+            return;
+        }
+
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : null;
+        try (Stream<VisitExportRow> rows = visitRepository.streamForExport(fromTime, toTime, exhibitionId)) {
+            if (format == Format.NDJSON) {
+                writeNdjson(rows.iterator(), out);
+            } else {
+                writeCsv(rows.iterator(), out);
+            }
+        }
+    }
+
+    private boolean copyCsv(LocalDate from, LocalDate to, Long exhibitionId, OutputStream out) throws IOException {
+        // соединение текущей транзакции; освобождается вместе с ней
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (!PostgresVisitCopyExporter.supports(connection)) {
+                return false;
+            }
+            long rows = PostgresVisitCopyExporter.copyCsv(connection, from, to, exhibitionId, out);
+            log.debug("Выгружено {} посещений через COPY", rows);
+            return true;
+        } catch (SQLException e) {
+            throw new IOException("Не удалось выгрузить посещения через COPY", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private void writeCsv(Iterator<VisitExportRow> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            VisitExportRow row = rows.next();
+            writer.write(String.valueOf(row.id()));
+            writer.write(',');
+            writer.write(csvField(row.visitorEmail()));
+            writer.write(',');
+            writer.write(CSV_DATE_TIME.format(row.visitDate()));
+            writer.write(',');
+            writer.write(String.valueOf(row.exhibitionId()));
+            writer.write(',');
+            writer.write(csvField(row.exhibitionTitle()));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(Iterator<VisitExportRow> rows, OutputStream out) throws IOException {
+        JsonFactory factory = objectMapper.getFactory();
+        try (JsonGenerator generator = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            // объекты разделяются только переводом строки
+            generator.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                VisitExportRow row = rows.next();
+                generator.writeStartObject();
+                generator.writeNumberField("id", row.id());
+                generator.writeStringField("visitorEmail", row.visitorEmail());
+                generator.writeStringField("visitDate", row.visitDate().toString());
+                generator.writeNumberField("exhibitionId", row.exhibitionId());
+                generator.writeStringField("exhibitionTitle", row.exhibitionTitle());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    /**
+     * Экранирует поле по правилам CSV (RFC 4180), как это делает {@code COPY ... FORMAT csv}.
+     */
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
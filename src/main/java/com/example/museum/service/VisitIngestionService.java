@@ -0,0 +1,24 @@
+package com.example.museum.service;
+
+import com.example.museum.model.Visit;
+
+
+/**
+ * Интерфейс сервиса приёма регистраций посещений.
+ * <p>
+ * В синхронном режиме посещение сохраняется сразу в рамках запроса.
+ * В режиме отложенной записи ({@code write-behind}) посещение помещается
+ * в ограниченную очередь в памяти и сохраняется фоновым потоком пакетами.
+ */
+public interface VisitIngestionService {
+
+    /**
+     * Принимает посещение к регистрации.
+     * <p>
+     * Если очередь отложенной записи заполнена, вызывающий поток ожидает
+     * освобождения места, а по истечении таймаута сохраняет посещение синхронно.
+     *
+     * @param visit посещение для регистрации
+     */
+    void register(Visit visit);
+}
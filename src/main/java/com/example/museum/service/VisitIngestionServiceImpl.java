@@ -0,0 +1,173 @@
+package com.example.museum.service;
+
+import com.example.museum.model.Visit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+
+/**
+ * Реализация сервиса {@link VisitIngestionService}.
+ * <p>
+ * Режим задаётся свойством {@code museum.visits.ingestion.mode}: {@code sync}
+ * (по умолчанию) или {@code write-behind}. В режиме отложенной записи фоновый поток
+ * собирает посещения из очереди в пакеты размером до {@code batch-size}, ожидая
+ * не дольше {@code linger-ms} после первого элемента, и сохраняет их через
+ * {@link VisitService#saveAll(List)}. При остановке приложения очередь дописывается полностью.
+ * <p>
+ * Постановка в очередь и остановка разделены блокировкой чтения-записи: {@link #register(Visit)}
+ * проверяет {@code running} и кладёт посещение в очередь под блокировкой чтения, а {@link #stop()}
+ * снимает флаг под блокировкой записи. Поэтому после снятия флага в очередь ничего не попадает,
+ * и её последний разбор при остановке не пропускает посещений.
+ */
+@Service
+public class VisitIngestionServiceImpl implements VisitIngestionService, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitIngestionServiceImpl.class);
+
+    private final VisitService visitService;
+    private final boolean writeBehind;
+    private final int batchSize;
+    private final long lingerMs;
+    private final long offerTimeoutMs;
+    private final BlockingQueue<Visit> queue;
+
+    private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public VisitIngestionServiceImpl(VisitService visitService,
+                                     @Value("${museum.visits.ingestion.mode:sync}") String mode,
+                                     @Value("${museum.visits.ingestion.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${museum.visits.ingestion.batch-size:500}") int batchSize,
+                                     @Value("${museum.visits.ingestion.linger-ms:200}") long lingerMs,
+                                     @Value("${museum.visits.ingestion.offer-timeout-ms:100}") long offerTimeoutMs) {
+        this.visitService = visitService;
+        this.writeBehind = "write-behind".equalsIgnoreCase(mode);
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @Override
+    public void register(Visit visit) {
+        if (writeBehind && enqueue(visit)) {
+            return;
+        }
+        // очередь выключена, остановлена или переполнена: замедляем вызывающего, записывая посещение синхронно
+        visitService.save(visit);
+    }
+
+    private boolean enqueue(Visit visit) {
+        lifecycleLock.readLock().lock();
+        try {
+            return running && queue.offer(visit, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!writeBehind) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "visit-write-behind");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // ждём завершения начатых постановок в очередь: после снятия флага новых не будет
+        lifecycleLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+        // поток не прерывается: прерывание во время получения соединения из пула сорвало бы запись пакета,
+        // а цикл записи завершается сам не позднее чем через linger-ms
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // дописываем всё, что осталось в очереди после остановки фонового потока
+        List<Visit> rest = new ArrayList<>();
+        while (queue.drainTo(rest, batchSize) > 0) {
+            write(rest);
+            rest.clear();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void writeLoop() {
+        List<Visit> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Visit first = queue.poll(lingerMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Visit next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Visit> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            visitService.saveAll(batch);
+        } catch (RuntimeException e) {
+            log.warn("Пакетная запись {} посещений не удалась, сохраняем по одному", batch.size(), e);
+            for (Visit visit : batch) {
+                try {
+                    visitService.save(visit);
+                } catch (RuntimeException rowError) {
+                    log.error("Посещение {} -> выставка {} не сохранено", visit.getVisitorEmail(),
+                            visit.getExhibition() != null ? visit.getExhibition().getId() : null, rowError);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.VisitTimelinePoint;
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+/**
+ * Интерфейс сервиса агрегатов посещений по времени.
+ * <p>
+ * Поддерживает почасовые и посуточные агрегаты по каждой выставке, в которых
+ * пересчитываются только изменившиеся часы и дни, и обслуживает секции таблицы {@code visits}.
+ */
+public interface VisitRollupService {
+
+    /**
+     * Пересчитывает агрегаты часов и дней, в которых посещения добавлялись, изменялись
+     * или удалялись после последнего запуска, и создаёт секции {@code visits} на ближайшие месяцы.
+     */
+    void rollUp();
+
+    /**
+     * Возвращает временной ряд посещений по выставкам, построенный только по агрегатам.
+     *
+     * @param granularity шаг ряда: "hour" — по часам, иначе по дням
+     * @param from        начало периода (включительно)
+     * @param to          конец периода (не включительно)
+     * @return точки ряда, упорядоченные по времени и выставке
+     */
+    List<VisitTimelinePoint> findTimeline(String granularity, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,204 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.VisitTimelinePoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Реализация сервиса {@link VisitRollupService}.
+ * <p>
+ * Триггеры таблицы {@code visits} отмечают в {@code visit_rollup_dirty_hours} каждую пару
+ * (выставка, час), в которой посещение добавлено, изменено или удалено. Каждый запуск забирает
+ * отметки и пересчитывает эти часы заново по {@code visits}, а затем дни этих часов — по почасовым
+ * агрегатам. Поэтому учитываются и посещения, записанные позже своей даты (очередь отложенной
+ * записи, повтор пакета, исправление даты), и удаления, а результат не зависит от часовых
+ * поясов базы и приложения. Отметка фиксируется в одной транзакции с посещением: пересчёт,
+ * начатый после её удаления, видит это посещение. Запуски на разных узлах упорядочиваются
+ * блокировкой таблицы {@code visit_rollups_hourly}, которая не мешает чтению агрегатов.
+ * <p>
+ * Перед пересчётом создаются секции {@code visits} на текущий и следующие месяцы, каждая
+ * в своей транзакции, до блокировки агрегатов. Если секция по умолчанию уже содержит посещения
+ * месяца (секция не была создана вовремя), она отсоединяется, посещения месяца переносятся
+ * в новую секцию, и секция по умолчанию присоединяется обратно — в той же транзакции.
+ * <p>
+ * Запросы агрегации и создания секций написаны для PostgreSQL; на других базах
+ * (встроенная H2 тестового профиля) агрегация выключается {@code museum.visit-rollups.enabled=false}.
+ */
+@Service
+public class VisitRollupServiceImpl implements VisitRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitRollupServiceImpl.class);
+
+    private static final String TAKE_DIRTY_HOURS_SQL =
+            "WITH taken AS (DELETE FROM visit_rollup_dirty_hours RETURNING exhibition_id, bucket_start) " +
+            "SELECT DISTINCT exhibition_id, bucket_start FROM taken";
+
+    private static final String HOURLY_SQL =
+            "WITH buckets AS (SELECT * FROM unnest(?::bigint[], ?::timestamp[]) AS b(exhibition_id, bucket_start)), " +
+            "counts AS (SELECT b.exhibition_id, b.bucket_start, COUNT(v.id) AS visit_count FROM buckets b " +
+            "LEFT JOIN visits v ON v.exhibition_id = b.exhibition_id " +
+            "AND v.visit_date >= b.bucket_start AND v.visit_date < b.bucket_start + INTERVAL '1 hour' GROUP BY 1, 2), " +
+            "removed AS (DELETE FROM visit_rollups_hourly r USING counts c " +
+            "WHERE r.exhibition_id = c.exhibition_id AND r.bucket_start = c.bucket_start AND c.visit_count = 0) " +
+            "INSERT INTO visit_rollups_hourly (exhibition_id, bucket_start, visit_count) " +
+            "SELECT exhibition_id, bucket_start, visit_count FROM counts WHERE visit_count > 0 " +
+            "ON CONFLICT (exhibition_id, bucket_start) DO UPDATE SET visit_count = EXCLUDED.visit_count";
+
+    private static final String DAILY_SQL =
+            "WITH days AS (SELECT DISTINCT exhibition_id, bucket_start::date AS bucket_date " +
+            "FROM unnest(?::bigint[], ?::timestamp[]) AS b(exhibition_id, bucket_start)), " +
+            "sums AS (SELECT d.exhibition_id, d.bucket_date, COALESCE(SUM(h.visit_count), 0) AS visit_count FROM days d " +
+            "LEFT JOIN visit_rollups_hourly h ON h.exhibition_id = d.exhibition_id " +
+            "AND h.bucket_start >= d.bucket_date AND h.bucket_start < d.bucket_date + 1 GROUP BY 1, 2), " +
+            "removed AS (DELETE FROM visit_rollups_daily r USING sums s " +
+            "WHERE r.exhibition_id = s.exhibition_id AND r.bucket_date = s.bucket_date AND s.visit_count = 0) " +
+            "INSERT INTO visit_rollups_daily (exhibition_id, bucket_date, visit_count) " +
+            "SELECT exhibition_id, bucket_date, visit_count FROM sums WHERE visit_count > 0 " +
+            "ON CONFLICT (exhibition_id, bucket_date) DO UPDATE SET visit_count = EXCLUDED.visit_count";
+
+    private static final String HOURLY_TIMELINE_SQL =
+            "SELECT r.exhibition_id, e.title, r.bucket_start, r.visit_count " +
+            "FROM visit_rollups_hourly r JOIN exhibitions e ON e.id = r.exhibition_id " +
+            "WHERE r.bucket_start >= ? AND r.bucket_start < ? ORDER BY r.bucket_start, e.title";
+
+    private static final String DAILY_TIMELINE_SQL =
+            "SELECT r.exhibition_id, e.title, r.bucket_date, r.visit_count " +
+            "FROM visit_rollups_daily r JOIN exhibitions e ON e.id = r.exhibition_id " +
+            "WHERE r.bucket_date >= ?::date AND r.bucket_date < ?::date ORDER BY r.bucket_date, e.title";
+
+    private static final String DEFAULT_PARTITION = "visits_default";
+
+    private static final String DEFAULT_HAS_ROWS_SQL =
+            "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE visit_date >= ? AND visit_date < ?)";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int partitionsAhead;
+
+    public VisitRollupServiceImpl(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${museum.visit-rollups.enabled:true}") boolean enabled,
+                                  @Value("${museum.visit-rollups.partitions-ahead:2}") int partitionsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.partitionsAhead = partitionsAhead;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${museum.visit-rollups.interval-ms:60000}")
+    public void rollUp() {
+        if (!enabled) {
+            return;
+        }
+        createUpcomingPartitions();
+        transactionTemplate.executeWithoutResult(status -> rollUpDirtyHours());
+    }
+
+    private void rollUpDirtyHours() {
+        // SHARE ROW EXCLUSIVE несовместима сама с собой: второй узел дождётся конца этого запуска
+        jdbcTemplate.execute("LOCK TABLE visit_rollups_hourly IN SHARE ROW EXCLUSIVE MODE");
+        List<Long> exhibitionIds = new ArrayList<>();
+        List<Timestamp> bucketStarts = new ArrayList<>();
+        jdbcTemplate.query(TAKE_DIRTY_HOURS_SQL, (RowCallbackHandler) rs -> {
+            exhibitionIds.add(rs.getLong(1));
+            bucketStarts.add(rs.getTimestamp(2));
+        });
+        if (exhibitionIds.isEmpty()) {
+            return;
+        }
+
+        PreparedStatementSetter buckets = ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", exhibitionIds.toArray()));
+            ps.setArray(2, ps.getConnection().createArrayOf("timestamp", bucketStarts.toArray()));
+        };
+        jdbcTemplate.update(HOURLY_SQL, buckets);
+        jdbcTemplate.update(DAILY_SQL, buckets);
+        log.debug("Пересчитано часов агрегатов посещений: {}", exhibitionIds.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VisitTimelinePoint> findTimeline(String granularity, LocalDateTime from, LocalDateTime to) {
+        if ("hour".equalsIgnoreCase(granularity)) {
+            return jdbcTemplate.query(HOURLY_TIMELINE_SQL, (rs, i) -> new VisitTimelinePoint(
+                    rs.getLong(1), rs.getString(2), rs.getTimestamp(3).toLocalDateTime(), rs.getLong(4)),
+                    Timestamp.valueOf(from), Timestamp.valueOf(to));
+        }
+        return jdbcTemplate.query(DAILY_TIMELINE_SQL, (rs, i) -> new VisitTimelinePoint(
+                rs.getLong(1), rs.getString(2), rs.getDate(3).toLocalDate().atStartOfDay(), rs.getLong(4)),
+                from.toLocalDate(), to.toLocalDate());
+    }
+
+    /**
+     * Создаёт месячные секции {@code visits} на текущий и следующие месяцы, если их ещё нет.
+     * Каждая секция создаётся в своей транзакции: ошибка одной не отменяет остальные
+     * и пересчёт агрегатов, а следующий запуск повторит попытку.
+     */
+    private void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String partition = "visits_" + month.format(PARTITION_SUFFIX);
+            Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+            if (Boolean.TRUE.equals(exists)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> createPartition(partition, month));
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Не удалось создать секцию {}", partition, e);
+            }
+        }
+    }
+
+    /**
+     * Создаёт секцию месяца. Пока в секции по умолчанию есть строки диапазона новой секции,
+     * PostgreSQL не даёт её создать, поэтому такие строки переносятся: секция по умолчанию
+     * отсоединяется, создаётся новая секция, строки месяца копируются в неё и удаляются
+     * из секции по умолчанию, после чего она присоединяется обратно. Вставки посещений
+     * ждут конца транзакции.
+     */
+    private void createPartition(String partition, YearMonth month) {
+        Timestamp start = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp end = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        String create = String.format("CREATE TABLE %s PARTITION OF visits FOR VALUES FROM ('%s') TO ('%s')",
+                partition, month.atDay(1), month.plusMonths(1).atDay(1));
+        Boolean defaultHasRows = jdbcTemplate.queryForObject(DEFAULT_HAS_ROWS_SQL, Boolean.class, start, end);
+        if (!Boolean.TRUE.equals(defaultHasRows)) {
+            jdbcTemplate.execute(create);
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE visits DETACH PARTITION " + DEFAULT_PARTITION);
+        jdbcTemplate.execute(create);
+        int moved = jdbcTemplate.update("INSERT INTO " + partition + " (id, visitor_email, visit_date, exhibition_id) " +
+                "SELECT id, visitor_email, visit_date, exhibition_id FROM " + DEFAULT_PARTITION +
+                " WHERE visit_date >= ? AND visit_date < ?", start, end);
+        jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE visit_date >= ? AND visit_date < ?", start, end);
+        jdbcTemplate.execute("ALTER TABLE visits ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+        log.info("Создана секция {}, из секции по умолчанию перенесено посещений: {}", partition, moved);
+    }
+}
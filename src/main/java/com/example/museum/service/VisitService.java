@@ -1,5 +1,6 @@
 package com.example.museum.service;
 
+import com.example.museum.dto.VisitPage;
 import com.example.museum.model.Visit;
 import java.util.List;
 
@@ -8,7 +9,7 @@ import java.util.List;
  * Интерфейс сервиса для управления посещениями выставок.
  * <p>
  * Обеспечивает CRUD-операции и методы для сортировки посещений
- * по названию выставки.
+ * по названию выставки, а также постраничный просмотр журнала по позиции (курсору).
  */
 public interface VisitService {
 
@@ -37,6 +38,15 @@ public interface VisitService {
      */
     Visit save(Visit visit);
 
+    /**
+     * Регистрирует набор посещений в одной транзакции с пакетной отправкой INSERT-запросов.
+     * <p>
+     * Используется фоновой записью отложенной регистрации посещений.
+     *
+     * @param visits список посещений для сохранения
+     */
+    void saveAll(List<Visit> visits);
+
     /**
      * Удаляет запись о посещении по идентификатору.
      * <p>
@@ -66,4 +76,29 @@ public interface VisitService {
      */
     List<Visit> findVisitsByVisitorEmail(String email, String sortDirection);
 
-}
\ No newline at end of file
+    /**
+     * Возвращает страницу журнала всех посещений.
+     * <p>
+     * Поддерживаются сортировки "asc" и "desc" — по названию выставки (при равенстве по id),
+     * и "date" — от новых посещений к старым. Позиция следующей страницы возвращается
+     * в {@link VisitPage#nextCursor()}; некорректная позиция приводит к первой странице.
+     *
+     * @param sort     порядок сортировки: "asc", "desc" или "date"
+     * @param cursor   позиция, полученная с предыдущей страницы, или {@code null} для первой страницы
+     * @param pageSize количество записей на странице
+     * @return страница посещений с загруженными выставками
+     */
+    VisitPage findPage(String sort, String cursor, int pageSize);
+
+    /**
+     * Возвращает страницу истории посещений конкретного пользователя.
+     *
+     * @param email    email посетителя
+     * @param sort     порядок сортировки: "asc", "desc" или "date"
+     * @param cursor   позиция, полученная с предыдущей страницы, или {@code null} для первой страницы
+     * @param pageSize количество записей на странице
+     * @return страница посещений пользователя с загруженными выставками
+     * @see #findPage(String, String, int)
+     */
+    VisitPage findVisitorPage(String email, String sort, String cursor, int pageSize);
+}
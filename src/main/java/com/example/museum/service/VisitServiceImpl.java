@@ -1,7 +1,10 @@
 package com.example.museum.service;
 
+import com.example.museum.dto.VisitCursor;
+import com.example.museum.dto.VisitPage;
 import com.example.museum.model.Visit;
 import com.example.museum.repository.VisitRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,15 +16,25 @@ import java.util.List;
  * <p>
  * Обеспечивает бизнес-логику для получения списка посещений
  * с сортировкой по возрастанию или убыванию названия выставки.
+ * Страницы журнала запрашиваются с одной лишней записью, по наличию которой
+ * определяется, нужна ли позиция следующей страницы.
+ * Регистрация и удаление посещений обновляют счётчики {@link VisitCounterService},
+ * регистрация также учитывает посетителя в эскизах {@link VisitorSketchService}.
  */
 @Service
 @Transactional
 public class VisitServiceImpl implements VisitService {
 
     private final VisitRepository visitRepository;
+    private final VisitCounterService visitCounterService;
+    private final VisitorSketchService visitorSketchService;
 
-    public VisitServiceImpl(VisitRepository visitRepository) {
+    public VisitServiceImpl(VisitRepository visitRepository,
+                            VisitCounterService visitCounterService,
+                            VisitorSketchService visitorSketchService) {
         this.visitRepository = visitRepository;
+        this.visitCounterService = visitCounterService;
+        this.visitorSketchService = visitorSketchService;
     }
 
     @Override
@@ -36,12 +49,34 @@ public class VisitServiceImpl implements VisitService {
 
     @Override
     public Visit save(Visit visit) {
-        return visitRepository.save(visit);
+        boolean isNew = visit.getId() == null;
+        Visit saved = visitRepository.save(visit);
+        if (isNew && saved.getExhibition() != null) {
+            visitCounterService.add(saved.getExhibition().getId(), 1);
+            visitorSketchService.record(saved.getExhibition().getId(), saved.getVisitDate(), saved.getVisitorEmail());
+        }
+        return saved;
+    }
+
+    @Override
+    public void saveAll(List<Visit> visits) {
+        if (visits.isEmpty()) {
+            return;
+        }
+        // идентификаторы берутся из последовательности блоками, поэтому Hibernate отправляет INSERT пакетами
+        visitRepository.saveAll(visits);
+        for (Visit visit : visits) {
+            visitCounterService.add(visit.getExhibition().getId(), 1);
+            visitorSketchService.record(visit.getExhibition().getId(), visit.getVisitDate(), visit.getVisitorEmail());
+        }
     }
 
     @Override
     public void deleteById(Long id) {
-        visitRepository.deleteById(id);
+        visitRepository.findById(id).ifPresent(visit -> {
+            visitRepository.delete(visit);
+            visitCounterService.add(visit.getExhibition().getId(), -1);
+        });
     }
 
     @Override
@@ -61,4 +96,58 @@ public class VisitServiceImpl implements VisitService {
             return visitRepository.findByVisitorEmailOrderByExhibitionTitle(email);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public VisitPage findPage(String sort, String cursor, int pageSize) {
+        sort = normalizeSort(sort);
+        VisitCursor after = VisitCursor.decode(cursor, sort);
+        Limit limit = Limit.of(pageSize + 1);
+        List<Visit> visits = switch (sort) {
+            case "desc" -> after == null
+                    ? visitRepository.findFirstPageByExhibitionTitleDesc(limit)
+                    : visitRepository.findPageByExhibitionTitleDescAfter(after.title(), after.visitId(), limit);
+            case "date" -> after == null
+                    ? visitRepository.findFirstPageByVisitDateDesc(limit)
+                    : visitRepository.findPageByVisitDateDescAfter(after.visitDate(), after.visitId(), limit);
+            default -> after == null
+                    ? visitRepository.findFirstPageByExhibitionTitleAsc(limit)
+                    : visitRepository.findPageByExhibitionTitleAscAfter(after.title(), after.visitId(), limit);
+        };
+        return toPage(visits, sort, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VisitPage findVisitorPage(String email, String sort, String cursor, int pageSize) {
+        sort = normalizeSort(sort);
+        VisitCursor after = VisitCursor.decode(cursor, sort);
+        Limit limit = Limit.of(pageSize + 1);
+        List<Visit> visits = switch (sort) {
+            case "desc" -> after == null
+                    ? visitRepository.findFirstPageByVisitorEmailOrderByExhibitionTitleDesc(email, limit)
+                    : visitRepository.findPageByVisitorEmailOrderByExhibitionTitleDescAfter(email, after.title(), after.visitId(), limit);
+            case "date" -> after == null
+                    ? visitRepository.findFirstPageByVisitorEmailOrderByVisitDateDesc(email, limit)
+                    : visitRepository.findPageByVisitorEmailOrderByVisitDateDescAfter(email, after.visitDate(), after.visitId(), limit);
+            default -> after == null
+                    ? visitRepository.findFirstPageByVisitorEmailOrderByExhibitionTitleAsc(email, limit)
+                    : visitRepository.findPageByVisitorEmailOrderByExhibitionTitleAscAfter(email, after.title(), after.visitId(), limit);
+        };
+        return toPage(visits, sort, pageSize);
+    }
+
+    private static String normalizeSort(String sort) {
+        return "desc".equals(sort) || "date".equals(sort) ? sort : "asc";
+    }
+
+    private static VisitPage toPage(List<Visit> visits, String sort, int pageSize) {
+        if (visits.size() <= pageSize) {
+            return new VisitPage(visits, null);
+        }
+        List<Visit> page = visits.subList(0, pageSize);
+        Visit last = page.get(pageSize - 1);
+        String next = new VisitCursor(sort, last.getId(), last.getExhibition().getTitle(), last.getVisitDate()).encode();
+        return new VisitPage(page, next);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.museum.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+
+/**
+ * Интерфейс сервиса приблизительного подсчёта уникальных посетителей выставок.
+ * <p>
+ * Для каждой выставки ведутся эскизы HyperLogLog за всё время и за каждый день.
+ * Эскизы накапливаются в памяти, периодически сливаются с сохранёнными
+ * в базе данных и объединяются при чтении, поэтому чтение не зависит
+ * от количества посещений. Удаление посещения оценку не уменьшает.
+ */
+public interface VisitorSketchService {
+
+    /**
+     * Учитывает посетителя выставки.
+     * <p>
+     * Если вызов выполняется внутри транзакции, посетитель учитывается
+     * только после её успешной фиксации.
+     *
+     * @param exhibitionId идентификатор выставки
+     * @param visitDate    дата и время посещения
+     * @param visitorEmail email посетителя
+     */
+    void record(Long exhibitionId, LocalDateTime visitDate, String visitorEmail);
+
+    /**
+     * Возвращает оценку количества уникальных посетителей каждой выставки за всё время.
+     *
+     * @return соответствие идентификатора выставки и оценки; выставки без посещений отсутствуют
+     */
+    Map<Long, Long> estimateUniqueVisitors();
+
+    /**
+     * Возвращает оценку количества уникальных посетителей каждой выставки за период,
+     * объединяя посуточные эскизы.
+     *
+     * @param from первый день периода
+     * @param to   последний день периода включительно
+     * @return соответствие идентификатора выставки и оценки; выставки без посещений отсутствуют
+     */
+    Map<Long, Long> estimateUniqueVisitors(LocalDate from, LocalDate to);
+
+    /**
+     * Сливает накопленные в памяти эскизы с сохранёнными в базе данных.
+     */
+    void flush();
+}
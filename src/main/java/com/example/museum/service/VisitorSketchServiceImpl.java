@@ -0,0 +1,354 @@
+package com.example.museum.service;
+
+import com.example.museum.model.SeedVersion;
+import com.example.museum.repository.SeedVersionRepository;
+import com.example.museum.util.HyperLogLog;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Реализация сервиса {@link VisitorSketchService}.
+ * <p>
+ * Новые посетители добавляются в эскизы в памяти узла. При сбросе каждый эскиз
+ * сливается с сохранённым под блокировкой строки ({@code SELECT ... FOR UPDATE}),
+ * поэтому несколько узлов могут сбрасывать эскизы одной выставки одновременно.
+ * Слияние идемпотентно, так что повторный сброс после сбоя не искажает оценку.
+ * <p>
+ * Для оценок сохранённые эскизы читаются из базы данных одним запросом и держатся в памяти
+ * вместе с их оценками ({@code museum.visitor-sketches.estimate-cache-ms}, по умолчанию — период
+ * сброса): за это время в базе появляются и эскизы, сброшенные другими узлами. Сброс на этом узле
+ * отбрасывает прочитанные эскизы, а ещё не сброшенные эскизы узла добавляются к ним при каждой оценке.
+ */
+@Service
+public class VisitorSketchServiceImpl implements VisitorSketchService {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitorSketchServiceImpl.class);
+
+    /**
+     * Отметка в {@code seed_versions} о завершённом заполнении эскизов по существующим посещениям.
+     */
+    static final String BACKFILL_MARKER = "visitor-sketch-backfill";
+
+    /**
+     * Сколько эскизов накапливать при заполнении по существующим посещениям перед промежуточным сбросом.
+     */
+    private static final int BACKFILL_FLUSH_THRESHOLD = 1000;
+
+    private static final String INSERT_TOTAL_SQL =
+            "INSERT INTO exhibition_visitor_sketches (exhibition_id, sketch) " +
+            "SELECT ?, ? WHERE EXISTS (SELECT 1 FROM exhibitions WHERE id = ?) " +
+            "ON CONFLICT (exhibition_id) DO NOTHING";
+    private static final String LOCK_TOTAL_SQL =
+            "SELECT sketch FROM exhibition_visitor_sketches WHERE exhibition_id = ? FOR UPDATE";
+    private static final String UPDATE_TOTAL_SQL =
+            "UPDATE exhibition_visitor_sketches SET sketch = ? WHERE exhibition_id = ?";
+
+    private static final String INSERT_DAILY_SQL =
+            "INSERT INTO visitor_sketches_daily (exhibition_id, bucket_date, sketch) " +
+            "SELECT ?, ?, ? WHERE EXISTS (SELECT 1 FROM exhibitions WHERE id = ?) " +
+            "ON CONFLICT (exhibition_id, bucket_date) DO NOTHING";
+    private static final String LOCK_DAILY_SQL =
+            "SELECT sketch FROM visitor_sketches_daily WHERE exhibition_id = ? AND bucket_date = ? FOR UPDATE";
+    private static final String UPDATE_DAILY_SQL =
+            "UPDATE visitor_sketches_daily SET sketch = ? WHERE exhibition_id = ? AND bucket_date = ?";
+
+    private static final String SELECT_TOTALS_SQL =
+            "SELECT exhibition_id, sketch FROM exhibition_visitor_sketches";
+    private static final String SELECT_DAILY_RANGE_SQL =
+            "SELECT exhibition_id, sketch FROM visitor_sketches_daily WHERE bucket_date BETWEEN ? AND ?";
+
+    private final Map<Long, HyperLogLog> pendingTotals = new ConcurrentHashMap<>();
+    private final Map<DayKey, HyperLogLog> pendingDaily = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final SeedVersionRepository seedVersionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // ключ — период посуточных эскизов, ALL_TIME — эскизы за всё время
+    private final Cache<Period, StoredSketches> storedSketches;
+
+    public VisitorSketchServiceImpl(SeedVersionRepository seedVersionRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${museum.visitor-sketches.estimate-cache-ms:10000}") long estimateCacheMs) {
+        this.seedVersionRepository = seedVersionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // слияние выполняется в собственной транзакции, в том числе во время потокового чтения при заполнении
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.storedSketches = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(estimateCacheMs))
+                .maximumSize(64)
+                .build();
+    }
+
+    @Override
+    public void record(Long exhibitionId, LocalDateTime visitDate, String visitorEmail) {
+        if (exhibitionId == null || visitDate == null || visitorEmail == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accumulate(pendingTotals, pendingDaily, exhibitionId, visitDate.toLocalDate(), visitorEmail);
+                }
+            });
+        } else {
+            accumulate(pendingTotals, pendingDaily, exhibitionId, visitDate.toLocalDate(), visitorEmail);
+        }
+    }
+
+    @Override
+    public Map<Long, Long> estimateUniqueVisitors() {
+        StoredSketches stored = storedSketches.get(Period.ALL_TIME, period -> load(SELECT_TOTALS_SQL));
+        // эскизы, ещё не сброшенные с этого узла
+        return stored.estimates(pendingTotals);
+    }
+
+    @Override
+    public Map<Long, Long> estimateUniqueVisitors(LocalDate from, LocalDate to) {
+        StoredSketches stored = storedSketches.get(new Period(from, to),
+                period -> load(SELECT_DAILY_RANGE_SQL, Date.valueOf(from), Date.valueOf(to)));
+        Map<Long, HyperLogLog> pending = new HashMap<>();
+        pendingDaily.forEach((key, sketch) -> {
+            if (!key.day().isBefore(from) && !key.day().isAfter(to)) {
+                pending.computeIfAbsent(key.exhibitionId(), id -> new HyperLogLog()).merge(sketch);
+            }
+        });
+        return stored.estimates(pending);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${museum.visitor-sketches.flush-interval-ms:10000}")
+    public void flush() {
+        // не synchronized: сброс выполняет запросы к базе и не должен закреплять виртуальный поток за несущим
+        flushLock.lock();
+        try {
+            flush(pendingTotals, pendingDaily);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Сбрасывает оставшиеся эскизы при остановке приложения.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Заполняет эскизы по уже существующим посещениям, если это ещё не было сделано до конца.
+     * <p>
+     * Завершение отмечается строкой {@value #BACKFILL_MARKER} в {@code seed_versions}. Наличие эскизов
+     * ничего не говорит: их создают и новые посещения, и прерванное заполнение. Без отметки
+     * заполнение выполняется заново, что безопасно благодаря идемпотентному слиянию.
+     * <p>
+     * Выполняется асинхронно ({@code applicationTaskExecutor}), чтобы не задерживать запуск. Посещения
+     * читаются потоково; накопленные эскизы сливаются с базой данных порциями,
+     * поэтому объём памяти не зависит от размера таблицы. Одновременное
+     * заполнение на нескольких узлах безопасно по той же причине.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnce() {
+        try {
+            if (seedVersionRepository.existsById(BACKFILL_MARKER)) {
+                return;
+            }
+            Boolean hasVisits = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM visits)", Boolean.class);
+            if (Boolean.TRUE.equals(hasVisits) && !backfill()) {
+                return;
+            }
+            seedVersionRepository.save(new SeedVersion(BACKFILL_MARKER, 1, LocalDateTime.now()));
+        } catch (DataAccessException e) {
+            log.warn("Не удалось заполнить эскизы уникальных посетителей по существующим посещениям", e);
+        }
+    }
+
+    /**
+     * @return {@code true}, если все эскизы сохранены; иначе часть осталась несохранённой после ошибки
+     */
+    private boolean backfill() {
+        Map<Long, HyperLogLog> totals = new HashMap<>();
+        Map<DayKey, HyperLogLog> daily = new HashMap<>();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        // размер выборки позволяет драйверу PostgreSQL читать посещения курсором внутри транзакции
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(10_000);
+        readOnly.executeWithoutResult(status ->
+                streaming.query("SELECT exhibition_id, visit_date, visitor_email FROM visits", rs -> {
+                    accumulate(totals, daily, rs.getLong("exhibition_id"),
+                            rs.getTimestamp("visit_date").toLocalDateTime().toLocalDate(),
+                            rs.getString("visitor_email"));
+                    if (daily.size() >= BACKFILL_FLUSH_THRESHOLD) {
+                        flush(new HashMap<>(), daily);
+                    }
+                }));
+        flush(totals, daily);
+        if (!totals.isEmpty() || !daily.isEmpty()) {
+            log.warn("Эскизы уникальных посетителей заполнены не полностью, повтор при следующем запуске");
+            return false;
+        }
+        log.info("Эскизы уникальных посетителей заполнены по существующим посещениям");
+        return true;
+    }
+
+    private void flush(Map<Long, HyperLogLog> totals, Map<DayKey, HyperLogLog> daily) {
+        Map<Long, HyperLogLog> totalBatch = drain(totals, Comparator.naturalOrder());
+        Map<DayKey, HyperLogLog> dailyBatch = drain(daily,
+                Comparator.comparing(DayKey::exhibitionId).thenComparing(DayKey::day));
+        if (totalBatch.isEmpty() && dailyBatch.isEmpty()) {
+            return;
+        }
+
+        try {
+            // ключи обходятся в одном порядке на всех узлах, чтобы блокировки строк не приводили к взаимоблокировкам
+            transactionTemplate.executeWithoutResult(status -> {
+                totalBatch.forEach((exhibitionId, sketch) -> mergeInto(sketch,
+                        INSERT_TOTAL_SQL, new Object[]{exhibitionId, sketch.toBytes(), exhibitionId},
+                        LOCK_TOTAL_SQL, UPDATE_TOTAL_SQL, exhibitionId));
+                dailyBatch.forEach((key, sketch) -> mergeInto(sketch,
+                        INSERT_DAILY_SQL, new Object[]{key.exhibitionId(), Date.valueOf(key.day()), sketch.toBytes(), key.exhibitionId()},
+                        LOCK_DAILY_SQL, UPDATE_DAILY_SQL, key.exhibitionId(), Date.valueOf(key.day())));
+            });
+            // сброшенные эскизы больше не в памяти узла: оценки должны перечитать их из базы
+            storedSketches.invalidateAll();
+        } catch (DataAccessException e) {
+            // возвращаем несохранённые эскизы, чтобы слить их при следующем сбросе
+            totalBatch.forEach((exhibitionId, sketch) -> totals.merge(exhibitionId, sketch, HyperLogLog::merge));
+            dailyBatch.forEach((key, sketch) -> daily.merge(key, sketch, HyperLogLog::merge));
+            log.warn("Не удалось сбросить эскизы уникальных посетителей ({} выставок, {} дней), повтор при следующем сбросе",
+                    totalBatch.size(), dailyBatch.size(), e);
+        }
+    }
+
+    /**
+     * Сливает эскиз с сохранённым: вставляет новую строку или обновляет существующую под блокировкой.
+     */
+    private void mergeInto(HyperLogLog sketch, String insertSql, Object[] insertArgs,
+                           String lockSql, String updateSql, Object... keyArgs) {
+        if (jdbcTemplate.update(insertSql, insertArgs) > 0) {
+            return;
+        }
+        List<byte[]> stored = jdbcTemplate.query(lockSql, (rs, rowNum) -> rs.getBytes(1), keyArgs);
+        if (stored.isEmpty()) {
+            // выставка удалена
+            return;
+        }
+        Object[] updateArgs = new Object[keyArgs.length + 1];
+        updateArgs[0] = HyperLogLog.fromBytes(stored.get(0)).merge(sketch).toBytes();
+        System.arraycopy(keyArgs, 0, updateArgs, 1, keyArgs.length);
+        jdbcTemplate.update(updateSql, updateArgs);
+    }
+
+    private static void accumulate(Map<Long, HyperLogLog> totals, Map<DayKey, HyperLogLog> daily,
+                                   Long exhibitionId, LocalDate day, String visitorEmail) {
+        // compute атомарен относительно remove при сбросе, поэтому добавление не теряется
+        totals.compute(exhibitionId, (id, sketch) -> add(sketch, visitorEmail));
+        daily.compute(new DayKey(exhibitionId, day), (key, sketch) -> add(sketch, visitorEmail));
+    }
+
+    private static HyperLogLog add(HyperLogLog sketch, String visitorEmail) {
+        HyperLogLog target = sketch != null ? sketch : new HyperLogLog();
+        target.add(visitorEmail);
+        return target;
+    }
+
+    private static <K> Map<K, HyperLogLog> drain(Map<K, HyperLogLog> source, Comparator<K> order) {
+        Map<K, HyperLogLog> batch = new TreeMap<>(order);
+        for (K key : List.copyOf(source.keySet())) {
+            HyperLogLog sketch = source.remove(key);
+            if (sketch != null) {
+                batch.put(key, sketch);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Читает сохранённые эскизы и сливает строки одной выставки.
+     */
+    private StoredSketches load(String sql, Object... args) {
+        Map<Long, HyperLogLog> sketches = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            HyperLogLog sketch = HyperLogLog.fromBytes(rs.getBytes("sketch"));
+            sketches.merge(rs.getLong("exhibition_id"), sketch, HyperLogLog::merge);
+        }, args);
+        Map<Long, Long> estimates = new HashMap<>();
+        sketches.forEach((exhibitionId, sketch) -> estimates.put(exhibitionId, sketch.estimate()));
+        return new StoredSketches(sketches, Map.copyOf(estimates));
+    }
+
+    /**
+     * Ключ посуточного эскиза.
+     */
+    private record DayKey(Long exhibitionId, LocalDate day) {
+    }
+
+    /**
+     * Период оценки: даты посуточных эскизов включительно или всё время.
+     */
+    private record Period(LocalDate from, LocalDate to) {
+
+        static final Period ALL_TIME = new Period(null, null);
+    }
+
+    /**
+     * Прочитанные из базы эскизы и их оценки. Не изменяются после чтения.
+     */
+    private record StoredSketches(Map<Long, HyperLogLog> sketches, Map<Long, Long> estimates) {
+
+        /**
+         * Оценивает уникальных посетителей с учётом ещё не сброшенных эскизов; сохранённые
+         * эскизы объединяются с ними в копии.
+         */
+        Map<Long, Long> estimates(Map<Long, HyperLogLog> pending) {
+            if (pending.isEmpty()) {
+                return estimates;
+            }
+            Map<Long, Long> result = new HashMap<>(estimates);
+            pending.forEach((exhibitionId, sketch) -> {
+                HyperLogLog merged = new HyperLogLog().merge(sketch);
+                HyperLogLog stored = sketches.get(exhibitionId);
+                if (stored != null) {
+                    merged.merge(stored);
+                }
+                result.put(exhibitionId, merged.estimate());
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.museum.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Фильтр Блума для строковых значений.
+ * <p>
+ * Отвечает на вопрос «могло ли значение быть добавлено»: отрицательный ответ точен,
+ * положительный может быть ложным с вероятностью, заданной при создании фильтра
+ * (при условии, что добавлено не больше ожидаемого количества значений).
+ * Значения сравниваются точно, как строки: нормализация (регистр, пробелы) — дело вызывающего кода,
+ * чтобы ответ фильтра совпадал с поиском, который он заменяет.
+ * <p>
+ * Для каждого значения вычисляется один 64-битный хеш; позиции битов получаются
+ * двойным хешированием из его половин. Добавление и проверка потокобезопасны без блокировок.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong setBits = new AtomicLong();
+
+    /**
+     * Создаёт пустой фильтр.
+     *
+     * @param expectedInsertions ожидаемое количество значений
+     * @param falsePositiveRate  допустимая вероятность ложноположительного ответа, например 0.01
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Некорректные параметры фильтра Блума");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Добавляет значение.
+     *
+     * @param value добавляемое значение, например email
+     */
+    public void put(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = hash >>> 32 | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0) {
+                long witness = words.compareAndExchange(index, word, word | mask);
+                if (witness == word) {
+                    setBits.incrementAndGet();
+                    break;
+                }
+                word = witness;
+            }
+        }
+    }
+
+    /**
+     * Проверяет, могло ли значение быть добавлено в фильтр.
+     *
+     * @param value проверяемое значение
+     * @return {@code false}, если значение точно не добавлялось
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = hash >>> 32 | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Оценивает текущую вероятность ложноположительного ответа
+     * по доле установленных битов.
+     *
+     * @return вероятность от 0 до 1
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) setBits.get() / bitCount, hashCount);
+    }
+
+    /**
+     * Возвращает размер фильтра в битах.
+     *
+     * @return количество битов
+     */
+    public long bitSize() {
+        return bitCount;
+    }
+
+    /**
+     * Возвращает количество хеш-функций (битов на значение).
+     *
+     * @return количество хеш-функций
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private static long hash(String value) {
+        return HyperLogLog.hash(value);
+    }
+}
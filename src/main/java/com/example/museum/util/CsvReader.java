@@ -0,0 +1,114 @@
+package com.example.museum.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Потоковое чтение CSV по правилам RFC 4180.
+ * <p>
+ * Поддерживает поля в двойных кавычках с запятыми, удвоенными кавычками
+ * и переводами строк внутри. Записи читаются по одной, поэтому файл
+ * любого размера не загружается в память целиком.
+ */
+public final class CsvReader implements Closeable {
+
+    private final Reader reader;
+    private int pushedBack = -2;
+    private long lineNumber = 1;
+    private long recordLineNumber;
+
+    /**
+     * Создаёт читатель поверх символьного потока (рекомендуется буферизованный).
+     *
+     * @param reader источник данных CSV
+     */
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Читает следующую запись.
+     *
+     * @return список полей записи или {@code null}, если данные закончились
+     * @throws IOException если чтение не удалось или кавычка не закрыта до конца файла
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLineNumber = lineNumber;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Незакрытая кавычка в записи, начинающейся в строке " + recordLineNumber);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                if (c != -1) {
+                    lineNumber++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Возвращает номер строки файла, с которой началась последняя прочитанная запись.
+     *
+     * @return номер строки, начиная с 1
+     */
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
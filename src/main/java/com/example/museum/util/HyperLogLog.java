@@ -0,0 +1,182 @@
+package com.example.museum.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+
+/**
+ * Вероятностная структура HyperLogLog для приблизительного подсчёта
+ * количества уникальных значений при фиксированном объёме памяти.
+ * <p>
+ * При точности {@value #PRECISION} бит используется 4096 регистров (4 КБ),
+ * стандартная ошибка оценки — около 1,6%. Два эскиза объединяются
+ * поэлементным максимумом регистров, поэтому объединение идемпотентно:
+ * повторное добавление тех же значений или повторное слияние не меняют оценку.
+ * <p>
+ * Сериализованная форма — компактный массив байтов: почти пустые эскизы
+ * хранятся в разреженном виде (индекс и значение только ненулевых регистров).
+ */
+public final class HyperLogLog {
+
+    /**
+     * Количество бит хеша, определяющих номер регистра.
+     */
+    public static final int PRECISION = 12;
+
+    private static final int REGISTER_COUNT = 1 << PRECISION;
+    private static final byte DENSE_FORMAT = 1;
+    private static final byte SPARSE_FORMAT = 2;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final byte[] registers;
+
+    /**
+     * Создаёт пустой эскиз.
+     */
+    public HyperLogLog() {
+        this.registers = new byte[REGISTER_COUNT];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * Добавляет строковое значение (без учёта регистра и пробелов по краям).
+     *
+     * @param value добавляемое значение, например email посетителя
+     */
+    public void add(String value) {
+        addHash(hash(value.trim().toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Добавляет значение по его 64-битному хешу.
+     *
+     * @param hash хеш значения
+     */
+    public synchronized void addHash(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        long rest = hash << PRECISION;
+        byte rank = (byte) (rest == 0 ? 64 - PRECISION + 1 : Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Объединяет другой эскиз с текущим (в текущем эскизе остаётся объединение множеств).
+     *
+     * @param other эскиз для объединения
+     * @return текущий эскиз
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        byte[] otherRegisters = other.snapshot();
+        synchronized (this) {
+            for (int i = 0; i < REGISTER_COUNT; i++) {
+                if (otherRegisters[i] > registers[i]) {
+                    registers[i] = otherRegisters[i];
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Возвращает оценку количества уникальных добавленных значений.
+     *
+     * @return приблизительное количество уникальных значений
+     */
+    public long estimate() {
+        byte[] current = snapshot();
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : current) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+            // поправка для малых множеств (linear counting)
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Сериализует эскиз в компактный массив байтов.
+     *
+     * @return сериализованный эскиз
+     */
+    public byte[] toBytes() {
+        byte[] current = snapshot();
+        int nonZero = 0;
+        for (byte register : current) {
+            if (register != 0) {
+                nonZero++;
+            }
+        }
+        if (nonZero * 3 + 3 < REGISTER_COUNT + 1) {
+            ByteBuffer buffer = ByteBuffer.allocate(3 + nonZero * 3);
+            buffer.put(SPARSE_FORMAT).putShort((short) nonZero);
+            for (int i = 0; i < REGISTER_COUNT; i++) {
+                if (current[i] != 0) {
+                    buffer.putShort((short) i).put(current[i]);
+                }
+            }
+            return buffer.array();
+        }
+        byte[] bytes = new byte[REGISTER_COUNT + 1];
+        bytes[0] = DENSE_FORMAT;
+        System.arraycopy(current, 0, bytes, 1, REGISTER_COUNT);
+        return bytes;
+    }
+
+    /**
+     * Восстанавливает эскиз из массива байтов, полученного {@link #toBytes()}.
+     *
+     * @param bytes сериализованный эскиз
+     * @return восстановленный эскиз
+     * @throws IllegalArgumentException если формат данных не распознан
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        byte[] registers = new byte[REGISTER_COUNT];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        if (format == DENSE_FORMAT && bytes.length == REGISTER_COUNT + 1) {
+            buffer.get(registers);
+        } else if (format == SPARSE_FORMAT) {
+            int count = Short.toUnsignedInt(buffer.getShort());
+            for (int i = 0; i < count; i++) {
+                registers[Short.toUnsignedInt(buffer.getShort())] = buffer.get();
+            }
+        } else {
+            throw new IllegalArgumentException("Неизвестный формат эскиза HyperLogLog: " + format);
+        }
+        return new HyperLogLog(registers);
+    }
+
+    private synchronized byte[] snapshot() {
+        return registers.clone();
+    }
+
+    /**
+     * 64-битный хеш строки: FNV-1a по байтам UTF-8 с перемешиванием финализатором MurmurHash3.
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
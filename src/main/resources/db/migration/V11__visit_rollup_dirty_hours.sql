@@ -0,0 +1,54 @@
+-- Агрегаты посещений пересчитываются по изменённым часам вместо границы по visit_date.
+-- Граница пропускала посещения, записанные позже своей visit_date (очередь отложенной записи,
+-- повтор пакета, исправление даты), и не учитывала удаления.
+
+-- (выставка, час), в которых менялись посещения; строки без ключа, чтобы параллельные
+-- регистрации не ждали друг друга на уникальном индексе, повторы схлопывает задача агрегации
+CREATE TABLE visit_rollup_dirty_hours (
+    exhibition_id BIGINT       NOT NULL,
+    bucket_start  TIMESTAMP(0) NOT NULL
+);
+
+CREATE FUNCTION visits_mark_rollup_dirty() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO visit_rollup_dirty_hours (exhibition_id, bucket_start)
+        SELECT DISTINCT exhibition_id, date_trunc('hour', visit_date) FROM new_visits;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        INSERT INTO visit_rollup_dirty_hours (exhibition_id, bucket_start)
+        SELECT DISTINCT exhibition_id, date_trunc('hour', visit_date) FROM old_visits;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+-- триггеры уровня оператора: пакетная вставка отмечает каждый час один раз
+CREATE TRIGGER visits_rollup_dirty_insert
+    AFTER INSERT ON visits REFERENCING NEW TABLE AS new_visits
+    FOR EACH STATEMENT EXECUTE FUNCTION visits_mark_rollup_dirty();
+
+CREATE TRIGGER visits_rollup_dirty_update
+    AFTER UPDATE ON visits REFERENCING OLD TABLE AS old_visits NEW TABLE AS new_visits
+    FOR EACH STATEMENT EXECUTE FUNCTION visits_mark_rollup_dirty();
+
+CREATE TRIGGER visits_rollup_dirty_delete
+    AFTER DELETE ON visits REFERENCING OLD TABLE AS old_visits
+    FOR EACH STATEMENT EXECUTE FUNCTION visits_mark_rollup_dirty();
+
+-- граница больше не нужна: запуски агрегации упорядочиваются блокировкой visit_rollups_hourly
+DROP TABLE rollup_watermarks;
+
+-- агрегаты, накопленные по границе, могли пропустить посещения: строятся заново
+TRUNCATE visit_rollups_hourly, visit_rollups_daily;
+
+INSERT INTO visit_rollups_hourly (exhibition_id, bucket_start, visit_count)
+SELECT exhibition_id, date_trunc('hour', visit_date), COUNT(*)
+FROM visits
+GROUP BY exhibition_id, date_trunc('hour', visit_date);
+
+INSERT INTO visit_rollups_daily (exhibition_id, bucket_date, visit_count)
+SELECT exhibition_id, bucket_start::DATE, SUM(visit_count)
+FROM visit_rollups_hourly
+GROUP BY exhibition_id, bucket_start::DATE;
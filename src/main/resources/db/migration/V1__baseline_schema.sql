@@ -0,0 +1,51 @@
+-- Исходная схема БД, ранее создававшаяся Hibernate.
+-- Для уже существующих баз миграция пропускается (spring.flyway.baseline-on-migrate=true).
+
+CREATE TABLE IF NOT EXISTS halls (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    floor       INTEGER      NOT NULL,
+    capacity    INTEGER      NOT NULL,
+    description TEXT
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email      VARCHAR(255) NOT NULL UNIQUE,
+    password   VARCHAR(255) NOT NULL,
+    role       VARCHAR(255) NOT NULL CHECK (role IN ('VISITOR', 'GUIDE', 'ADMIN', 'SUPER_ADMIN')),
+    full_name  VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS exhibits (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name          VARCHAR(255) NOT NULL,
+    description   TEXT,
+    author        VARCHAR(255) NOT NULL,
+    creation_year INTEGER      NOT NULL,
+    era           VARCHAR(255) NOT NULL,
+    hall_id       BIGINT       NOT NULL CONSTRAINT fk_exhibit_hall REFERENCES halls (id)
+);
+
+CREATE TABLE IF NOT EXISTS exhibitions (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title         VARCHAR(255) NOT NULL,
+    start_date    DATE         NOT NULL,
+    end_date      DATE         NOT NULL,
+    description   TEXT,
+    curator_email VARCHAR(255) REFERENCES users (email)
+);
+
+CREATE TABLE IF NOT EXISTS exhibition_exhibits (
+    exhibition_id BIGINT NOT NULL REFERENCES exhibitions (id),
+    exhibit_id    BIGINT NOT NULL REFERENCES exhibits (id),
+    PRIMARY KEY (exhibit_id, exhibition_id)
+);
+
+CREATE TABLE IF NOT EXISTS visits (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    visitor_email VARCHAR(255) NOT NULL,
+    visit_date    TIMESTAMP(6) NOT NULL,
+    exhibition_id BIGINT       NOT NULL CONSTRAINT fk_visit_exhibition REFERENCES exhibitions (id)
+);
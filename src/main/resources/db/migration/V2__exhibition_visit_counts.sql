@@ -0,0 +1,12 @@
+-- Инкрементально поддерживаемые счётчики посещений по выставкам.
+-- Начальные значения заполняются по уже накопленным записям в visits.
+
+CREATE TABLE exhibition_visit_counts (
+    exhibition_id BIGINT PRIMARY KEY REFERENCES exhibitions (id) ON DELETE CASCADE,
+    visit_count   BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO exhibition_visit_counts (exhibition_id, visit_count)
+SELECT exhibition_id, COUNT(*)
+FROM visits
+GROUP BY exhibition_id;
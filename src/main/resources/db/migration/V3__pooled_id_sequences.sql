@@ -0,0 +1,23 @@
+-- Переход с IDENTITY на последовательности с шагом 50 (оптимизатор pooled-lo в Hibernate),
+-- чтобы Hibernate мог группировать INSERT в JDBC-пакеты.
+-- Значение последовательности — начало выделяемого блока, поэтому стартуем после текущего максимума.
+
+CREATE SEQUENCE halls_seq INCREMENT BY 50;
+SELECT setval('halls_seq', COALESCE((SELECT MAX(id) FROM halls), 0) + 1, false);
+ALTER TABLE halls ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE exhibits_seq INCREMENT BY 50;
+SELECT setval('exhibits_seq', COALESCE((SELECT MAX(id) FROM exhibits), 0) + 1, false);
+ALTER TABLE exhibits ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE exhibitions_seq INCREMENT BY 50;
+SELECT setval('exhibitions_seq', COALESCE((SELECT MAX(id) FROM exhibitions), 0) + 1, false);
+ALTER TABLE exhibitions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE visits_seq INCREMENT BY 50;
+SELECT setval('visits_seq', COALESCE((SELECT MAX(id) FROM visits), 0) + 1, false);
+ALTER TABLE visits ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,79 @@
+-- Секционирование visits по visit_date (по месяцам) и агрегаты посещений по часам и дням.
+
+ALTER TABLE visits RENAME TO visits_unpartitioned;
+ALTER INDEX visits_pkey RENAME TO visits_unpartitioned_pkey;
+
+-- первичный ключ секционированной таблицы обязан включать ключ секционирования
+CREATE TABLE visits (
+    id            BIGINT       NOT NULL,
+    visitor_email VARCHAR(255) NOT NULL,
+    visit_date    TIMESTAMP(6) NOT NULL,
+    exhibition_id BIGINT       NOT NULL CONSTRAINT fk_visit_exhibition REFERENCES exhibitions (id),
+    PRIMARY KEY (id, visit_date)
+) PARTITION BY RANGE (visit_date);
+
+CREATE INDEX ix_visits_exhibition ON visits (exhibition_id);
+CREATE INDEX ix_visits_visitor_email ON visits (visitor_email);
+
+-- секция по умолчанию принимает строки вне созданных диапазонов, чтобы вставка никогда не падала
+CREATE TABLE visits_default PARTITION OF visits DEFAULT;
+
+DO $$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR month_start IN
+        SELECT generate_series(
+                       date_trunc('month', COALESCE((SELECT MIN(visit_date) FROM visits_unpartitioned), now())),
+                       date_trunc('month', now()) + INTERVAL '2 months',
+                       INTERVAL '1 month')::DATE
+    LOOP
+        EXECUTE format('CREATE TABLE visits_%s PARTITION OF visits FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month_start, 'YYYY_MM'), month_start, month_start + INTERVAL '1 month');
+    END LOOP;
+END
+$$;
+
+INSERT INTO visits (id, visitor_email, visit_date, exhibition_id)
+SELECT id, visitor_email, visit_date, exhibition_id
+FROM visits_unpartitioned;
+
+DROP TABLE visits_unpartitioned;
+
+CREATE TABLE visit_rollups_hourly (
+    exhibition_id BIGINT       NOT NULL REFERENCES exhibitions (id) ON DELETE CASCADE,
+    bucket_start  TIMESTAMP(0) NOT NULL,
+    visit_count   BIGINT       NOT NULL,
+    PRIMARY KEY (exhibition_id, bucket_start)
+);
+
+CREATE TABLE visit_rollups_daily (
+    exhibition_id BIGINT NOT NULL REFERENCES exhibitions (id) ON DELETE CASCADE,
+    bucket_date   DATE   NOT NULL,
+    visit_count   BIGINT NOT NULL,
+    PRIMARY KEY (exhibition_id, bucket_date)
+);
+
+CREATE INDEX ix_visit_rollups_hourly_bucket ON visit_rollups_hourly (bucket_start);
+CREATE INDEX ix_visit_rollups_daily_bucket ON visit_rollups_daily (bucket_date);
+
+-- граница visit_date, до которой посещения уже учтены в агрегатах
+CREATE TABLE rollup_watermarks (
+    name            VARCHAR(64)  PRIMARY KEY,
+    processed_until TIMESTAMP(6) NOT NULL
+);
+
+INSERT INTO rollup_watermarks (name, processed_until)
+VALUES ('visits', date_trunc('minute', now()::TIMESTAMP));
+
+INSERT INTO visit_rollups_hourly (exhibition_id, bucket_start, visit_count)
+SELECT exhibition_id, date_trunc('hour', visit_date), COUNT(*)
+FROM visits
+WHERE visit_date < (SELECT processed_until FROM rollup_watermarks WHERE name = 'visits')
+GROUP BY exhibition_id, date_trunc('hour', visit_date);
+
+INSERT INTO visit_rollups_daily (exhibition_id, bucket_date, visit_count)
+SELECT exhibition_id, visit_date::DATE, COUNT(*)
+FROM visits
+WHERE visit_date < (SELECT processed_until FROM rollup_watermarks WHERE name = 'visits')
+GROUP BY exhibition_id, visit_date::DATE;
@@ -0,0 +1,14 @@
+-- Эскизы HyperLogLog уникальных посетителей: за всё время и по дням
+CREATE TABLE exhibition_visitor_sketches (
+    exhibition_id BIGINT PRIMARY KEY REFERENCES exhibitions (id) ON DELETE CASCADE,
+    sketch        BYTEA  NOT NULL
+);
+
+CREATE TABLE visitor_sketches_daily (
+    exhibition_id BIGINT NOT NULL REFERENCES exhibitions (id) ON DELETE CASCADE,
+    bucket_date   DATE   NOT NULL,
+    sketch        BYTEA  NOT NULL,
+    PRIMARY KEY (exhibition_id, bucket_date)
+);
+
+-- Заполнение по существующим посещениям выполняется приложением при первом запуске
@@ -0,0 +1,13 @@
+-- Индексы для постраничного просмотра посещений без OFFSET (поиск по ключу сортировки)
+
+-- (название выставки, id посещения): выставки по названию, посещения каждой выставки по id
+CREATE INDEX IF NOT EXISTS ix_exhibitions_title ON exhibitions (title, id);
+DROP INDEX IF EXISTS ix_visits_exhibition;
+CREATE INDEX ix_visits_exhibition_id ON visits (exhibition_id, id);
+
+-- (дата посещения, id): журнал от новых к старым
+CREATE INDEX ix_visits_visit_date_id ON visits (visit_date, id);
+
+-- история посетителя в обоих порядках
+DROP INDEX IF EXISTS ix_visits_visitor_email;
+CREATE INDEX ix_visits_visitor_email_date ON visits (visitor_email, visit_date, id);
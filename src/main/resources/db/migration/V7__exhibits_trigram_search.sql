@@ -0,0 +1,9 @@
+-- Триграммные индексы для поиска экспонатов по подстроке (ILIKE '%...%') без полного просмотра таблицы.
+-- pg_trgm — доверенное расширение: его может установить владелец базы данных (PostgreSQL 13+).
+-- Триграммы строятся только из букв по правилам LC_CTYPE базы: для кириллицы нужна локаль вида ru_RU.UTF-8,
+-- в базе с LC_CTYPE=C кириллические строки триграмм не дают и индекс для них не используется.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX ix_exhibits_name_trgm ON exhibits USING gin (name gin_trgm_ops);
+CREATE INDEX ix_exhibits_author_trgm ON exhibits USING gin (author gin_trgm_ops);
+CREATE INDEX ix_exhibits_era_trgm ON exhibits USING gin (era gin_trgm_ops);
@@ -0,0 +1,6 @@
+-- Версии начальных данных: заполненная база не проверяется повторно при каждом запуске
+CREATE TABLE seed_versions (
+    name       VARCHAR(100) PRIMARY KEY,
+    version    INTEGER      NOT NULL,
+    applied_at TIMESTAMP    NOT NULL
+);
@@ -0,0 +1,3 @@
+-- Индекс внешнего ключа exhibits.hall_id: количество экспонатов зала в списке залов
+-- и проверка ссылок при удалении зала не просматривают всю таблицу экспонатов.
+CREATE INDEX ix_exhibits_hall ON exhibits (hall_id);
@@ -0,0 +1,64 @@
+package com.example.museum;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет запуск всего приложения в режиме ленивой инициализации на встроенной БД H2:
+ * критичные бины создаются сразу, некритичные — нет, отчёт о шагах запуска записывается,
+ * а время до готовности не выходит за допустимый предел.
+ */
+class StartupRegressionTest {
+
+    /**
+     * Предел времени запуска; заметное превышение означает регрессию
+     * (например, новую тяжёлую работу при создании бинов).
+     */
+    private static final Duration STARTUP_BUDGET = Duration.ofSeconds(60);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void lazyStartupDefersOnlyNonCriticalBeansAndStaysWithinBudget() throws Exception {
+        Path report = tempDir.resolve("startup-report.json");
+        try (ConfigurableApplicationContext context = MuseumApplication.application().run(
+                "--spring.profiles.active=test",
+                "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--server.port=0",
+                "--spring.main.lazy-initialization=true",
+                "--museum.startup.report-file=" + report)) {
+            ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+
+            assertTrue(beanFactory.containsSingleton("entityManagerFactory"));
+            assertTrue(beanFactory.containsSingleton("visitCounterServiceImpl"));
+            assertTrue(beanFactory.containsSingleton("visitRollupServiceImpl"));
+            assertTrue(beanFactory.containsSingleton("visitIngestionServiceImpl"));
+            assertFalse(beanFactory.containsSingleton("visitExportServiceImpl"));
+            assertFalse(beanFactory.containsSingleton("catalogImportServiceImpl"));
+
+            JsonNode json = new ObjectMapper().readTree(report.toFile());
+            long readyMs = json.get("readyMs").asLong();
+            assertTrue(readyMs < STARTUP_BUDGET.toMillis(), "запуск занял " + readyMs + " мс");
+            assertTrue(StreamSupport.stream(json.get("steps").spliterator(), false)
+                    .anyMatch(step -> step.get("name").asText().equals("museum.data.seed")));
+            assertTrue(StreamSupport.stream(json.get("steps").spliterator(), false)
+                    .anyMatch(step -> step.path("tags").path("beanName").asText().equals("entityManagerFactory")));
+        }
+    }
+}
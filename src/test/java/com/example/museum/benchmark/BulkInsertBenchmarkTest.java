@@ -0,0 +1,113 @@
+package com.example.museum.benchmark;
+
+import com.example.museum.model.Exhibit;
+import com.example.museum.model.Exhibition;
+import com.example.museum.model.Hall;
+import com.example.museum.model.Role;
+import com.example.museum.model.User;
+import com.example.museum.model.Visit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Бенчмарк массовой загрузки экспонатов и посещений.
+ * <p>
+ * Сравнивает вставку «по одной строке за обращение к БД» (так Hibernate вставлял
+ * сущности с {@code GenerationType.IDENTITY}: INSERT выполнялся сразу при persist)
+ * с пакетной вставкой, которую допускают последовательности с оптимизатором pooled-lo.
+ * <p>
+ * Запуск: {@code mvn test -Pbenchmark}. По умолчанию используется H2 в памяти; для замеров
+ * на PostgreSQL: {@code -Dbenchmark.datasource.url=jdbc:postgresql://... -Dbenchmark.datasource.username=...
+ * -Dbenchmark.datasource.password=... -Dbenchmark.dialect=org.hibernate.dialect.PostgreSQLDialect}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.datasource.url=${benchmark.datasource.url:jdbc:h2:mem:benchmark}",
+        "spring.datasource.username=${benchmark.datasource.username:sa}",
+        "spring.datasource.password=${benchmark.datasource.password:}",
+        "spring.datasource.driver-class-name=",
+        "spring.jpa.properties.hibernate.dialect=${benchmark.dialect:org.hibernate.dialect.H2Dialect}",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BulkInsertBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int BATCH = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bulkLoadExhibitsAndVisits() {
+        Hall hall = new Hall("Зал бенчмарка", 1, 100, null);
+        User guide = new User("bench-guide@museum.com", "hash", Role.GUIDE, "Гид");
+        entityManager.persist(hall);
+        entityManager.persist(guide);
+        Exhibition exhibition = new Exhibition("Бенчмарк", LocalDate.now(), LocalDate.now().plusDays(1), guide, null);
+        entityManager.persist(exhibition);
+        entityManager.flush();
+
+        IntFunction<Object> exhibit = i -> new Exhibit("Образец " + i, null, "Автор " + (i % 100), 1900 + i % 100, "XX век", hall);
+        IntFunction<Object> visit = i -> new Visit("visitor" + i + "@museum.com", exhibition);
+
+        Result exhibitsRowByRow = load("exhibits", exhibit, 1);
+        Result exhibitsBatched = load("exhibits", exhibit, BATCH);
+        Result visitsRowByRow = load("visits", visit, 1);
+        Result visitsBatched = load("visits", visit, BATCH);
+
+        assertTrue(exhibitsBatched.statements() * 10 < exhibitsRowByRow.statements());
+        assertTrue(visitsBatched.statements() * 10 < visitsRowByRow.statements());
+    }
+
+    /**
+     * Сохраняет {@link #ROWS} сущностей, сбрасывая контекст персистентности каждые {@code flushEvery} строк.
+     * При {@code flushEvery = 1} каждая строка отправляется отдельным запросом, как при IDENTITY.
+     */
+    private Result load(String name, IntFunction<Object> factory, int flushEvery) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            entityManager.persist(factory.apply(i));
+            if ((i + 1) % flushEvery == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Result result = new Result(ROWS / seconds, statistics.getPrepareStatementCount());
+        System.out.printf("%-8s %-12s %,10.0f rows/s, %,7d JDBC statements%n",
+                name, flushEvery == 1 ? "row-by-row" : "batch=" + flushEvery, result.rowsPerSecond(), result.statements());
+        return result;
+    }
+
+    private record Result(double rowsPerSecond, long statements) {
+    }
+}
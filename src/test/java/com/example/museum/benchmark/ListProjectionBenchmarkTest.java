@@ -0,0 +1,176 @@
+package com.example.museum.benchmark;
+
+import com.example.museum.dto.ExhibitListItem;
+import com.example.museum.dto.ExhibitionListItem;
+import com.example.museum.dto.HallListItem;
+import com.example.museum.model.Exhibit;
+import com.example.museum.model.Exhibition;
+import com.example.museum.model.Hall;
+import com.example.museum.model.Role;
+import com.example.museum.model.User;
+import com.example.museum.repository.ExhibitRepository;
+import com.example.museum.repository.ExhibitSpecifications;
+import com.example.museum.repository.ExhibitionRepository;
+import com.example.museum.repository.HallRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Бенчмарк запросов страниц списков: сущности против проекций.
+ * <p>
+ * Для экспонатов, залов и выставок с длинными описаниями ({@code TEXT}) сравнивает запрос
+ * сущностей, которым страницы загружали списки раньше, с проекциями
+ * {@link ExhibitListItem}, {@link HallListItem} и {@link ExhibitionListItem}.
+ * Печатает строки в секунду и объём данных строк — сумму длин значений столбцов в UTF-8
+ * (8 байт на число и дату), то есть сколько данных база передаёт приложению без учёта протокола.
+ * <p>
+ * Запуск: {@code mvn test -Pbenchmark}. По умолчанию используется H2 в памяти; для замеров
+ * на PostgreSQL: {@code -Dbenchmark.datasource.url=jdbc:postgresql://... -Dbenchmark.datasource.username=...
+ * -Dbenchmark.datasource.password=... -Dbenchmark.dialect=org.hibernate.dialect.PostgreSQLDialect}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.datasource.url=${benchmark.datasource.url:jdbc:h2:mem:benchmark}",
+        "spring.datasource.username=${benchmark.datasource.username:sa}",
+        "spring.datasource.password=${benchmark.datasource.password:}",
+        "spring.datasource.driver-class-name=",
+        "spring.jpa.properties.hibernate.dialect=${benchmark.dialect:org.hibernate.dialect.H2Dialect}",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ListProjectionBenchmarkTest {
+
+    private static final int EXHIBITS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int HALLS = 200;
+    private static final int EXHIBITIONS = 2_000;
+    private static final int DESCRIPTION_LENGTH = Integer.getInteger("benchmark.description-length", 2_000);
+    private static final int PREVIEW_LENGTH = 200;
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 5);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ExhibitRepository exhibitRepository;
+
+    @Autowired
+    private HallRepository hallRepository;
+
+    @Autowired
+    private ExhibitionRepository exhibitionRepository;
+
+    @Test
+    void listProjectionsAgainstEntities() {
+        populate();
+
+        Result exhibitEntities = measure("exhibits", "entities",
+                () -> exhibitRepository.findAll(ExhibitSpecifications.fetchHall()),
+                e -> bytes(e.getId(), e.getName(), e.getDescription(), e.getAuthor(), e.getCreationYear(), e.getEra())
+                        + hallBytes(e.getHall()));
+        Result exhibitItems = measure("exhibits", "projection",
+                () -> exhibitRepository.findListItems(null, Sort.unsorted(), 0),
+                e -> bytes(e.id(), e.name(), e.author(), e.creationYear(), e.era(), e.hallId(), e.hallName()));
+
+        Result hallEntities = measure("halls", "entities", hallRepository::findAll, this::hallBytes);
+        Result hallItems = measure("halls", "projection",
+                () -> hallRepository.findListItems(null, null, PREVIEW_LENGTH),
+                h -> bytes(h.id(), h.name(), h.floor(), h.capacity(), h.exhibitCount(), h.descriptionPreview()) + 1);
+
+        Result exhibitionEntities = measure("exhibitions", "entities", exhibitionRepository::findAllWithCurator,
+                e -> bytes(e.getId(), e.getTitle(), e.getStartDate(), e.getEndDate(), e.getDescription())
+                        + bytes(e.getCurator().getId(), e.getCurator().getEmail(), e.getCurator().getPassword(),
+                        e.getCurator().getRole().name(), e.getCurator().getFullName()));
+        Result exhibitionItems = measure("exhibitions", "projection",
+                () -> exhibitionRepository.findListItems(PREVIEW_LENGTH),
+                e -> bytes(e.id(), e.title(), e.startDate(), e.endDate(), e.curatorFullName(), e.descriptionPreview()) + 1);
+
+        assertTrue(exhibitItems.bytesPerRow() * 2 < exhibitEntities.bytesPerRow());
+        assertTrue(hallItems.bytesPerRow() * 2 < hallEntities.bytesPerRow());
+        assertTrue(exhibitionItems.bytesPerRow() * 2 < exhibitionEntities.bytesPerRow());
+    }
+
+    private void populate() {
+        String description = "Описание ".repeat(DESCRIPTION_LENGTH / 9 + 1).substring(0, DESCRIPTION_LENGTH);
+        Hall[] halls = new Hall[HALLS];
+        for (int i = 0; i < HALLS; i++) {
+            halls[i] = new Hall("Зал " + i, i % 5 + 1, 100, description);
+            entityManager.persist(halls[i]);
+        }
+        User guide = new User("bench-guide@museum.com", "$2a$10$" + "x".repeat(53), Role.GUIDE, "Гид бенчмарка");
+        entityManager.persist(guide);
+        for (int i = 0; i < EXHIBITIONS; i++) {
+            entityManager.persist(new Exhibition("Выставка " + i, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31),
+                    guide, description));
+        }
+        for (int i = 0; i < EXHIBITS; i++) {
+            entityManager.persist(new Exhibit("Образец " + i, description, "Автор " + (i % 100), 1900 + i % 100,
+                    "XX век", halls[i % HALLS]));
+            if (i % 1000 == 999) {
+                entityManager.flush();
+                entityManager.clear();
+                for (int h = 0; h < HALLS; h++) {
+                    halls[h] = entityManager.getReference(Hall.class, halls[h].getId());
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Выполняет запрос после одного прогревочного выполнения столько раз, чтобы прочитать
+     * не меньше {@link #ITERATIONS} списков экспонатов, очищая контекст персистентности перед каждым.
+     */
+    private <T> Result measure(String list, String mode, Supplier<List<T>> query, ToLongFunction<T> rowBytes) {
+        entityManager.clear();
+        List<T> rows = query.get();
+        long bytes = rows.stream().mapToLong(rowBytes).sum();
+        int iterations = (int) Math.max(1, (long) ITERATIONS * EXHIBITS / Math.max(1, rows.size()));
+
+        long start = System.nanoTime();
+        long count = 0;
+        for (int i = 0; i < iterations; i++) {
+            entityManager.clear();
+            count += query.get().size();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        entityManager.clear();
+
+        Result result = new Result(count / seconds, (double) bytes / Math.max(1, rows.size()));
+        System.out.printf("%-12s %-11s %,10.0f rows/s, %,8.0f bytes/row, %,12d bytes per list%n",
+                list, mode, result.rowsPerSecond(), result.bytesPerRow(), bytes);
+        return result;
+    }
+
+    private long hallBytes(Hall hall) {
+        return hall == null ? 0 : bytes(hall.getId(), hall.getName(), hall.getFloor(), hall.getCapacity(), hall.getDescription());
+    }
+
+    private static long bytes(Object... values) {
+        return Stream.of(values).filter(Objects::nonNull)
+                .mapToLong(value -> value instanceof String text ? text.getBytes(StandardCharsets.UTF_8).length : 8)
+                .sum();
+    }
+
+    private record Result(double rowsPerSecond, double bytesPerRow) {
+    }
+}
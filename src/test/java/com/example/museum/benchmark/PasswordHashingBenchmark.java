@@ -0,0 +1,49 @@
+package com.example.museum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * JMH-бенчмарк BCrypt для выбора фактора стоимости хеширования паролей
+ * ({@code museum.security.password-hashing.cost}).
+ * <p>
+ * Измеряет среднее время хеширования (регистрация) и проверки пароля (вход) для каждого фактора.
+ * Запускается из {@link PasswordHashingBenchmarkTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordHashingBenchmark {
+
+    @Param({"8", "10", "11", "12", "13"})
+    public int cost;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(cost);
+        hash = encoder.encode("visitorpass");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("visitorpass");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("visitorpass", hash);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.museum.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+
+/**
+ * Запуск JMH-бенчмарка {@link PasswordHashingBenchmark}.
+ * <p>
+ * Запуск: {@code mvn test -Pbenchmark -Dtest=PasswordHashingBenchmarkTest}. Бюджет времени на одно
+ * хеширование задаётся {@code -Dbenchmark.password.target-ms} (по умолчанию 250 мс); в конце выводится
+ * наибольший фактор стоимости, укладывающийся в бюджет на этой машине.
+ */
+@Tag("benchmark")
+class PasswordHashingBenchmarkTest {
+
+    private static final long TARGET_MS = Long.getLong("benchmark.password.target-ms", 250);
+
+    @Test
+    void measureCostFactors() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PasswordHashingBenchmark.class.getSimpleName())
+                .forks(0)
+                .warmupIterations(1)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(3)
+                .measurementTime(TimeValue.seconds(2))
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+        assertFalse(results.isEmpty());
+
+        int recommended = 0;
+        for (RunResult result : results) {
+            int cost = Integer.parseInt(result.getParams().getParam("cost"));
+            double ms = result.getPrimaryResult().getScore();
+            if (result.getParams().getBenchmark().endsWith(".encode") && ms <= TARGET_MS) {
+                recommended = Math.max(recommended, cost);
+            }
+        }
+        System.out.printf("Наибольший фактор стоимости в бюджете %d мс: %s%n", TARGET_MS,
+                recommended > 0 ? recommended : "нет (все факторы медленнее бюджета)");
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.museum.config;
+
+import com.example.museum.model.Role;
+import com.example.museum.model.User;
+import com.example.museum.repository.ExhibitionRepository;
+import com.example.museum.repository.SeedVersionRepository;
+import com.example.museum.repository.UserRepository;
+import com.example.museum.service.CatalogReadModelService;
+import com.example.museum.service.UserRevisionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Проверяет заполнение базы начальными данными: хеширование только недостающих паролей
+ * и пропуск уже заполненной базы по отметке о версии одним запросом.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class AppInitializerTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExhibitionRepository exhibitionRepository;
+
+    @Autowired
+    private SeedVersionRepository seedVersionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final UserRevisionService userRevisionService = mock(UserRevisionService.class);
+    private final CatalogReadModelService catalogReadModelService = mock(CatalogReadModelService.class);
+    private AppInitializer appInitializer;
+
+    @BeforeEach
+    void setUp() {
+        when(passwordEncoder.encode(any())).thenAnswer(invocation -> "{noop}" + invocation.getArgument(0));
+        appInitializer = new AppInitializer(userRepository, exhibitionRepository, seedVersionRepository,
+                passwordEncoder, userRevisionService, catalogReadModelService, transactionManager, ApplicationStartup.DEFAULT);
+    }
+
+    @Test
+    void seedsOnlyMissingRowsAndHashesOnlyMissingPasswords() {
+        userRepository.save(new User("admin@museum.com", "{bcrypt}existing", Role.ADMIN, "Админ"));
+        entityManager.flush();
+
+        appInitializer.seed();
+        entityManager.flush();
+
+        assertEquals(9, userRepository.count());
+        assertEquals(6, exhibitionRepository.count());
+        assertEquals("{bcrypt}existing", userRepository.findByEmail("admin@museum.com").orElseThrow().getPassword());
+        verify(passwordEncoder, times(8)).encode(anyString());
+        verify(passwordEncoder, never()).encode("adminpass");
+        verify(userRevisionService, never()).markChanged("admin@museum.com");
+        verify(userRevisionService).markChanged("guide1@museum.com");
+        assertEquals(AppInitializer.SEED_VERSION,
+                seedVersionRepository.findById(AppInitializer.SEED_NAME).orElseThrow().getVersion());
+    }
+
+    @Test
+    void seededDatabaseIsSkippedWithSingleQuery() {
+        appInitializer.seed();
+        entityManager.flush();
+        entityManager.clear();
+        clearInvocations(passwordEncoder);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        appInitializer.seed();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        verify(passwordEncoder, never()).encode(anyString());
+        assertEquals(9, userRepository.count());
+        assertEquals(6, exhibitionRepository.count());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.museum.config;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+
+/**
+ * Встроенный PostgreSQL для тестов запросов, которые H2 не выполняет
+ * (секции, триггеры, {@code unnest}, {@code LISTEN/NOTIFY}).
+ * <p>
+ * Тест подключает конфигурацию через {@code @Import}, отключает замену источника данных
+ * ({@code @AutoConfigureTestDatabase(replace = NONE)}) и включает Flyway, диалект PostgreSQL
+ * и {@code ddl-auto=none} свойствами: схема строится миграциями, как в работающем приложении.
+ * База останавливается вместе с контекстом.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class EmbeddedPostgresConfig {
+
+    @Bean(destroyMethod = "close")
+    EmbeddedPostgres embeddedPostgres() throws IOException {
+        return EmbeddedPostgres.start();
+    }
+
+    @Bean
+    DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+        return embeddedPostgres.getPostgresDatabase();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.museum.config;
+
+import com.example.museum.model.Role;
+import com.example.museum.model.User;
+import com.example.museum.service.CustomUserDetailsService;
+import com.example.museum.service.MuseumUserDetails;
+import com.example.museum.service.UserRevisionService;
+import com.example.museum.service.UserRevisionServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Проверяет обновление данных пользователя в сессии: устаревшие данные перечитываются
+ * до проверки прав и сохраняются в сессии, актуальные не перечитываются,
+ * а сессия удалённого пользователя завершается.
+ */
+class PrincipalRefreshFilterTest {
+
+    private static final String EMAIL = "guide@museum.com";
+
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final UserRevisionService userRevisionService = new UserRevisionServiceImpl(event -> { }, email -> { }, 10_000);
+    private final PrincipalRefreshFilter filter = new PrincipalRefreshFilter(userDetailsService, userRevisionService);
+
+    private final MockHttpSession session = new MockHttpSession();
+    private final AtomicReference<Authentication> seenByChain = new AtomicReference<>();
+
+    @BeforeEach
+    void signIn() {
+        MuseumUserDetails principal = user(Role.GUIDE, "Гид");
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void freshPrincipalIsNotReloaded() throws Exception {
+        Authentication before = SecurityContextHolder.getContext().getAuthentication();
+
+        doFilter();
+
+        assertSame(before, seenByChain.get());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void stalePrincipalIsReloadedBeforeAccessChecks() throws Exception {
+        userRevisionService.markChanged(EMAIL);
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user(Role.ADMIN, "Администратор"));
+
+        doFilter();
+
+        MuseumUserDetails refreshed = (MuseumUserDetails) seenByChain.get().getPrincipal();
+        assertEquals(Role.ADMIN, refreshed.getRole());
+        assertTrue(seenByChain.get().getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN")));
+        assertNull(refreshed.getPassword());
+        assertFalse(userRevisionService.isStale(refreshed));
+
+        SecurityContext saved = (SecurityContext) session.getAttribute(
+                HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+        assertSame(seenByChain.get(), saved.getAuthentication());
+    }
+
+    @Test
+    void deletedUserIsLoggedOut() throws Exception {
+        userRevisionService.markChanged(EMAIL);
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenThrow(new UsernameNotFoundException(EMAIL));
+
+        doFilter();
+
+        assertNull(seenByChain.get());
+        assertTrue(session.isInvalid());
+    }
+
+    private void doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/visits");
+        request.setSession(session);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                seenByChain.set(SecurityContextHolder.getContext().getAuthentication()));
+    }
+
+    private MuseumUserDetails user(Role role, String fullName) {
+        return new MuseumUserDetails(new User(EMAIL, "hash", role, fullName), userRevisionService.currentRevision());
+    }
+}
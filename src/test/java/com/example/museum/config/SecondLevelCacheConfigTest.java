@@ -0,0 +1,163 @@
+package com.example.museum.config;
+
+import com.example.museum.model.Exhibition;
+import com.example.museum.model.Hall;
+import com.example.museum.model.Role;
+import com.example.museum.model.User;
+import com.example.museum.repository.ExhibitionRepository;
+import com.example.museum.repository.HallRepository;
+import com.example.museum.repository.UserRepository;
+import com.example.museum.service.CatalogReadModelServiceImpl;
+import com.example.museum.service.ExhibitionService;
+import com.example.museum.service.ExhibitionServiceImpl;
+import com.example.museum.service.HallService;
+import com.example.museum.service.HallServiceImpl;
+import com.example.museum.service.UserChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет кеш второго уровня и кеш запросов: повторные списки залов, гидов и выставок куратора
+ * без обращения к базе данных, сброс при сохранении и удалении, сброс пользователей
+ * по {@link UserChangedEvent} и метрики попаданий.
+ * <p>
+ * Кеш обновляется при фиксации транзакций, поэтому тест выполняется без общей транзакции.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({SecondLevelCacheConfig.class, SimpleMeterRegistry.class, HallServiceImpl.class, ExhibitionServiceImpl.class,
+        CatalogReadModelServiceImpl.class})
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private HallService hallService;
+
+    @Autowired
+    private ExhibitionService exhibitionService;
+
+    @Autowired
+    private HallRepository hallRepository;
+
+    @Autowired
+    private ExhibitionRepository exhibitionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        exhibitionRepository.deleteAll();
+        userRepository.deleteAll();
+        hallRepository.deleteAll();
+    }
+
+    @Test
+    void hallListIsCachedUntilHallsChange() {
+        Hall first = hallService.save(new Hall("Зал живописи", 1, 50, "Живопись"));
+        hallService.save(new Hall("Зал скульптуры", 2, 30, null));
+        hallService.findAll();
+
+        assertEquals(0, statementsDuring(() -> assertEquals(2, hallService.findAll().size())));
+        assertEquals(0, statementsDuring(() -> hallService.findById(first.getId())));
+
+        first.setName("Зал графики");
+        hallService.save(first);
+        assertEquals(List.of("Зал графики", "Зал скульптуры"), hallService.findAll().stream().map(Hall::getName).toList());
+
+        hallService.deleteById(first.getId());
+        assertEquals(List.of("Зал скульптуры"), hallService.findAll().stream().map(Hall::getName).toList());
+
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "hibernate.halls-queries").tag("result", "hit")
+                .functionCounter().count() > 0);
+    }
+
+    @Test
+    void curatorExhibitionsAreCachedWithCurators() {
+        User guide = userRepository.save(new User("guide@museum.com", "hash", Role.GUIDE, "Гид"));
+        Exhibition exhibition = exhibitionService.save(new Exhibition("Импрессионисты",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 1), guide, null));
+        exhibitionService.findByCuratorEmail("guide@museum.com");
+
+        assertEquals(0, statementsDuring(() -> {
+            List<Exhibition> exhibitions = exhibitionService.findByCuratorEmail("guide@museum.com");
+            assertEquals("Гид", exhibitions.get(0).getCurator().getFullName());
+        }));
+
+        exhibition.setTitle("Постимпрессионисты");
+        exhibitionService.save(exhibition);
+        assertEquals("Постимпрессионисты", exhibitionService.findByCuratorEmail("guide@museum.com").get(0).getTitle());
+        assertEquals("Постимпрессионисты", exhibitionService.findAll().get(0).getTitle());
+    }
+
+    @Test
+    void guidesAreEvictedOnRoleChangeAndUserChangedEvent() {
+        User guide = userRepository.save(new User("guide@museum.com", "hash", Role.GUIDE, "Гид"));
+        userRepository.save(new User("visitor@museum.com", "hash", Role.VISITOR, "Посетитель"));
+        userRepository.findByRole(Role.GUIDE);
+        assertEquals(0, statementsDuring(() -> assertEquals(1, userRepository.findByRole(Role.GUIDE).size())));
+
+        // смена роли на этом узле сбрасывает запрос при фиксации
+        guide.setRole(Role.VISITOR);
+        userRepository.save(guide);
+        assertEquals(0, userRepository.findByRole(Role.GUIDE).size());
+
+        // изменение в обход Hibernate (другой узел) применяется по оповещению
+        jdbcTemplate.update("UPDATE users SET role = 'GUIDE' WHERE email = 'visitor@museum.com'");
+        assertEquals(0, userRepository.findByRole(Role.GUIDE).size());
+        eventPublisher.publishEvent(new UserChangedEvent("visitor@museum.com"));
+        assertEquals(List.of("visitor@museum.com"),
+                userRepository.findByRole(Role.GUIDE).stream().map(User::getEmail).toList());
+    }
+
+    private long statementsDuring(Runnable action) {
+        long before = statistics.getPrepareStatementCount();
+        action.run();
+        return statistics.getPrepareStatementCount() - before;
+    }
+}
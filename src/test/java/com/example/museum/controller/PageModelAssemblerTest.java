@@ -0,0 +1,141 @@
+package com.example.museum.controller;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.ui.Model;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет параллельное выполнение выборок страницы, остановку остальных выборок
+ * при ошибке одной из них, срок выборки и разрешения на дополнительные соединения.
+ */
+class PageModelAssemblerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PageModelAssembler assembler = new PageModelAssembler(meterRegistry, new HikariDataSource(),
+            true, 0, Duration.ofSeconds(5));
+
+    @Test
+    void fetchesRunConcurrently() {
+        // каждая выборка ждёт другую: по очереди они не завершились бы
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Model model = new ExtendedModelMap();
+
+        assembler.page(model)
+                .fetch("exhibits", () -> awaitOther(bothStarted, List.of("Экспонат")))
+                .fetch("halls", () -> awaitOther(bothStarted, List.of("Зал")))
+                .load();
+
+        assertEquals(List.of("Экспонат"), model.getAttribute("exhibits"));
+        assertEquals(List.of("Зал"), model.getAttribute("halls"));
+        assertEquals(1, meterRegistry.get("museum.web.page_model.load").tag("result", "success").timer().count());
+    }
+
+    @Test
+    void failedFetchCancelsTheOthers() {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Model model = new ExtendedModelMap();
+
+        PageModelException e = assertThrows(PageModelException.class, () -> assembler.page(model)
+                .fetch("exhibits", () -> {
+                    try {
+                        Thread.sleep(Duration.ofMinutes(1));
+                    } catch (InterruptedException ex) {
+                        interrupted.countDown();
+                    }
+                    return List.of();
+                })
+                .fetch("halls", () -> {
+                    throw new IllegalStateException("нет соединения");
+                })
+                .load());
+
+        assertTrue(e.getMessage().contains("halls"));
+        assertEquals(IllegalStateException.class, e.getCause().getClass());
+        assertTrue(await(interrupted));
+        assertFalse(model.containsAttribute("exhibits"));
+        assertEquals(1, meterRegistry.get("museum.web.page_model.load").tag("result", "error").timer().count());
+    }
+
+    @Test
+    void slowFetchFailsAfterItsTimeout() {
+        long start = System.nanoTime();
+
+        PageModelException e = assertThrows(PageModelException.class, () -> assembler.page(new ExtendedModelMap())
+                .fetch("exhibits", () -> List.of())
+                .fetch("guides", () -> {
+                    await(new CountDownLatch(1));
+                    return List.of();
+                }, Duration.ofMillis(100))
+                .load());
+
+        assertTrue(e.getMessage().contains("guides"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void parallelFetchesTakeExtraPermitsAndLoadSequentiallyWithoutThem() throws Exception {
+        PageModelAssembler limited = new PageModelAssembler(meterRegistry, new HikariDataSource(),
+                true, 1, Duration.ofSeconds(5));
+
+        Model model = new ExtendedModelMap();
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        limited.page(model)
+                .fetch("exhibits", () -> awaitOther(bothStarted, List.of("Экспонат")))
+                .fetch("halls", () -> awaitOther(bothStarted, List.of("Зал")))
+                .load();
+        assertEquals(List.of("Зал"), model.getAttribute("halls"));
+
+        // единственное разрешение занято параллельной страницей: выборки выполняются в потоке запроса
+        CountDownLatch otherPageStarted = new CountDownLatch(1);
+        CountDownLatch otherPageDone = new CountDownLatch(1);
+        Thread otherPage = Thread.ofVirtual().start(() -> limited.page(new ExtendedModelMap())
+                .fetch("exhibits", () -> {
+                    otherPageStarted.countDown();
+                    return await(otherPageDone);
+                })
+                .fetch("halls", () -> await(otherPageDone))
+                .load());
+        assertTrue(otherPageStarted.await(5, TimeUnit.SECONDS));
+
+        Thread requestThread = Thread.currentThread();
+        limited.page(model)
+                .fetch("exhibits", () -> Thread.currentThread() == requestThread)
+                .fetch("halls", () -> Thread.currentThread() == requestThread)
+                .load();
+        assertEquals(true, model.getAttribute("exhibits"));
+        assertEquals(true, model.getAttribute("halls"));
+
+        otherPageDone.countDown();
+        otherPage.join();
+    }
+
+    private static <T> T awaitOther(CountDownLatch bothStarted, T value) {
+        bothStarted.countDown();
+        if (!await(bothStarted)) {
+            throw new IllegalStateException("Выборки выполняются не параллельно");
+        }
+        return value;
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.CatalogImportReport;
+import com.example.museum.model.Exhibit;
+import com.example.museum.repository.ExhibitRepository;
+import com.example.museum.repository.HallRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет массовый импорт каталога: сопоставление залов, отчёт об ошибках
+ * и продолжение импорта после ошибочных записей.
+ * <p>
+ * Сервис управляет транзакциями порций сам, поэтому тест выполняется без общей транзакции.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({CatalogImportServiceImpl.class, CatalogReadModelServiceImpl.class, ObjectMapper.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@TestPropertySource(properties = {"museum.catalog.import.chunk-size=2", "museum.catalog.import.validation-threads=2"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogImportServiceImplTest {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private HallRepository hallRepository;
+
+    @Autowired
+    private ExhibitRepository exhibitRepository;
+
+    @AfterEach
+    void cleanUp() {
+        exhibitRepository.deleteAll();
+        hallRepository.deleteAll();
+    }
+
+    @Test
+    void importsCsvAndReportsBadRowsWithoutAborting() {
+        String csv = """
+                type,name,description,author,creation_year,era,hall,floor,capacity
+                hall,Гербарий,"Сухие растения, листы",,,,,1,40
+                exhibit,Папоротник орляк,,Линней,1753,Новое время,гербарий,,
+                exhibit,Без автора,,,1800,Новое время,Гербарий,,
+                exhibit,Мох,,Гедвиг,год,Новое время,Гербарий,,
+                hall,ГЕРБАРИЙ,,,,,,2,10
+                exhibit,Кактус,,Неизвестен,1900,Новейшее время,Оранжерея,,
+                exhibit,лишний,столбец
+                hall,Оранжерея,,,,,,1,0
+
+                hall,Оранжерея,,,,,,1,25
+                exhibit,Кактус,,Неизвестен,1900,Новейшее время,Оранжерея,,
+                """;
+
+        CatalogImportReport report = importCsv(csv);
+
+        assertEquals(10, report.rowsRead());
+        assertEquals(2, report.hallsImported());
+        assertEquals(1, report.hallsSkipped());
+        assertEquals(2, report.exhibitsImported());
+        assertEquals(5, report.errorCount());
+        assertFalse(report.aborted());
+        assertEquals(List.of(4L, 5L, 7L, 8L, 9L), report.errors().stream().map(CatalogImportReport.RowError::row).toList());
+        assertTrue(report.errors().get(0).message().contains("автора"));
+        assertTrue(report.errors().get(2).message().contains("Оранжерея"));
+
+        assertEquals(2, hallRepository.count());
+        List<Exhibit> exhibits = exhibitRepository.findAll();
+        assertEquals(2, exhibits.size());
+    }
+
+    @Test
+    void importsJsonArray() {
+        String json = """
+                [
+                  {"type": "hall", "name": "Зал мхов", "floor": 2, "capacity": 15},
+                  {"type": "exhibit", "name": "Сфагнум", "author": "Гедвиг", "creationYear": 1801,
+                   "era": "Новое время", "hall": "зал мхов", "unknown": true},
+                  {"type": "exhibit", "name": "", "author": "Гедвиг", "creationYear": 1801,
+                   "era": "Новое время", "hall": "Зал мхов"}
+                ]
+                """;
+
+        CatalogImportReport report = catalogImportService.importCatalog(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), CatalogImportService.Format.JSON);
+
+        assertEquals(3, report.rowsRead());
+        assertEquals(1, report.hallsImported());
+        assertEquals(1, report.exhibitsImported());
+        assertEquals(1, report.errorCount());
+        assertEquals(3, report.errors().get(0).row());
+    }
+
+    private CatalogImportReport importCsv(String csv) {
+        return catalogImportService.importCatalog(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), CatalogImportService.Format.CSV);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.ExhibitListItem;
+import com.example.museum.dto.ExhibitionListItem;
+import com.example.museum.dto.HallListItem;
+import com.example.museum.model.Exhibit;
+import com.example.museum.model.Exhibition;
+import com.example.museum.model.Hall;
+import com.example.museum.repository.ExhibitRepository;
+import com.example.museum.repository.ExhibitionRepository;
+import com.example.museum.repository.HallRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет модель чтения каталога: совпадение списков из снимка с запросами к базе,
+ * видимость сохранения и удаления после построения снимка и чтение списков без запросов к базе.
+ * <p>
+ * Снимок строится в фоне после фиксации изменений, поэтому тест выполняется без общей транзакции
+ * и дожидается построения.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({CatalogReadModelServiceImpl.class, ExhibitServiceImpl.class, HallServiceImpl.class, ExhibitionServiceImpl.class})
+@TestPropertySource(properties = {
+        "museum.catalog.read-model.enabled=true",
+        "museum.exhibits.search-limit=3",
+        "museum.catalog.description-preview-length=10"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogReadModelServiceImplTest {
+
+    @Autowired
+    private CatalogReadModelServiceImpl catalogReadModelService;
+
+    @Autowired
+    private ExhibitService exhibitService;
+
+    @Autowired
+    private HallService hallService;
+
+    @Autowired
+    private ExhibitionService exhibitionService;
+
+    @Autowired
+    private ExhibitRepository exhibitRepository;
+
+    @Autowired
+    private HallRepository hallRepository;
+
+    @Autowired
+    private ExhibitionRepository exhibitionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Hall painting;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        painting = hallRepository.save(new Hall("Зал живописи", 1, 50, "Русская живопись XIX века"));
+        Hall sculpture = hallRepository.save(new Hall("Зал скульптуры", 2, 30, null));
+        exhibitRepository.saveAll(List.of(
+                new Exhibit("Утро в сосновом лесу", null, "Иван Шишкин", 1889, "Передвижники", painting),
+                new Exhibit("Рожь", null, "Иван Шишкин", 1878, "Передвижники", painting),
+                new Exhibit("Девятый вал", null, "Иван Айвазовский", 1850, "Романтизм", painting),
+                new Exhibit("Скидка 100%", null, "Неизвестный_автор", 2001, "Современность", sculpture),
+                new Exhibit("Скидка 1000", null, "Неизвестный автор", 2002, "Современность", sculpture)));
+        exhibitionRepository.save(new Exhibition("Передвижники", LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 3, 1), null, "Картины художников-передвижников"));
+        // данные записаны в обход сервисов, снимок предыдущего теста устарел
+        catalogReadModelService.markChanged();
+        catalogReadModelService.awaitRefresh();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        exhibitRepository.deleteAll();
+        exhibitionRepository.deleteAll();
+        hallRepository.deleteAll();
+    }
+
+    @Test
+    void listsMatchDatabaseQueries() {
+        CatalogReadModelService disabled = new CatalogReadModelServiceImpl(exhibitRepository, hallRepository,
+                exhibitionRepository, transactionManager, false, 10);
+        ExhibitService database = new ExhibitServiceImpl(exhibitRepository, disabled, 3);
+        HallService hallDatabase = new HallServiceImpl(hallRepository, disabled, 10);
+        ExhibitionService exhibitionDatabase = new ExhibitionServiceImpl(exhibitionRepository, disabled, 10);
+
+        String[][] criteria = {
+                {null, null, null}, {" ", "", null}, {null, "шишкин", null}, {"ЛЕС", "Шишкин", "передвиж"},
+                {"100%", null, null}, {null, "й_а", null}, {null, "и", null}, {null, null, "совр"}, {"нет", null, null}
+        };
+        for (String[] c : criteria) {
+            assertEquals(database.findListItems(c[0], c[1], c[2]), exhibitService.findListItems(c[0], c[1], c[2]),
+                    String.join("|", String.valueOf(c[0]), String.valueOf(c[1]), String.valueOf(c[2])));
+        }
+        assertEquals(hallDatabase.findListItems(null, null), hallService.findListItems(null, null));
+        assertEquals(hallDatabase.findListItems("СКУЛЬП", 2), hallService.findListItems("СКУЛЬП", 2));
+        assertEquals(exhibitionDatabase.findListItems(), exhibitionService.findListItems());
+        assertEquals(List.of(3L, 2L), hallService.findListItems(null, null).stream()
+                .map(HallListItem::exhibitCount).toList());
+    }
+
+    @Test
+    void changesAreVisibleAfterTheRebuild() throws Exception {
+        Exhibit added = exhibitService.save(new Exhibit("Грачи прилетели", null, "Алексей Саврасов", 1871,
+                "Передвижники", painting));
+        catalogReadModelService.awaitRefresh();
+        assertTrue(itemNames(catalogReadModelService.findExhibits(10)).contains("Грачи прилетели"));
+        assertEquals(4L, hallService.findListItems("живоп", null).get(0).exhibitCount());
+
+        painting.setName("Зал пейзажа");
+        hallService.save(painting);
+        catalogReadModelService.awaitRefresh();
+        assertEquals("Зал пейзажа", catalogReadModelService.findExhibits(10).get(0).hallName());
+
+        exhibitService.deleteById(added.getId());
+        catalogReadModelService.awaitRefresh();
+        assertFalse(itemNames(catalogReadModelService.findExhibits(10)).contains("Грачи прилетели"));
+
+        Exhibition exhibition = exhibitionRepository.findAll().get(0);
+        exhibitionService.deleteById(exhibition.getId());
+        catalogReadModelService.awaitRefresh();
+        assertTrue(exhibitionService.findListItems().isEmpty());
+    }
+
+    @Test
+    void listsAreReadWithoutQueries() {
+        exhibitService.findListItems(null, null, null);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+
+        assertEquals(3, exhibitService.findListItems(null, null, null).size());
+        assertEquals(2, hallService.findListItems(null, null).size());
+        assertEquals(1, exhibitionService.findListItems().size());
+        assertEquals(List.of("Передвижники"),
+                exhibitionService.findListItems().stream().map(ExhibitionListItem::title).toList());
+        assertEquals(before, statistics.getPrepareStatementCount());
+
+        // поиск по тексту выполняется в базе
+        assertEquals(3, exhibitService.findListItems(null, "и", null).size());
+        assertEquals(before + 1, statistics.getPrepareStatementCount());
+    }
+
+    private static List<String> itemNames(List<ExhibitListItem> items) {
+        return items.stream().map(ExhibitListItem::name).toList();
+    }
+}
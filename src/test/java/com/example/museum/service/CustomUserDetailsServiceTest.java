@@ -0,0 +1,99 @@
+package com.example.museum.service;
+
+import com.example.museum.model.Role;
+import com.example.museum.model.User;
+import com.example.museum.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+/**
+ * Проверяет кеширование пользователей при входе, его сброс после изменения пользователя
+ * и отказ во входе по фильтру email без запроса к базе данных.
+ */
+class CustomUserDetailsServiceTest {
+
+    private static final String EMAIL = "guide@museum.com";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserEmailFilterService userEmailFilterService = mock(UserEmailFilterService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CustomUserDetailsService userDetailsService;
+
+    private final UserRevisionService userRevisionService = new UserRevisionServiceImpl(
+            event -> userDetailsService.onUserChanged((UserChangedEvent) event), email -> { }, 10_000);
+
+    @BeforeEach
+    void setUp() {
+        when(userEmailFilterService.mightExist(EMAIL)).thenReturn(true);
+    }
+
+    @Test
+    void repeatedLoginsAreServedFromCache() {
+        userDetailsService = create();
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(new User(EMAIL, "hash", Role.GUIDE, "Гид")));
+
+        MuseumUserDetails first = userDetailsService.loadUserByUsername(EMAIL);
+        first.eraseCredentials();
+        MuseumUserDetails second = userDetailsService.loadUserByUsername(EMAIL);
+
+        assertEquals("hash", second.getPassword());
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void changedUserIsReloaded() {
+        userDetailsService = create();
+        when(userRepository.findByEmail(EMAIL))
+                .thenReturn(Optional.of(new User(EMAIL, "hash", Role.GUIDE, "Гид")))
+                .thenReturn(Optional.of(new User(EMAIL, "hash", Role.ADMIN, "Гид")));
+
+        assertEquals(Role.GUIDE, userDetailsService.loadUserByUsername(EMAIL).getRole());
+        userRevisionService.markChanged(EMAIL);
+        MuseumUserDetails reloaded = userDetailsService.loadUserByUsername(EMAIL);
+
+        assertEquals(Role.ADMIN, reloaded.getRole());
+        assertFalse(userRevisionService.isStale(reloaded));
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void unknownUserIsNotCached() {
+        userDetailsService = create();
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername(EMAIL));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername(EMAIL));
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+        verify(userEmailFilterService, times(2)).recordFalsePositive();
+    }
+
+    @Test
+    void emailAbsentFromFilterIsRejectedWithoutQuery() {
+        userDetailsService = create();
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("stranger@example.org"));
+        verify(userRepository, never()).findByEmail("stranger@example.org");
+    }
+
+    private CustomUserDetailsService create() {
+        return new CustomUserDetailsService(userRepository, mock(UserService.class), userRevisionService, userEmailFilterService,
+                meterRegistry, 100, Duration.ofMinutes(10));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.ExhibitListItem;
+import com.example.museum.dto.ExhibitSearchResult;
+import com.example.museum.model.Exhibit;
+import com.example.museum.model.Hall;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет поиск экспонатов по подстроке в названии, авторе и эпохе
+ * и загрузку зала тем же запросом, что и экспонаты, а также строки списка без загрузки сущностей.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ExhibitServiceImpl.class, CatalogReadModelServiceImpl.class})
+@TestPropertySource(properties = "museum.exhibits.search-limit=3")
+class ExhibitServiceImplTest {
+
+    @Autowired
+    private ExhibitService exhibitService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        Hall hall = new Hall("Зал живописи", 1, 50, null);
+        entityManager.persist(hall);
+        entityManager.persist(new Exhibit("Утро в сосновом лесу", null, "Иван Шишкин", 1889, "Передвижники", hall));
+        entityManager.persist(new Exhibit("Рожь", null, "Иван Шишкин", 1878, "Передвижники", hall));
+        entityManager.persist(new Exhibit("Девятый вал", null, "Иван Айвазовский", 1850, "Романтизм", hall));
+        entityManager.persist(new Exhibit("Скидка 100%", null, "Неизвестный_автор", 2001, "Современность", hall));
+        entityManager.persist(new Exhibit("Скидка 1000", null, "Неизвестный автор", 2002, "Современность", hall));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void searchIgnoresCaseAndCombinesOnlyGivenCriteria() {
+        assertEquals(List.of("Рожь", "Утро в сосновом лесу"), names(exhibitService.search(null, "шишкин", "  ")));
+        assertEquals(List.of("Утро в сосновом лесу"), names(exhibitService.search("ЛЕС", "Шишкин", "передвиж")));
+        assertEquals(List.of("Девятый вал"), names(exhibitService.searchByAuthorAndEra("айваз", "")));
+    }
+
+    @Test
+    void searchTreatsWildcardsLiterally() {
+        assertEquals(List.of("Скидка 100%"), names(exhibitService.search("100%", null, null)));
+        assertEquals(List.of("Скидка 100%"), names(exhibitService.search(null, "й_а", null)));
+    }
+
+    @Test
+    void searchIsLimitedButBlankCriteriaReturnAll() {
+        assertEquals(3, exhibitService.search(null, "и", null).size());
+        assertEquals(5, exhibitService.search(null, null, "").size());
+    }
+
+    @Test
+    void listAndEditFormLoadHallWithTheSameQuery() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Exhibit> exhibits = exhibitService.findAll();
+        List<Exhibit> found = exhibitService.search(null, "шишкин", null);
+        entityManager.clear();
+        Exhibit exhibit = exhibitService.findById(exhibits.get(0).getId());
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertTrue(exhibits.stream().allMatch(e -> Hibernate.isInitialized(e.getHall())));
+        assertTrue(found.stream().allMatch(e -> Hibernate.isInitialized(e.getHall())));
+        assertTrue(Hibernate.isInitialized(exhibit.getHall()));
+    }
+
+    @Test
+    void listItemsFollowSearchRulesWithoutLoadingEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ExhibitListItem> all = exhibitService.findListItems(null, " ", null);
+        List<ExhibitListItem> found = exhibitService.findListItems(null, "шишкин", null);
+
+        assertEquals(3, all.size());
+        assertEquals(List.of("Рожь", "Утро в сосновом лесу"), found.stream().map(ExhibitListItem::name).toList());
+        assertEquals("Зал живописи", found.get(0).hallName());
+        assertEquals(3, exhibitService.findListItems(null, "и", null).size());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void searchResultReportsExhibitsBeyondTheLimit() {
+        ExhibitSearchResult truncated = exhibitService.searchListItems(null, "и", null);
+        ExhibitSearchResult complete = exhibitService.searchListItems(null, "шишкин", null);
+        ExhibitSearchResult all = exhibitService.searchListItems(null, null, null);
+
+        assertEquals(3, truncated.exhibits().size());
+        assertTrue(truncated.truncated());
+        assertEquals(3, truncated.limit());
+        assertEquals(2, complete.exhibits().size());
+        assertFalse(complete.truncated());
+        assertEquals(3, all.exhibits().size());
+        assertTrue(all.truncated());
+    }
+
+    private static List<String> names(List<Exhibit> exhibits) {
+        return exhibits.stream().map(Exhibit::getName).toList();
+    }
+}
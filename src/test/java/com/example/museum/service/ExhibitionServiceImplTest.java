@@ -0,0 +1,117 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.ExhibitionListItem;
+import com.example.museum.model.Exhibition;
+import com.example.museum.model.Role;
+import com.example.museum.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет, что список выставок, форма редактирования и выставки гида
+ * загружают куратора одним запросом вместе с выставками, а строки списка
+ * содержат имя куратора и обрезанное описание без загрузки сущностей.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ExhibitionServiceImpl.class, CatalogReadModelServiceImpl.class})
+class ExhibitionServiceImplTest {
+
+    @Autowired
+    private ExhibitionService exhibitionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long firstId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= 3; i++) {
+            User guide = new User("guide" + i + "@museum.com", "hash", Role.GUIDE, "Гид " + i);
+            entityManager.persist(guide);
+            for (int j = 0; j < 2; j++) {
+                Exhibition exhibition = new Exhibition("Выставка " + i + "." + j,
+                        LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), guide, null);
+                entityManager.persist(exhibition);
+                if (firstId == null) {
+                    firstId = exhibition.getId();
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listLoadsCuratorsWithTheSameQuery() {
+        List<Exhibition> exhibitions = exhibitionService.findAll();
+
+        assertEquals(6, exhibitions.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(exhibitions.stream().allMatch(e -> Hibernate.isInitialized(e.getCurator())));
+    }
+
+    @Test
+    void editFormLoadsCuratorWithTheSameQuery() {
+        Exhibition exhibition = exhibitionService.findById(firstId);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(Hibernate.isInitialized(exhibition.getCurator()));
+        assertEquals("guide1@museum.com", exhibition.getCurator().getEmail());
+    }
+
+    @Test
+    void listItemsCarryCuratorNameAndTruncatedDescription() {
+        Exhibition exhibition = entityManager.find(Exhibition.class, firstId);
+        exhibition.setDescription("Ж".repeat(250));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<ExhibitionListItem> items = exhibitionService.findListItems();
+
+        assertEquals(6, items.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        ExhibitionListItem first = items.get(0);
+        assertEquals("Гид 1", first.curatorFullName());
+        assertEquals(200, first.descriptionPreview().length());
+        assertTrue(first.descriptionTruncated());
+        assertNull(items.get(1).descriptionPreview());
+        assertFalse(items.get(1).descriptionTruncated());
+    }
+
+    @Test
+    void guideExhibitionsLoadCuratorWithTheSameQuery() {
+        List<Exhibition> exhibitions = exhibitionService.findByCuratorEmail("guide2@museum.com");
+
+        assertEquals(2, exhibitions.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(exhibitions.stream().allMatch(e -> Hibernate.isInitialized(e.getCurator())));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.HallListItem;
+import com.example.museum.model.Exhibit;
+import com.example.museum.model.Hall;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет строки списка залов: фильтры по названию и этажу, обрезку описания
+ * и подсчёт экспонатов в запросе.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({HallServiceImpl.class, CatalogReadModelServiceImpl.class})
+@TestPropertySource(properties = "museum.catalog.description-preview-length=10")
+class HallServiceImplTest {
+
+    @Autowired
+    private HallService hallService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Hall painting = new Hall("Зал живописи", 1, 50, "Русская живопись XIX века");
+        entityManager.persist(painting);
+        entityManager.persist(new Exhibit("Рожь", null, "Иван Шишкин", 1878, "Передвижники", painting));
+        entityManager.persist(new Exhibit("Девятый вал", null, "Иван Айвазовский", 1850, "Романтизм", painting));
+        entityManager.persist(new Hall("Зал скульптуры", 2, 30, "Бюсты"));
+        entityManager.persist(new Hall("Зал_100%", 2, 10, null));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void descriptionIsTruncatedAndExhibitsCountedInQuery() {
+        List<HallListItem> halls = hallService.findListItems(null, null);
+
+        assertEquals(3, halls.size());
+        assertEquals("Русская жи", halls.get(0).descriptionPreview());
+        assertTrue(halls.get(0).descriptionTruncated());
+        assertEquals("Бюсты", halls.get(1).descriptionPreview());
+        assertFalse(halls.get(1).descriptionTruncated());
+        assertEquals(List.of(2L, 0L, 0L), halls.stream().map(HallListItem::exhibitCount).toList());
+    }
+
+    @Test
+    void filtersMatchSearchByNameAndFloor() {
+        assertEquals(List.of("Зал живописи"), names(hallService.findListItems("ЖИВОП", null)));
+        assertEquals(List.of("Зал скульптуры", "Зал_100%"), names(hallService.findListItems(" ", 2)));
+        assertEquals(List.of("Зал скульптуры"), names(hallService.findListItems("скульп", 2)));
+        assertEquals(List.of("Зал_100%"), names(hallService.findListItems("_100%", null)));
+    }
+
+    private static List<String> names(List<HallListItem> halls) {
+        return halls.stream().map(HallListItem::name).toList();
+    }
+}
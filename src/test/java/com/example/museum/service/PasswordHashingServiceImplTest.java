@@ -0,0 +1,64 @@
+package com.example.museum.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет хеширование паролей в отдельном пуле, совместимость со старыми хешами
+ * и признак необходимости перехеширования.
+ */
+class PasswordHashingServiceImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingServiceImpl service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void encodesWithPrefixAndRecordsTimings() {
+        service = create(4, 5_000);
+        String hash = service.encode("secret");
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$04$"));
+        assertTrue(service.matches("secret", hash));
+        assertFalse(service.matches("wrong", hash));
+        assertFalse(service.upgradeEncoding(hash));
+        assertEquals(1, meterRegistry.get("museum.password.hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("museum.password.hashing.duration").tag("operation", "matches").timer().count());
+        assertEquals(3, meterRegistry.get("museum.password.hashing.queue").timer().count());
+    }
+
+    @Test
+    void legacyAndCheaperHashesAreAcceptedAndMarkedForUpgrade() {
+        service = create(5, 5_000);
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        String cheaper = "{bcrypt}" + legacy;
+
+        assertTrue(service.matches("secret", legacy));
+        assertTrue(service.upgradeEncoding(legacy));
+        assertTrue(service.matches("secret", cheaper));
+        assertTrue(service.upgradeEncoding(cheaper));
+        assertFalse(service.upgradeEncoding(service.encode("secret")));
+    }
+
+    @Test
+    void slowHashingFailsAsAuthenticationError() {
+        service = create(12, 1);
+        assertThrows(PasswordHashingOverloadedException.class, () -> service.encode("secret"));
+    }
+
+    private PasswordHashingServiceImpl create(int cost, long timeoutMs) {
+        return new PasswordHashingServiceImpl(meterRegistry, cost, 250, 1, 10, timeoutMs);
+    }
+}
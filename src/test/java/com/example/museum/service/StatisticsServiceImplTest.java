@@ -0,0 +1,108 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.ExhibitionVisitStats;
+import com.example.museum.dto.GuideExhibitionStats;
+import com.example.museum.model.Exhibition;
+import com.example.museum.model.ExhibitionVisitCount;
+import com.example.museum.model.ExhibitionVisitorSketch;
+import com.example.museum.model.Role;
+import com.example.museum.model.User;
+import com.example.museum.util.HyperLogLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Проверяет, что построение статистики выполняет фиксированное число запросов
+ * независимо от количества выставок.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({StatisticsServiceImpl.class, VisitCounterServiceImpl.class, VisitorSketchServiceImpl.class})
+class StatisticsServiceImplTest {
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void queryCountDoesNotGrowWithExhibitions() {
+        long fewExhibitionsQueries = countQueries(3);
+        long manyExhibitionsQueries = countQueries(60);
+
+        // запросы Hibernate; эскизы посетителей читаются через JdbcTemplate одним запросом
+        assertEquals(2, fewExhibitionsQueries);
+        assertEquals(fewExhibitionsQueries, manyExhibitionsQueries);
+    }
+
+    @Test
+    void aggregatesVisitsAndGuides() {
+        User guide = persistGuide("guide@museum.com", "Гид Тестовый");
+        Exhibition visited = persistExhibition("Посещаемая", guide);
+        persistExhibition("Пустая", guide);
+        entityManager.persist(new ExhibitionVisitCount(visited.getId(), 2L));
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.add("visitor@museum.com");
+        entityManager.persist(new ExhibitionVisitorSketch(visited.getId(), sketch.toBytes()));
+        entityManager.flush();
+
+        List<ExhibitionVisitStats> visitStats = statisticsService.getExhibitionVisitStats();
+        assertEquals(2, visitStats.size());
+        assertEquals(2L, visitStats.get(0).visitCount());
+        assertEquals(1L, visitStats.get(0).uniqueVisitors());
+        assertEquals(0L, visitStats.get(1).visitCount());
+        assertEquals(0L, visitStats.get(1).uniqueVisitors());
+
+        List<GuideExhibitionStats> guideStats = statisticsService.getGuideExhibitionStats();
+        assertEquals(1, guideStats.size());
+        assertEquals("Гид Тестовый", guideStats.get(0).fullName());
+        assertEquals(2L, guideStats.get(0).exhibitionCount());
+    }
+
+    private long countQueries(int exhibitionCount) {
+        for (int i = 0; i < exhibitionCount; i++) {
+            User guide = persistGuide("guide" + exhibitionCount + "-" + i + "@museum.com", "Гид " + i);
+            Exhibition exhibition = persistExhibition("Выставка " + i, guide);
+            entityManager.persist(new ExhibitionVisitCount(exhibition.getId(), (long) i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        statisticsService.getExhibitionVisitStats();
+        statisticsService.getGuideExhibitionStats();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User persistGuide(String email, String fullName) {
+        User guide = new User(email, "hash", Role.GUIDE, fullName);
+        entityManager.persist(guide);
+        return guide;
+    }
+
+    private Exhibition persistExhibition(String title, User curator) {
+        Exhibition exhibition = new Exhibition(title, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), curator, null);
+        entityManager.persist(exhibition);
+        return exhibition;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.museum.service;
+
+import com.example.museum.model.Role;
+import com.example.museum.model.User;
+import com.example.museum.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет, что фильтр email отвечает «точно нет» только в том сеансе приёма оповещений,
+ * в котором он построен: после обрыва соединения и до перестроения проверки передаются базе.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class UserEmailFilterServiceImplTest {
+
+    private static final String STRANGER = "stranger@example.org";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong session = new AtomicLong(UserInvalidationBus.NOT_RECEIVING);
+    private UserEmailFilterServiceImpl filter;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.saveAndFlush(new User("guide@museum.com", "hash", Role.GUIDE, "Гид"));
+        UserInvalidationBus bus = new UserInvalidationBus() {
+            @Override
+            public void publish(String email) {
+            }
+
+            @Override
+            public long receivingSession() {
+                return session.get();
+            }
+        };
+        filter = new UserEmailFilterServiceImpl(jdbcTemplate, transactionManager, bus, meterRegistry, 1000, 0.01);
+    }
+
+    @Test
+    void negativeAnswerIsTrustedOnlyWithinTheSessionItWasBuiltIn() {
+        session.set(1);
+        filter.rebuild();
+        assertFalse(filter.mightExist(STRANGER));
+        assertTrue(filter.mightExist("guide@museum.com"));
+        // поиск пользователя в базе учитывает регистр: другой регистр — другой email
+        assertFalse(filter.mightExist("Guide@Museum.com"));
+
+        // соединение для оповещений потеряно: регистрация на другом узле может быть пропущена
+        session.set(UserInvalidationBus.NOT_RECEIVING);
+        assertTrue(filter.mightExist(STRANGER));
+        userRepository.saveAndFlush(new User(STRANGER, "hash", Role.VISITOR, "Посетитель"));
+
+        // новое соединение: до перестроения фильтр по-прежнему не отвечает сам
+        session.set(2);
+        assertTrue(filter.mightExist(STRANGER));
+        filter.rebuild();
+        assertTrue(filter.mightExist(STRANGER));
+        assertFalse(filter.mightExist("nobody@example.org"));
+
+        assertEquals(2, meterRegistry.get("museum.users.email_filter.checks").tag("result", "bypassed").counter().count());
+    }
+
+    @Test
+    void withoutNotificationsEveryCheckGoesToTheDatabase() {
+        filter.rebuild();
+
+        assertTrue(filter.mightExist(STRANGER));
+        filter.recordFalsePositive();
+        assertEquals(0, meterRegistry.get("museum.users.email_filter.false_positives").counter().count());
+    }
+}
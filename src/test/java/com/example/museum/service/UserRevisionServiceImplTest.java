@@ -0,0 +1,91 @@
+package com.example.museum.service;
+
+import com.example.museum.model.Role;
+import com.example.museum.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет определение устаревших данных пользователя в сессии.
+ */
+class UserRevisionServiceImplTest {
+
+    private final List<Object> events = new ArrayList<>();
+    private final List<String> published = new ArrayList<>();
+    private final UserRevisionService userRevisionService = new UserRevisionServiceImpl(events::add, published::add, 10_000);
+
+    @Test
+    void principalBecomesStaleOnlyAfterItsUserChanges() {
+        MuseumUserDetails guide = load("guide@museum.com", Role.GUIDE);
+        MuseumUserDetails visitor = load("visitor@museum.com", Role.VISITOR);
+        assertFalse(userRevisionService.isStale(guide));
+
+        userRevisionService.markChanged("guide@museum.com");
+
+        assertTrue(userRevisionService.isStale(guide));
+        assertFalse(userRevisionService.isStale(visitor));
+        assertFalse(userRevisionService.isStale(load("guide@museum.com", Role.ADMIN)));
+        assertEquals(List.of(new UserChangedEvent("guide@museum.com")), events);
+        assertEquals(List.of("guide@museum.com"), published);
+    }
+
+    @Test
+    void remoteChangesAreAppliedWithoutRepublishing() {
+        MuseumUserDetails guide = load("guide@museum.com", Role.GUIDE);
+        MuseumUserDetails visitor = load("visitor@museum.com", Role.VISITOR);
+
+        userRevisionService.applyRemoteChange("guide@museum.com");
+        assertTrue(userRevisionService.isStale(guide));
+        assertFalse(userRevisionService.isStale(visitor));
+
+        userRevisionService.markAllChanged();
+        assertTrue(userRevisionService.isStale(visitor));
+        assertEquals(List.of(new UserChangedEvent("guide@museum.com"), new UserChangedEvent(null)), events);
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void changeDuringLoadingMakesPrincipalStale() {
+        // версия берётся до чтения пользователя из базы
+        long revision = userRevisionService.currentRevision();
+        userRevisionService.markChanged("guide@museum.com");
+
+        assertTrue(userRevisionService.isStale(
+                new MuseumUserDetails(new User("guide@museum.com", "hash", Role.GUIDE, "Гид"), revision)));
+    }
+
+    @Test
+    void forgottenChangesMakeOlderPrincipalsStale() {
+        UserRevisionService bounded = new UserRevisionServiceImpl(events::add, published::add, 4);
+        MuseumUserDetails untouched = load(bounded, "visitor@museum.com");
+        for (int i = 1; i <= 4; i++) {
+            bounded.markChanged("user" + i + "@museum.com");
+        }
+        MuseumUserDetails beforeFifth = load(bounded, "guide@museum.com");
+        assertFalse(bounded.isStale(untouched));
+
+        // пятый изменённый пользователь превышает предел: изменения с версиями 1-3 забываются
+        bounded.markChanged("guide@museum.com");
+
+        assertTrue(bounded.isStale(untouched));
+        assertTrue(bounded.isStale(beforeFifth));
+        assertTrue(bounded.isChangedSince("user4@museum.com", 3));
+        assertFalse(bounded.isChangedSince("user1@museum.com", 3));
+        assertFalse(bounded.isStale(load(bounded, "visitor@museum.com")));
+    }
+
+    private MuseumUserDetails load(UserRevisionService service, String email) {
+        return new MuseumUserDetails(new User(email, "hash", Role.VISITOR, "Пользователь"), service.currentRevision());
+    }
+
+    private MuseumUserDetails load(String email, Role role) {
+        return new MuseumUserDetails(new User(email, "hash", role, "Пользователь"), userRevisionService.currentRevision());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.museum.service;
+
+import com.example.museum.model.Exhibition;
+import com.example.museum.model.Visit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Проверяет формат и фильтры потоковой выгрузки посещений.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({VisitExportServiceImpl.class, ObjectMapper.class})
+class VisitExportServiceImplTest {
+
+    @Autowired
+    private VisitExportService visitExportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Exhibition ferns;
+
+    @BeforeEach
+    void setUp() {
+        ferns = persistExhibition("Папоротники, мхи и \"лишайники\"");
+        Exhibition cacti = persistExhibition("Кактусы");
+        persistVisit("a@museum.com", LocalDateTime.of(2025, 3, 1, 10, 0), ferns);
+        persistVisit("b@museum.com", LocalDateTime.of(2025, 3, 2, 11, 30, 15, 250_000_000), cacti);
+        persistVisit("c@museum.com", LocalDateTime.of(2025, 3, 3, 9, 0), ferns);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void writesCsvWithHeaderAndEscaping() throws IOException {
+        List<String> lines = export(VisitExportService.Format.CSV, null, null, null);
+
+        assertEquals(4, lines.size());
+        assertEquals("id,visitor_email,visit_date,exhibition_id,exhibition_title", lines.get(0));
+        assertEquals(",a@museum.com,2025-03-01 10:00:00," + ferns.getId() + ",\"Папоротники, мхи и \"\"лишайники\"\"\"",
+                lines.get(1).substring(lines.get(1).indexOf(',')));
+        assertEquals("2025-03-02 11:30:15.25", lines.get(2).split(",")[2]);
+    }
+
+    @Test
+    void appliesDateAndExhibitionFilters() throws IOException {
+        List<String> byDate = export(VisitExportService.Format.NDJSON,
+                LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 3), null);
+        assertEquals(2, byDate.size());
+
+        List<String> byExhibition = export(VisitExportService.Format.NDJSON, null, null, ferns.getId());
+        assertEquals(2, byExhibition.size());
+        assertEquals("a@museum.com", new ObjectMapper().readTree(byExhibition.get(0)).get("visitorEmail").asText());
+    }
+
+    private List<String> export(VisitExportService.Format format, LocalDate from, LocalDate to, Long exhibitionId)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        visitExportService.export(format, from, to, exhibitionId, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private Exhibition persistExhibition(String title) {
+        Exhibition exhibition = new Exhibition(title, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), null, null);
+        entityManager.persist(exhibition);
+        return exhibition;
+    }
+
+    private void persistVisit(String email, LocalDateTime visitDate, Exhibition exhibition) {
+        Visit visit = new Visit(email, exhibition);
+        visit.setVisitDate(visitDate);
+        entityManager.persist(visit);
+    }
+}
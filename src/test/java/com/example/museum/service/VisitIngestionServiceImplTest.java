@@ -0,0 +1,198 @@
+package com.example.museum.service;
+
+import com.example.museum.model.Visit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+
+/**
+ * Проверяет приём посещений: синхронную запись, пакетную запись из очереди,
+ * синхронную запись при переполненной очереди, запись по одному при ошибке пакета
+ * и дозапись очереди при остановке, в том числе во время продолжающихся регистраций.
+ */
+class VisitIngestionServiceImplTest {
+
+    private final VisitService visitService = mock(VisitService.class);
+    private final List<Visit> saved = Collections.synchronizedList(new ArrayList<>());
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    VisitIngestionServiceImplTest() {
+        doAnswer(invocation -> {
+            Visit visit = invocation.getArgument(0);
+            saved.add(visit);
+            return visit;
+        }).when(visitService).save(any());
+        doAnswer(invocation -> {
+            List<Visit> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            saved.addAll(batch);
+            return null;
+        }).when(visitService).saveAll(anyList());
+    }
+
+    @Test
+    void syncModeSavesImmediately() {
+        VisitIngestionServiceImpl ingestion = ingestion("sync", 10, 200);
+        ingestion.start();
+
+        Visit visit = visit(1);
+        ingestion.register(visit);
+
+        assertEquals(List.of(visit), saved);
+        verify(visitService, never()).saveAll(anyList());
+    }
+
+    @Test
+    void writeBehindSavesQueuedVisitsInBatches() throws InterruptedException {
+        VisitIngestionServiceImpl ingestion = ingestion("write-behind", 100, 200);
+        ingestion.start();
+
+        for (int i = 0; i < 12; i++) {
+            ingestion.register(visit(i));
+        }
+        awaitSaved(12);
+        ingestion.stop();
+
+        verify(visitService, never()).save(any());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 5), batchSizes.toString());
+        assertEquals(12, batchSizes.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void fullQueueSavesSynchronously() throws InterruptedException {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writerBlocked.countDown();
+            release.await();
+            saved.addAll(invocation.<List<Visit>>getArgument(0));
+            return null;
+        }).when(visitService).saveAll(anyList());
+        VisitIngestionServiceImpl ingestion = ingestion("write-behind", 1, 0);
+        ingestion.start();
+
+        ingestion.register(visit(1));
+        assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+        ingestion.register(visit(2));
+        Visit overflow = visit(3);
+        ingestion.register(overflow);
+
+        // фоновый поток занят первым пакетом, второе посещение ждёт в очереди, третье записано сразу
+        assertEquals(List.of(overflow), saved);
+        release.countDown();
+        ingestion.stop();
+        assertEquals(3, saved.size());
+    }
+
+    @Test
+    void failedBatchIsSavedOneByOne() throws InterruptedException {
+        doThrow(new IllegalStateException("нарушено ограничение")).when(visitService).saveAll(anyList());
+        VisitIngestionServiceImpl ingestion = ingestion("write-behind", 100, 200);
+        ingestion.start();
+
+        ingestion.register(visit(1));
+        ingestion.register(visit(2));
+        awaitSaved(2);
+        ingestion.stop();
+
+        verify(visitService).save(saved.get(0));
+        verify(visitService).save(saved.get(1));
+    }
+
+    @Test
+    void stopWritesEveryVisitRegisteredConcurrently() throws Exception {
+        VisitIngestionServiceImpl ingestion = ingestion("write-behind", 10_000, 200);
+        ingestion.start();
+
+        int threads = 8;
+        int perThread = 2_000;
+        CountDownLatch registering = new CountDownLatch(threads);
+        List<Future<?>> registrations = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                int offset = t * perThread;
+                registrations.add(executor.submit(() -> {
+                    registering.countDown();
+                    for (int i = 0; i < perThread; i++) {
+                        ingestion.register(visit(offset + i));
+                    }
+                }));
+            }
+            assertTrue(registering.await(5, TimeUnit.SECONDS));
+            // остановка посреди регистраций: после неё посещения пишутся синхронно
+            ingestion.stop();
+            for (Future<?> registration : registrations) {
+                registration.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        assertEquals(threads * perThread, saved.size());
+        assertEquals(threads * perThread, saved.stream().distinct().count());
+    }
+
+    @Test
+    void registrationWaitingForSpaceDuringStopIsNotLost() throws Exception {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writerBlocked.countDown();
+            release.await();
+            saved.addAll(invocation.<List<Visit>>getArgument(0));
+            return null;
+        }).when(visitService).saveAll(anyList());
+        VisitIngestionServiceImpl ingestion = ingestion("write-behind", 1, 2_000);
+        ingestion.start();
+
+        ingestion.register(visit(1));
+        assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+        ingestion.register(visit(2));
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            // ждёт места в заполненной очереди, пока приложение останавливается
+            Future<?> waiting = executor.submit(() -> ingestion.register(visit(3)));
+            Thread.sleep(100);
+            Future<?> stopping = executor.submit(() -> ingestion.stop());
+            Thread.sleep(100);
+            release.countDown();
+            waiting.get(10, TimeUnit.SECONDS);
+            stopping.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(3, saved.size());
+    }
+
+    private VisitIngestionServiceImpl ingestion(String mode, int queueCapacity, long offerTimeoutMs) {
+        return new VisitIngestionServiceImpl(visitService, mode, queueCapacity, 5, 20, offerTimeoutMs);
+    }
+
+    private void awaitSaved(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (saved.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, saved.size());
+    }
+
+    private static Visit visit(int number) {
+        Visit visit = new Visit();
+        visit.setVisitorEmail("visitor" + number + "@museum.com");
+        return visit;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.museum.service;
+
+import com.example.museum.config.EmbeddedPostgresConfig;
+import com.example.museum.controller.StatisticsController;
+import com.example.museum.dto.VisitTimelinePoint;
+import com.example.museum.model.Exhibition;
+import com.example.museum.repository.ExhibitionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет агрегаты посещений на встроенном PostgreSQL со схемой из миграций:
+ * учёт посещений, записанных позже своей даты, удалений и переноса даты,
+ * совпадение посуточных агрегатов с суммой почасовых, график {@code /statistics/timeline}
+ * и создание секции месяца, посещения которого уже попали в секцию по умолчанию.
+ * <p>
+ * Агрегация выполняется в собственной транзакции, поэтому тест выполняется без общей транзакции.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EmbeddedPostgresConfig.class, VisitRollupServiceImpl.class, StatisticsController.class,
+        StatisticsServiceImpl.class, VisitCounterServiceImpl.class, VisitorSketchServiceImpl.class})
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "museum.visit-rollups.enabled=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VisitRollupServiceImplTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2025, 3, 1, 10, 15);
+
+    @Autowired
+    private VisitRollupService visitRollupService;
+
+    @Autowired
+    private StatisticsController statisticsController;
+
+    @Autowired
+    private ExhibitionRepository exhibitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Exhibition orchids;
+    private Exhibition cacti;
+
+    @BeforeEach
+    void setUp() {
+        orchids = exhibitionRepository.save(new Exhibition("Орхидеи", LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31), null, null));
+        cacti = exhibitionRepository.save(new Exhibition("Кактусы", LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31), null, null));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM visits");
+        visitRollupService.rollUp();
+        exhibitionRepository.deleteAll();
+    }
+
+    @Test
+    void countsEveryVisitByHourAndDay() {
+        insertVisit("a@museum.com", MORNING, orchids);
+        insertVisit("b@museum.com", MORNING.plusMinutes(30), orchids);
+        insertVisit("c@museum.com", MORNING.plusHours(1), orchids);
+        insertVisit("a@museum.com", MORNING.plusDays(1), cacti);
+
+        visitRollupService.rollUp();
+
+        assertEquals(Map.of(MORNING.withMinute(0), 2L, MORNING.withMinute(0).plusHours(1), 1L),
+                hourly(orchids));
+        assertEquals(Map.of(LocalDate.of(2025, 3, 1), 3L), daily(orchids));
+        assertEquals(Map.of(LocalDate.of(2025, 3, 2), 1L), daily(cacti));
+        assertDailyIsSumOfHourly();
+    }
+
+    @Test
+    void visitWrittenAfterItsHourWasRolledUpIsCounted() {
+        insertVisit("a@museum.com", MORNING, orchids);
+        visitRollupService.rollUp();
+
+        // пакет очереди отложенной записи, повторённый после сбоя: дата посещения давно прошла
+        insertVisit("b@museum.com", MORNING.plusMinutes(5), orchids);
+        visitRollupService.rollUp();
+
+        assertEquals(Map.of(MORNING.withMinute(0), 2L), hourly(orchids));
+        assertEquals(Map.of(LocalDate.of(2025, 3, 1), 2L), daily(orchids));
+    }
+
+    @Test
+    void deletedAndMovedVisitsAreSubtracted() {
+        long first = insertVisit("a@museum.com", MORNING, orchids);
+        long second = insertVisit("b@museum.com", MORNING, orchids);
+        insertVisit("c@museum.com", MORNING, cacti);
+        visitRollupService.rollUp();
+
+        jdbcTemplate.update("DELETE FROM visits WHERE id = ?", first);
+        jdbcTemplate.update("UPDATE visits SET visit_date = ? WHERE id = ?",
+                Timestamp.valueOf(MORNING.plusDays(3)), second);
+        jdbcTemplate.update("DELETE FROM visits WHERE exhibition_id = ?", cacti.getId());
+        visitRollupService.rollUp();
+
+        assertEquals(Map.of(MORNING.withMinute(0).plusDays(3), 1L), hourly(orchids));
+        assertEquals(Map.of(LocalDate.of(2025, 3, 4), 1L), daily(orchids));
+        assertTrue(hourly(cacti).isEmpty());
+        assertTrue(daily(cacti).isEmpty());
+        assertDailyIsSumOfHourly();
+    }
+
+    @Test
+    void repeatedRunWithoutChangesKeepsCounts() {
+        insertVisit("a@museum.com", MORNING, orchids);
+        visitRollupService.rollUp();
+        visitRollupService.rollUp();
+
+        assertEquals(Map.of(MORNING.withMinute(0), 1L), hourly(orchids));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM visit_rollup_dirty_hours", Integer.class));
+    }
+
+    @Test
+    void timelineIsBuiltFromRollups() {
+        insertVisit("a@museum.com", MORNING, orchids);
+        insertVisit("b@museum.com", MORNING.plusDays(1), orchids);
+        insertVisit("a@museum.com", MORNING.plusDays(1), cacti);
+        insertVisit("a@museum.com", MORNING.plusDays(1).plusMinutes(1), cacti);
+        visitRollupService.rollUp();
+
+        List<VisitTimelinePoint> hours = visitRollupService.findTimeline("hour",
+                MORNING.plusDays(1).withHour(0).withMinute(0), MORNING.plusDays(2).withHour(0).withMinute(0));
+        assertEquals(List.of("Кактусы", "Орхидеи"), hours.stream().map(VisitTimelinePoint::title).toList());
+        assertEquals(List.of(2L, 1L), hours.stream().map(VisitTimelinePoint::visitCount).toList());
+
+        ExtendedModelMap model = new ExtendedModelMap();
+        String view = statisticsController.showVisitTimeline("day", LocalDate.of(2025, 3, 1),
+                LocalDate.of(2025, 3, 2), model);
+
+        assertEquals("statistics-timeline", view);
+        assertEquals(List.of("01.03.2025", "02.03.2025"), model.getAttribute("timelineLabels"));
+        Collection<?> datasets = (Collection<?>) model.getAttribute("timelineDatasets");
+        Map<?, ?> orchidsData = datasets.stream().map(Map.class::cast)
+                .filter(dataset -> dataset.get("label").toString().startsWith("Орхидеи")).findFirst().orElseThrow();
+        Map<?, ?> cactiData = datasets.stream().map(Map.class::cast)
+                .filter(dataset -> dataset.get("label").toString().startsWith("Кактусы")).findFirst().orElseThrow();
+        assertArrayEquals(new long[]{1, 1}, (long[]) orchidsData.get("data"));
+        assertArrayEquals(new long[]{0, 2}, (long[]) cactiData.get("data"));
+    }
+
+    @Test
+    void visitsInTheDefaultPartitionAreMovedToTheNewPartition() {
+        YearMonth month = YearMonth.now().plusMonths(1);
+        String partition = "visits_" + month.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+        // секция не была создана вовремя: посещения месяца попали в секцию по умолчанию
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        LocalDateTime visitDate = month.atDay(1).atTime(12, 0);
+        long visit = insertVisit("a@museum.com", visitDate, orchids);
+        insertVisit("b@museum.com", visitDate.plusHours(1), orchids);
+
+        visitRollupService.rollUp();
+
+        assertEquals(partition, jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM visits WHERE id = ?", String.class, visit));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM visits_default", Integer.class));
+        assertEquals(Map.of(month.atDay(1), 2L), daily(orchids));
+
+        // секция по умолчанию снова принимает посещения вне созданных секций
+        insertVisit("c@museum.com", visitDate.plusYears(5), orchids);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM visits_default", Integer.class));
+    }
+
+    private long insertVisit(String email, LocalDateTime visitDate, Exhibition exhibition) {
+        return jdbcTemplate.queryForObject("INSERT INTO visits (id, visitor_email, visit_date, exhibition_id) " +
+                        "VALUES (nextval('visits_seq'), ?, ?, ?) RETURNING id", Long.class,
+                email, Timestamp.valueOf(visitDate), exhibition.getId());
+    }
+
+    private Map<LocalDateTime, Long> hourly(Exhibition exhibition) {
+        return Map.copyOf(jdbcTemplate.query("SELECT bucket_start, visit_count FROM visit_rollups_hourly " +
+                "WHERE exhibition_id = ?", rs -> {
+            Map<LocalDateTime, Long> counts = new HashMap<>();
+            while (rs.next()) {
+                counts.put(rs.getTimestamp(1).toLocalDateTime(), rs.getLong(2));
+            }
+            return counts;
+        }, exhibition.getId()));
+    }
+
+    private Map<LocalDate, Long> daily(Exhibition exhibition) {
+        return Map.copyOf(jdbcTemplate.query("SELECT bucket_date, visit_count FROM visit_rollups_daily " +
+                "WHERE exhibition_id = ?", rs -> {
+            Map<LocalDate, Long> counts = new HashMap<>();
+            while (rs.next()) {
+                counts.put(rs.getDate(1).toLocalDate(), rs.getLong(2));
+            }
+            return counts;
+        }, exhibition.getId()));
+    }
+
+    private void assertDailyIsSumOfHourly() {
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (" +
+                "SELECT exhibition_id, bucket_start::date, SUM(visit_count) FROM visit_rollups_hourly GROUP BY 1, 2 " +
+                "EXCEPT SELECT exhibition_id, bucket_date, visit_count FROM visit_rollups_daily) diff", Integer.class));
+    }
+}
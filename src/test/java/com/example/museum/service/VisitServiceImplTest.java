@@ -0,0 +1,159 @@
+package com.example.museum.service;
+
+import com.example.museum.dto.VisitPage;
+import com.example.museum.model.Exhibition;
+import com.example.museum.model.Visit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет постраничный просмотр журнала посещений по позиции (курсору)
+ * и загрузку выставок тем же запросом, что и посещения.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({VisitServiceImpl.class, VisitCounterServiceImpl.class, VisitorSketchServiceImpl.class})
+class VisitServiceImplTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    @Autowired
+    private VisitService visitService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Visit> visits = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Exhibition> exhibitions = new ArrayList<>();
+        for (String title : List.of("Орхидеи", "Кактусы", "Папоротники")) {
+            Exhibition exhibition = new Exhibition(title, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), null, null);
+            entityManager.persist(exhibition);
+            exhibitions.add(exhibition);
+        }
+        for (int i = 0; i < 23; i++) {
+            Visit visit = new Visit();
+            visit.setVisitorEmail(i % 2 == 0 ? "even@museum.com" : "odd@museum.com");
+            // одинаковые даты у соседних посещений проверяют сравнение по id при равном ключе
+            visit.setVisitDate(START.plusHours(i / 2));
+            visit.setExhibition(exhibitions.get(i % exhibitions.size()));
+            entityManager.persist(visit);
+            visits.add(visit);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void walksWholeJournalInEachOrderWithoutGapsOrDuplicates() {
+        Comparator<Visit> byTitle = Comparator.comparing((Visit v) -> v.getExhibition().getTitle())
+                .thenComparing(Visit::getId);
+        Comparator<Visit> byDate = Comparator.comparing(Visit::getVisitDate).thenComparing(Visit::getId);
+
+        assertEquals(ids(sorted(byTitle)), walk("asc", null));
+        assertEquals(ids(sorted(byTitle.reversed())), walk("desc", null));
+        assertEquals(ids(sorted(byDate.reversed())), walk("date", null));
+    }
+
+    @Test
+    void walksVisitorHistory() {
+        List<Long> history = walk("date", "odd@museum.com");
+
+        assertEquals(11, history.size());
+        assertEquals(11, new HashSet<>(history).size());
+    }
+
+    @Test
+    void cursorStaysValidWhenNewVisitsArrive() {
+        VisitPage first = visitService.findPage("date", null, 5);
+
+        Visit newer = new Visit();
+        newer.setVisitorEmail("late@museum.com");
+        newer.setVisitDate(START.plusDays(1));
+        newer.setExhibition(visits.get(0).getExhibition());
+        entityManager.persist(newer);
+        entityManager.flush();
+
+        VisitPage second = visitService.findPage("date", first.nextCursor(), 5);
+        Set<Long> firstIds = new HashSet<>(ids(first.visits()));
+        assertTrue(second.visits().stream().noneMatch(v -> firstIds.contains(v.getId())));
+        assertTrue(second.visits().stream().noneMatch(v -> v.getId().equals(newer.getId())));
+    }
+
+    @Test
+    void invalidCursorStartsFromFirstPage() {
+        VisitPage page = visitService.findPage("asc", "не-курсор", 100);
+
+        assertEquals(23, page.visits().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void everyVisitListLoadsExhibitionsWithTheSameQuery() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Supplier<List<Visit>>> lists = List.of(
+                () -> visitService.findPage("date", null, 100).visits(),
+                () -> visitService.findVisitorPage("odd@museum.com", "asc", null, 100).visits(),
+                () -> visitService.findAllSortedByExhibitionTitle("desc"),
+                () -> visitService.findVisitsByVisitorEmail("even@museum.com", "asc"));
+
+        for (Supplier<List<Visit>> list : lists) {
+            entityManager.clear();
+            statistics.clear();
+            List<Visit> loaded = list.get();
+
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertTrue(loaded.stream().allMatch(v -> Hibernate.isInitialized(v.getExhibition())));
+        }
+    }
+
+    private List<Long> walk(String sort, String visitorEmail) {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            VisitPage page = visitorEmail == null
+                    ? visitService.findPage(sort, cursor, 5)
+                    : visitService.findVisitorPage(visitorEmail, sort, cursor, 5);
+            assertTrue(page.visits().size() <= 5);
+            seen.addAll(ids(page.visits()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private List<Visit> sorted(Comparator<Visit> order) {
+        return visits.stream().sorted(order).toList();
+    }
+
+    private static List<Long> ids(List<Visit> page) {
+        return page.stream().map(Visit::getId).toList();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.museum.service;
+
+import com.example.museum.config.EmbeddedPostgresConfig;
+import com.example.museum.model.Exhibition;
+import com.example.museum.repository.ExhibitionRepository;
+import com.example.museum.repository.SeedVersionRepository;
+import com.example.museum.util.HyperLogLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет заполнение эскизов по существующим посещениям на встроенном PostgreSQL:
+ * эскизы новых посещений не отменяют заполнение, а отметка о завершении — отменяет.
+ * Проверяет также, что сохранённые эскизы перечитываются для оценок только после сброса.
+ * <p>
+ * Сброс эскизов выполняется в собственной транзакции, поэтому тест выполняется без общей транзакции.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EmbeddedPostgresConfig.class, VisitorSketchServiceImpl.class})
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VisitorSketchServiceImplTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2025, 3, 1, 10, 15);
+
+    @Autowired
+    private VisitorSketchServiceImpl visitorSketchService;
+
+    @Autowired
+    private ExhibitionRepository exhibitionRepository;
+
+    @Autowired
+    private SeedVersionRepository seedVersionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Exhibition orchids;
+
+    @BeforeEach
+    void setUp() {
+        // отметку ставит заполнение при запуске контекста; без неё база как после обновления приложения
+        seedVersionRepository.deleteById(VisitorSketchServiceImpl.BACKFILL_MARKER);
+        orchids = exhibitionRepository.save(new Exhibition("Орхидеи", LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31), null, null));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM visits");
+        jdbcTemplate.update("DELETE FROM visitor_sketches_daily");
+        jdbcTemplate.update("DELETE FROM exhibition_visitor_sketches");
+        exhibitionRepository.deleteAll();
+    }
+
+    @Test
+    void sketchesOfNewVisitsDoNotSkipBackfill() {
+        insertVisit("a@museum.com", MORNING);
+        insertVisit("b@museum.com", MORNING.plusDays(1));
+        // посещение после обновления записано в эскиз до заполнения по старым посещениям
+        visitorSketchService.record(orchids.getId(), MORNING.plusDays(2), "c@museum.com");
+        visitorSketchService.flush();
+
+        visitorSketchService.backfillOnce();
+
+        assertEquals(3L, visitorSketchService.estimateUniqueVisitors().get(orchids.getId()));
+        assertTrue(seedVersionRepository.existsById(VisitorSketchServiceImpl.BACKFILL_MARKER));
+    }
+
+    @Test
+    void completedBackfillIsNotRepeated() {
+        visitorSketchService.backfillOnce();
+        assertTrue(seedVersionRepository.existsById(VisitorSketchServiceImpl.BACKFILL_MARKER));
+
+        insertVisit("a@museum.com", MORNING);
+        visitorSketchService.backfillOnce();
+
+        assertTrue(visitorSketchService.estimateUniqueVisitors().isEmpty());
+    }
+
+    @Test
+    void storedSketchesAreReadAgainOnlyAfterAFlush() {
+        Exhibition ferns = exhibitionRepository.save(new Exhibition("Папоротники", LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31), null, null));
+        // тестовый профиль не держит эскизы в памяти, здесь нужен экземпляр с кешем
+        VisitorSketchServiceImpl cached = new VisitorSketchServiceImpl(seedVersionRepository, jdbcTemplate,
+                transactionManager, 3_600_000);
+        cached.record(orchids.getId(), MORNING, "a@museum.com");
+        cached.flush();
+        assertEquals(Map.of(orchids.getId(), 1L), cached.estimateUniqueVisitors());
+
+        // эскиз, сброшенный другим узлом, виден после истечения срока или после своего сброса
+        HyperLogLog other = new HyperLogLog();
+        other.add("b@museum.com");
+        jdbcTemplate.update("INSERT INTO exhibition_visitor_sketches (exhibition_id, sketch) VALUES (?, ?)",
+                ferns.getId(), other.toBytes());
+        cached.record(orchids.getId(), MORNING, "c@museum.com");
+        assertEquals(Map.of(orchids.getId(), 2L), cached.estimateUniqueVisitors());
+
+        cached.flush();
+        assertEquals(Map.of(orchids.getId(), 2L, ferns.getId(), 1L), cached.estimateUniqueVisitors());
+    }
+
+    private void insertVisit(String email, LocalDateTime visitDate) {
+        jdbcTemplate.update("INSERT INTO visits (id, visitor_email, visit_date, exhibition_id) " +
+                "VALUES (nextval('visits_seq'), ?, ?, ?)", email, Timestamp.valueOf(visitDate), orchids.getId());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.museum.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет отсутствие ложноотрицательных ответов и долю ложноположительных у {@link BloomFilter}.
+ */
+class BloomFilterTest {
+
+    @Test
+    void containsEveryAddedValue() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("visitor" + i + "@museum.com");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("visitor" + i + "@museum.com"));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfigured() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        assertFalse(filter.mightContain("visitor@museum.com"));
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("visitor" + i + "@museum.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("stranger" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+        double observed = falsePositives / 100_000.0;
+        assertTrue(observed < 0.02, "доля ложноположительных " + observed);
+        assertTrue(Math.abs(filter.expectedFalsePositiveRate() - 0.01) < 0.005,
+                "оценка " + filter.expectedFalsePositiveRate());
+    }
+}
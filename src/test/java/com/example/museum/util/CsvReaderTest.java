@@ -0,0 +1,47 @@
+package com.example.museum.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * Проверяет разбор CSV в {@link CsvReader}.
+ */
+class CsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsAndTracksLines() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "type,name\r\nhall,\"Зал, южный\"\nexhibit,\"Роза \"\"Глория\"\"\nсорт\"\n,\n"));
+
+        assertEquals(List.of("type", "name"), reader.readRecord());
+        assertEquals(List.of("hall", "Зал, южный"), reader.readRecord());
+        assertEquals(2, reader.getRecordLineNumber());
+        assertEquals(List.of("exhibit", "Роза \"Глория\"\nсорт"), reader.readRecord());
+        assertEquals(List.of("", ""), reader.readRecord());
+        assertEquals(5, reader.getRecordLineNumber());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void readsLastRecordWithoutLineBreak() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b"));
+
+        assertEquals(List.of("a", "b"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        CsvReader reader = new CsvReader(new StringReader("a,\"b"));
+
+        assertThrows(IOException.class, reader::readRecord);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.museum.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Проверяет точность оценки, объединение и сериализацию {@link HyperLogLog}.
+ */
+class HyperLogLogTest {
+
+    @Test
+    void estimatesWithinExpectedError() {
+        for (int distinct : new int[]{10, 1_000, 100_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (int i = 0; i < distinct; i++) {
+                sketch.add("visitor" + i + "@museum.com");
+                sketch.add("VISITOR" + i + "@museum.com ");
+            }
+            long error = Math.abs(sketch.estimate() - distinct);
+            assertTrue(error <= Math.max(1, distinct / 20), "ошибка " + error + " для " + distinct);
+        }
+    }
+
+    @Test
+    void mergeIsUnionAndIdempotent() {
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        HyperLogLog both = new HyperLogLog();
+        for (int i = 0; i < 20_000; i++) {
+            monday.add("a" + i);
+            tuesday.add("a" + (i + 10_000));
+        }
+        for (int i = 0; i < 30_000; i++) {
+            both.add("a" + i);
+        }
+
+        monday.merge(tuesday).merge(tuesday);
+
+        assertEquals(both.estimate(), monday.estimate());
+    }
+
+    @Test
+    void roundTripsSparseAndDenseForms() {
+        HyperLogLog small = new HyperLogLog();
+        small.add("one@museum.com");
+        small.add("two@museum.com");
+        byte[] sparse = small.toBytes();
+        assertTrue(sparse.length < 16);
+        assertEquals(small.estimate(), HyperLogLog.fromBytes(sparse).estimate());
+
+        HyperLogLog large = new HyperLogLog();
+        for (int i = 0; i < 50_000; i++) {
+            large.add("v" + i);
+        }
+        byte[] dense = large.toBytes();
+        assertArrayEquals(dense, HyperLogLog.fromBytes(dense).toBytes());
+        assertEquals(large.estimate(), HyperLogLog.fromBytes(dense).estimate());
+    }
+}